@@ -1,5 +1,8 @@
+import com.android.build.api.variant.BuildConfigField
+
 plugins {
     alias(libs.plugins.android.application)
+    alias(libs.plugins.baselineprofile)
 }
 
 android {
@@ -14,23 +17,51 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Emulador -> localhost del equipo de desarrollo
+        buildConfigField("String", "BASE_URL", "\"http://10.0.2.2:8081/\"")
     }
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            // Los DTO se (de)serializan con adapters propios, así que R8 puede recortar y ofuscar
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
         }
     }
+    buildFeatures {
+        // BuildConfig.DEBUG decide qué se registra del tráfico de red
+        buildConfig = true
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
 }
 
+// Las variantes que crea el plugin de Baseline Profile (benchmarkRelease y nonMinifiedRelease)
+// hablan con el backend simulado que levanta :macrobenchmark en el propio dispositivo
+androidComponents {
+    onVariants { variant ->
+        if (variant.buildType == "benchmarkRelease" || variant.buildType == "nonMinifiedRelease") {
+            variant.buildConfigFields.put(
+                "BASE_URL",
+                BuildConfigField("String", "\"http://127.0.0.1:8081/\"", "Backend simulado de :macrobenchmark")
+            )
+        }
+    }
+}
+
+baselineProfile {
+    // El perfil se genera a mano (./gradlew :app:generateBaselineProfile) y se versiona en src/
+    automaticGenerationDuringBuild = false
+    saveInSrc = true
+}
+
 dependencies {
 
     implementation(libs.appcompat)
@@ -41,18 +72,27 @@ dependencies {
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
-    implementation("com.squareup.okhttp3:okhttp:4.12.0")
-
-    // Retrofit para comunicación API
-    implementation("com.squareup.retrofit2:retrofit:2.9.0")
-    implementation("com.squareup.retrofit2:converter-gson:2.9.0")
+    // Instala el Baseline Profile al instalar desde fuera de Play y marca las secciones de traza
+    implementation(libs.profileinstaller)
+    implementation(libs.tracing)
+    baselineProfile(project(":macrobenchmark"))
 
-    // OkHttp para intercepción de peticiones (token JWT)
-    implementation("com.squareup.okhttp3:okhttp:4.11.0")
-    implementation("com.squareup.okhttp3:logging-interceptor:4.11.0")
+    // DTO, ApiService, cliente HTTP y almacén local (expone Retrofit, Gson y OkHttp)
+    implementation(project(":core"))
 
-    // Glide para cargar imágenes
+    // Glide para cargar imágenes (con el OkHttp de la app y precarga en RecyclerView)
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    implementation("com.github.bumptech.glide:okhttp3-integration:4.16.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        isTransitive = false
+    }
+    annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+
+    // Envío en segundo plano de la cola de salida (altas, cambios y borrados de juegos)
+    implementation(libs.work.runtime)
+
+    // Orientación EXIF de las fotos antes de recomprimirlas para subir
+    implementation("androidx.exifinterface:exifinterface:1.3.7")
 
     // SwipeRefreshLayout
     implementation("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
@@ -1,33 +1,56 @@
 package com.example.gamelend.Activities;
 
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.ImageView;
+import android.widget.ProgressBar;
 import android.widget.Spinner;
 import android.widget.Toast;
+import com.example.gamelend.AppContainer;
 import com.example.gamelend.R;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.bumptech.glide.Glide;
 import com.example.gamelend.dto.GameDTO;
 import com.example.gamelend.dto.GameStatus;
+import com.example.gamelend.dto.ImageResponseDTO;
+import com.example.gamelend.images.CoverUploader;
+import com.example.gamelend.images.ImageCompressor;
 import com.example.gamelend.repository.GameRepository;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Locale;
 
 public class AgregarJuego extends AppCompatActivity {
 
     private EditText etTitle, etPlatform, etGenre, etDescription;
     private Spinner spinnerStatus;
     private Button btnSaveGame;
+    private ImageView ivPortada;
+    private ProgressBar progressSubida;
 
     private GameRepository gameRepository;
 
+    // Portada elegida (sin subir todavía) y subida en curso
+    private Uri portadaUri;
+    private CoverUploader.Subida subida;
+
+    private final ActivityResultLauncher<String> elegirPortada =
+            registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+                if (uri != null) {
+                    portadaUri = uri;
+                    // Vista previa reducida: Glide decodifica al tamaño de la vista, no el original
+                    Glide.with(this).load(uri).centerCrop().into(ivPortada);
+                }
+            });
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -40,6 +63,10 @@ public class AgregarJuego extends AppCompatActivity {
         etDescription = findViewById(R.id.etDescription);
         spinnerStatus = findViewById(R.id.spinnerStatus);
         btnSaveGame = findViewById(R.id.btnSaveGame);
+        ivPortada = findViewById(R.id.ivPortada);
+        progressSubida = findViewById(R.id.progressSubida);
+        Button btnElegirPortada = findViewById(R.id.btnElegirPortada);
+        btnElegirPortada.setOnClickListener(v -> elegirPortada.launch("image/*"));
 
         // Configurar spinner con enum GameStatus
         ArrayAdapter<GameStatus> adapter = new ArrayAdapter<>(
@@ -50,8 +77,8 @@ public class AgregarJuego extends AppCompatActivity {
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerStatus.setAdapter(adapter);
 
-        // Inicializar repositorio (pasa el context si tu ApiClient lo requiere)
-        gameRepository = new GameRepository(getApplicationContext());
+        // Repositorio compartido de la aplicación
+        gameRepository = AppContainer.get(this).getGameRepository();
 
         // Listener para el botón guardar
         btnSaveGame.setOnClickListener(new View.OnClickListener() {
@@ -75,6 +102,41 @@ public class AgregarJuego extends AppCompatActivity {
             return;
         }
 
+        btnSaveGame.setEnabled(false);
+        if (portadaUri == null) {
+            crearJuego(title, platform, genre, description, status, null);
+            return;
+        }
+
+        // Primero la portada (comprimida) y después el juego con su imageId
+        progressSubida.setProgress(0);
+        progressSubida.setVisibility(View.VISIBLE);
+        subida = gameRepository.subirPortada(portadaUri, new CoverUploader.Listener() {
+            @Override
+            public void onProgreso(int porcentaje) {
+                progressSubida.setProgress(porcentaje);
+            }
+
+            @Override
+            public void onSubida(ImageResponseDTO imagen, ImageCompressor.Resultado compresion) {
+                subida = null;
+                progressSubida.setVisibility(View.GONE);
+                Toast.makeText(AgregarJuego.this, "Portada subida: " + describir(compresion), Toast.LENGTH_SHORT).show();
+                crearJuego(title, platform, genre, description, status, imagen);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                subida = null;
+                progressSubida.setVisibility(View.GONE);
+                btnSaveGame.setEnabled(true);
+                Toast.makeText(AgregarJuego.this, "Error al subir la portada: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void crearJuego(String title, String platform, String genre, String description,
+                            GameStatus status, @Nullable ImageResponseDTO portada) {
         // Crear DTO para enviar
         GameDTO gameDTO = new GameDTO(
                 null, // id null para creación
@@ -84,29 +146,33 @@ public class AgregarJuego extends AppCompatActivity {
                 description.isEmpty() ? null : description,
                 status.name(),
                 1L, // aquí deberías poner el userId actual (ejemplo 1L)
-                null,
-                null,
+                portada != null ? portada.getId() : null,
+                portada != null ? portada.getImagePath() : null,
                 null,
                 null
         );
 
-        // Llamar API para crear juego
-        Call<com.example.gamelend.dto.GameResponseDTO> call = gameRepository.createGame(gameDTO);
-        call.enqueue(new Callback<com.example.gamelend.dto.GameResponseDTO>() {
-            @Override
-            public void onResponse(Call<com.example.gamelend.dto.GameResponseDTO> call, Response<com.example.gamelend.dto.GameResponseDTO> response) {
-                if (response.isSuccessful()) {
-                    Toast.makeText(AgregarJuego.this, "Juego agregado con éxito", Toast.LENGTH_SHORT).show();
-                    finish(); // cerrar la activity
-                } else {
-                    Toast.makeText(AgregarJuego.this, "Error al agregar juego: " + response.message(), Toast.LENGTH_SHORT).show();
-                }
-            }
+        // Se guarda en local y se envía en segundo plano: no hace falta esperar a la red
+        gameRepository.crearJuego(gameDTO);
+        Toast.makeText(this, "Juego guardado. Se sincronizará cuando haya conexión", Toast.LENGTH_SHORT).show();
+        finish();
+    }
 
-            @Override
-            public void onFailure(Call<com.example.gamelend.dto.GameResponseDTO> call, Throwable t) {
-                Toast.makeText(AgregarJuego.this, "Error en la conexión: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+    // "8,4 MB -> 312 KB (1600x1200, 420 ms)"
+    private static String describir(ImageCompressor.Resultado compresion) {
+        String original = compresion.getBytesOriginales() >= 0
+                ? String.format(Locale.getDefault(), "%.1f MB", compresion.getBytesOriginales() / (1024f * 1024f))
+                : "?";
+        return String.format(Locale.getDefault(), "%s -> %d KB (%dx%d, %d ms)", original,
+                compresion.getBytesComprimidos() / 1024, compresion.getAncho(), compresion.getAlto(),
+                compresion.getMilisegundos());
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (subida != null) {
+            subida.cancelar();
+        }
+        super.onDestroy();
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.example.gamelend.Activities;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
@@ -9,16 +12,48 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.gamelend.Models.Game;
 import com.example.gamelend.Models.GameAdapter;
+import com.example.gamelend.AppContainer;
 import com.example.gamelend.R;
+import com.example.gamelend.dto.GameStatus;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.images.ImageLoader;
+import com.example.gamelend.repository.Cancelable;
+import com.example.gamelend.repository.GameRepository;
+import com.example.gamelend.repository.StatusRollback;
+import com.example.gamelend.search.SearchIndex;
+import com.example.gamelend.util.AppExecutors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class ListaJuegos extends AppCompatActivity {
 
+    // Usuario cuyos juegos se muestran (desde el botón de juegos del directorio)
+    public static final String EXTRA_USUARIO_ID = "usuarioId";
+    public static final String EXTRA_NOMBRE_USUARIO = "nombreUsuario";
+
+    // Resultados que se pintan como mucho por búsqueda
+    private static final int MAX_RESULTADOS = 500;
+
     private RecyclerView recyclerView;
     private GameAdapter gameAdapter;
-    private List<Game> gameList;
+    // Todos los juegos; en pantalla se ven estos o los que encajan con la búsqueda
+    private List<Game> gameList = new ArrayList<>();
+    private final Map<Long, Game> juegosPorId = new HashMap<>();
+    private GameRepository gameRepository;
+    private long usuarioId = -1;
+    // Aviso del catálogo en curso; se deja de escuchar al cerrar la pantalla
+    private Cancelable catalogo;
+    // Avisos de estados deshechos; se quita en onDestroy para no recibir los de otra pantalla
+    private final StatusRollback.Listener alRevertir = this::deshacerEstado;
+
+    // Índice de búsqueda, actualizado en segundo plano juego a juego (cada llamada toma el
+    // cerrojo muy poco tiempo, así que buscar desde el hilo principal no espera)
+    private final SearchIndex indice = new SearchIndex();
+    private String consulta = "";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -28,23 +63,190 @@ public class ListaJuegos extends AppCompatActivity {
         recyclerView = findViewById(R.id.recyclerViewJuegos);
         recyclerView.setLayoutManager(new LinearLayoutManager(this)); // Configuración del LayoutManager
 
-        // Cargar los juegos de manera local
-        cargarJuegos();
+        gameAdapter = new GameAdapter(ListaJuegos.this, new ArrayList<>());
+        recyclerView.setAdapter(gameAdapter);
+        ImageLoader.crearPreloader(recyclerView, R.drawable.mando, gameAdapter::getImageId);
+        gameRepository = AppContainer.get(this).getGameRepository();
+
+        EditText etBuscar = findViewById(R.id.etBuscarJuego);
+        etBuscar.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                consulta = s.toString();
+                mostrar();
+            }
+        });
+
+        // Cambio de estado optimista: se pinta ya y el envío va en segundo plano
+        gameAdapter.setOnEstadoClickListener(this::cambiarEstado);
+        gameRepository.agregarListenerRevertidos(alRevertir);
+
+        if (getIntent().hasExtra(EXTRA_USUARIO_ID)) {
+            setTitle(getIntent().getStringExtra(EXTRA_NOMBRE_USUARIO));
+            usuarioId = getIntent().getLongExtra(EXTRA_USUARIO_ID, -1);
+            cargarJuegosDeUsuario(usuarioId);
+        } else {
+            // Catálogo completo: lo guardado en local al momento y la versión del servidor después
+            cargarCatalogo();
+        }
+    }
+
+    // Normalmente ya están precargados desde el directorio y se pintan sin esperar a la red
+    private void cargarJuegosDeUsuario(long usuarioId) {
+        gameRepository.obtenerJuegosDeUsuario(usuarioId).observe(this, juegos -> {
+            if (juegos == null) {
+                Toast.makeText(ListaJuegos.this, "Error al obtener los juegos", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            ponerJuegos(aJuegos(juegos));
+            indexar(juegos, true);
+        });
     }
 
-    private void cargarJuegos() {
-        // Crear una lista de juegos estática
-        gameList = new ArrayList<>();
+    // La primera vez (sin nada en local) llega por bloques y se va pintando según se decodifica
+    private void cargarCatalogo() {
+        catalogo = gameRepository.obtenerJuegos(new GameRepository.CatalogoListener() {
+            @Override
+            public void onLista(List<GameSummaryDTO> juegos) {
+                ponerJuegos(aJuegos(juegos));
+                indexar(juegos, true);
+            }
 
-        // Aquí agregamos algunos juegos de ejemplo a la lista
-        gameList.add(new Game("Juego 1", R.drawable.mando));
-        gameList.add(new Game("Juego 2", R.drawable.mando));
-        gameList.add(new Game("Juego 3", R.drawable.mando));
+            @Override
+            public void onBloque(List<GameSummaryDTO> bloque) {
+                List<Game> nuevos = aJuegos(bloque);
+                for (Game game : nuevos) {
+                    if (game.getId() != null) {
+                        juegosPorId.put(game.getId(), game);
+                    }
+                }
+                // El differ necesita una lista nueva; los bloques crecen, así que son pocas copias
+                List<Game> todos = new ArrayList<>(gameList.size() + nuevos.size());
+                todos.addAll(gameList);
+                todos.addAll(nuevos);
+                gameList = todos;
+                mostrar();
+                indexar(bloque, false);
+            }
 
-        gameAdapter = new GameAdapter(ListaJuegos.this, gameList);
+            @Override
+            public void onError(Throwable t) {
+                Toast.makeText(ListaJuegos.this, "Error al obtener los juegos", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 
-        recyclerView.setAdapter(gameAdapter);
+    private static List<Game> aJuegos(List<GameSummaryDTO> juegos) {
+        List<Game> nuevos = new ArrayList<>(juegos.size());
+        for (GameSummaryDTO juego : juegos) {
+            Game game = new Game(juego.getId(), juego.getTitle(), R.drawable.mando);
+            game.setImageId(juego.getImageId());
+            game.setEstado(juego.getStatus());
+            nuevos.add(game);
+        }
+        return nuevos;
     }
 
+    private void ponerJuegos(List<Game> juegos) {
+        gameList = juegos;
+        juegosPorId.clear();
+        for (Game game : juegos) {
+            if (game.getId() != null) {
+                juegosPorId.put(game.getId(), game);
+            }
+        }
+        mostrar();
+    }
+
+    // Título, plataforma y género; los juegos que no cambian no se vuelven a procesar.
+    // Con la lista completa se quitan del índice los que ya no están; un bloque solo añade.
+    private void indexar(List<GameSummaryDTO> juegos, boolean completa) {
+        final List<GameSummaryDTO> copia = new ArrayList<>(juegos);
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.computation().execute(() -> {
+            List<Long> ids = new ArrayList<>(copia.size());
+            for (GameSummaryDTO juego : copia) {
+                indice.indexar(juego.getId(), juego.getTitle(), juego.getPlatform(), juego.getGenre());
+                ids.add(juego.getId());
+            }
+            if (completa) {
+                indice.retener(ids);
+            }
+            // Si ya había algo escrito, se repite la búsqueda con el índice al día
+            executors.mainThread().execute(() -> {
+                if (!consulta.trim().isEmpty()) {
+                    mostrar();
+                }
+            });
+        });
+    }
+
+    // Todos los juegos o, si hay algo escrito, los que encajan por orden de relevancia.
+    // Con el índice la búsqueda cuesta menos de un milisegundo aunque haya miles de juegos.
+    private void mostrar() {
+        if (consulta.trim().isEmpty()) {
+            gameAdapter.actualizarJuegos(gameList);
+            return;
+        }
+        List<Game> encontrados = new ArrayList<>();
+        for (Long id : indice.buscar(consulta, MAX_RESULTADOS)) {
+            Game game = juegosPorId.get(id);
+            if (game != null) {
+                encontrados.add(game);
+            }
+        }
+        gameAdapter.actualizarJuegos(encontrados);
+    }
+
+    // Disponible -> Prestado -> No disponible -> Disponible
+    private void cambiarEstado(Game game) {
+        GameStatus anterior = GameStatus.fromString(game.getEstado());
+        if (anterior == null || game.getId() == null) {
+            return;
+        }
+        GameStatus[] estados = GameStatus.values();
+        GameStatus nuevo = estados[(anterior.ordinal() + 1) % estados.length];
+        reemplazarEstado(game.getId(), nuevo.name());
+        gameRepository.cambiarEstado(game.getId(), usuarioId >= 0 ? usuarioId : null, anterior, nuevo);
+    }
 
-}
\ No newline at end of file
+    private void deshacerEstado(StatusRollback.EstadoRevertido revertido) {
+        if (!reemplazarEstado(revertido.getGameId(), revertido.getEstado())) {
+            return;
+        }
+        Toast.makeText(this, revertido.isConflicto()
+                        ? "El estado ya había cambiado en el servidor; se muestra el actual"
+                        : "No se pudo cambiar el estado del juego",
+                Toast.LENGTH_SHORT).show();
+    }
+
+    // Devuelve false si el juego no está en la lista
+    private boolean reemplazarEstado(Long gameId, String estado) {
+        Game game = juegosPorId.get(gameId);
+        if (game == null || Objects.equals(estado, game.getEstado())) {
+            return false;
+        }
+        Game cambiado = game.conEstado(estado);
+        List<Game> nuevos = new ArrayList<>(gameList);
+        nuevos.set(nuevos.indexOf(game), cambiado);
+        ponerJuegos(nuevos);
+        return true;
+    }
+
+    @Override
+    protected void onDestroy() {
+        gameRepository.quitarListenerRevertidos(alRevertir);
+        if (catalogo != null) {
+            catalogo.cancelar();
+        }
+        super.onDestroy();
+    }
+}
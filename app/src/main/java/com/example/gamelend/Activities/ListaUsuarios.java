@@ -1,28 +1,35 @@
 package com.example.gamelend.Activities;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.Models.DirectoryPrefetcher;
 import com.example.gamelend.Models.ListAdapter;
-import com.example.gamelend.remote.api.ApiService;
-import com.example.gamelend.remote.api.ApiClient;
 import com.example.gamelend.R;
 import com.example.gamelend.dto.UserResponseDTO;
-import com.example.gamelend.repository.UserRepository;
+import com.example.gamelend.images.ImageLoader;
+import com.example.gamelend.session.SessionManager;
 import com.example.gamelend.viewmodel.ListaUsuariosViewModel;
 
+import java.util.ArrayList;
+
 public class ListaUsuarios extends AppCompatActivity {
 
     private ListaUsuariosViewModel viewModel;
     private RecyclerView recyclerView;
     private ListAdapter listAdapter;
-    private ApiService apiService;
-    private UserRepository userRepository;
+    private AppContainer container;
+    private DirectoryPrefetcher directoryPrefetcher;
+    private boolean dibujadoCompleto = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -32,40 +39,91 @@ public class ListaUsuarios extends AppCompatActivity {
 
         recyclerView = findViewById(R.id.recyclerView);
         recyclerView.setHasFixedSize(true);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
 
-        // Retrofit + Repository + ViewModel manuales (luego te muestro con Hilt)
-        apiService = ApiClient.getRetrofitInstance(this).create(ApiService.class);
-        userRepository = new UserRepository(apiService);
-        viewModel = new ListaUsuariosViewModel(userRepository);
+        // Repositorios y cliente HTTP vienen del contenedor de la aplicación
+        container = AppContainer.get(this);
+        viewModel = new ViewModelProvider(this, container.getViewModelFactory())
+                .get(ListaUsuariosViewModel.class);
 
+        crearAdapter();
         observarUsuarios();
+        configurarPrecarga(layoutManager);
+
+        // Se pintan los usuarios guardados en local mientras llega la lista del servidor.
+        // Tras un giro el ViewModel ya tiene la ventana cargada y no se vuelve a pedir.
+        if (viewModel.getUsuarios().getValue() == null) {
+            viewModel.cargarUsuarios(SessionManager.getInstance(this).getAccessToken());
+        }
+    }
+
+    private void crearAdapter() {
+        listAdapter = new ListAdapter(new ArrayList<>(), ListaUsuarios.this, new ListAdapter.OnItemClickListener() {
+            @Override
+            public void onEdit(UserResponseDTO usuario) {
+                Toast.makeText(ListaUsuarios.this, "Editar: " + usuario.getNombrePublico(), Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onDelete(UserResponseDTO usuario) {
+                Toast.makeText(ListaUsuarios.this, "Eliminar: " + usuario.getNombrePublico(), Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onJuegosClick(UserResponseDTO usuario) {
+                Intent intent = new Intent(ListaUsuarios.this, ListaJuegos.class);
+                intent.putExtra(ListaJuegos.EXTRA_USUARIO_ID, usuario.getId());
+                intent.putExtra(ListaJuegos.EXTRA_NOMBRE_USUARIO, usuario.getNombrePublico());
+                startActivity(intent);
+            }
+        });
+        recyclerView.setAdapter(listAdapter);
+        ImageLoader.crearPreloader(recyclerView, R.drawable.perfil_usuario, listAdapter::getImageId);
     }
 
     private void observarUsuarios() {
-        viewModel.getUsuarios().observe(this, usuarios -> {
-            if (usuarios != null) {
-                listAdapter = new ListAdapter(usuarios, ListaUsuarios.this, new ListAdapter.OnItemClickListener() {
-                    @Override
-                    public void onEdit(UserResponseDTO usuario) {
-                        Toast.makeText(ListaUsuarios.this, "Editar: " + usuario.getNombrePublico(), Toast.LENGTH_SHORT).show();
-                    }
+        viewModel.getUsuarios().observe(this, ventana -> {
+            if (ventana != null) {
+                listAdapter.actualizarVentana(ventana);
+                notificarDibujadoCompleto(ventana.getUsuarios().isEmpty());
+            } else {
+                Toast.makeText(ListaUsuarios.this, "Error al obtener los usuarios", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    // La pantalla se considera lista con los primeros usuarios pintados (time-to-full-display)
+    private void notificarDibujadoCompleto(boolean vacia) {
+        if (dibujadoCompleto || vacia) {
+            return;
+        }
+        dibujadoCompleto = true;
+        recyclerView.post(() -> {
+            Trace.endAsyncSection(MainActivity.TRAZA_LOGIN_A_DIRECTORIO, 0);
+            reportFullyDrawn();
+        });
+    }
 
+    // Páginas por delante del scroll y juegos de los usuarios que se quedan en pantalla
+    private void configurarPrecarga(LinearLayoutManager layoutManager) {
+        directoryPrefetcher = DirectoryPrefetcher.conectar(recyclerView, layoutManager,
+                container.getGameRepository().getPrecargaJuegosPorUsuario(), new DirectoryPrefetcher.Paginador() {
                     @Override
-                    public void onDelete(UserResponseDTO usuario) {
-                        Toast.makeText(ListaUsuarios.this, "Eliminar: " + usuario.getNombrePublico(), Toast.LENGTH_SHORT).show();
+                    public void cargarSiguientePagina() {
+                        viewModel.cargarSiguientePagina();
                     }
 
                     @Override
-                    public void onJuegosClick(UserResponseDTO usuario) {
-                        Toast.makeText(ListaUsuarios.this, "Juegos: " + usuario.getNombrePublico(), Toast.LENGTH_SHORT).show();
+                    public void cargarPaginaAnterior() {
+                        viewModel.cargarPaginaAnterior();
                     }
-                });
+                }, container.getAdaptiveLoadPolicy());
+    }
 
-                recyclerView.setAdapter(listAdapter);
-            } else {
-                Toast.makeText(ListaUsuarios.this, "Error al obtener los usuarios", Toast.LENGTH_SHORT).show();
-            }
-        });
+    @Override
+    protected void onDestroy() {
+        directoryPrefetcher.desconectar();
+        super.onDestroy();
     }
 }
@@ -1,7 +1,6 @@
 package com.example.gamelend.Activities;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -9,20 +8,31 @@ import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
 
-import com.example.gamelend.remote.api.ApiClient;
-import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.BuildConfig;
 import com.example.gamelend.R;
-import com.example.gamelend.repository.UserRepository;
+import com.example.gamelend.repository.Cancelable;
+import com.example.gamelend.session.SessionManager;
 import com.example.gamelend.viewmodel.MainViewModel;
 
 
 public class MainActivity extends AppCompatActivity {
 
+    // Sección de traza desde que se pulsa "Entrar" hasta que ListaUsuarios pinta usuarios (Macrobenchmark)
+    public static final String TRAZA_LOGIN_A_DIRECTORIO = "GameLend:loginADirectorio";
+    // Desde que se pulsa "Entrar" hasta que llega la respuesta del login
+    public static final String TRAZA_LOGIN = "GameLend:login";
+    // Los benchmarks lo usan para medir el login sin conexiones precalentadas
+    public static final String EXTRA_SIN_PRECALENTAR = "sin_precalentar";
+
     private EditText editTextUsuario, editTextContrasena;
     private Button buttonEntrar;
 
     private MainViewModel viewModel;
+    private Cancelable precalentamiento;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -35,15 +45,22 @@ public class MainActivity extends AppCompatActivity {
         buttonEntrar = findViewById(R.id.buttonEntrar);
         Button buttonRegistrarse = findViewById(R.id.buttonRegistrarse);
 
-        // Crear el repository y el viewModel de forma manual por ahora
-        ApiService apiService = ApiClient.getRetrofitInstance(this).create(ApiService.class);
-        UserRepository userRepository = new UserRepository(apiService);
-        viewModel = new MainViewModel(userRepository);
+        // Repositorios y cliente HTTP vienen del contenedor de la aplicación
+        viewModel = new ViewModelProvider(this, AppContainer.get(this).getViewModelFactory())
+                .get(MainViewModel.class);
 
         setupObservers();
 
         buttonEntrar.setOnClickListener(v -> validarUsuario());
 
+        // En debug, pulsación larga en el logo para ver las métricas de red
+        if (BuildConfig.DEBUG) {
+            findViewById(R.id.imageViewLogo).setOnLongClickListener(v -> {
+                startActivity(new Intent(MainActivity.this, MetricasRed.class));
+                return true;
+            });
+        }
+
         // Acción para ir a la actividad de registro
         buttonRegistrarse.setOnClickListener(v -> {
             Intent intent = new Intent(MainActivity.this, Registro.class);
@@ -51,6 +68,25 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    // Mientras se escriben las credenciales se abren las conexiones con el backend
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (!getIntent().getBooleanExtra(EXTRA_SIN_PRECALENTAR, false)) {
+            precalentamiento = AppContainer.get(this).precalentarConexiones();
+        }
+    }
+
+    // En segundo plano no tiene sentido seguir abriendo conexiones
+    @Override
+    protected void onStop() {
+        if (precalentamiento != null) {
+            precalentamiento.cancelar();
+            precalentamiento = null;
+        }
+        super.onStop();
+    }
+
     private void validarUsuario() {
         String usuario = editTextUsuario.getText().toString().trim();
         String contrasena = editTextContrasena.getText().toString().trim();
@@ -60,22 +96,21 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
+        Trace.beginAsyncSection(TRAZA_LOGIN_A_DIRECTORIO, 0);
+        Trace.beginAsyncSection(TRAZA_LOGIN, 0);
         viewModel.login(usuario, contrasena);
     }
 
     private void setupObservers() {
         viewModel.getTokenResponse().observe(this, tokenResponseDTO -> {
+            Trace.endAsyncSection(TRAZA_LOGIN, 0);
             if (tokenResponseDTO != null) {
                 // Obtenemos el AccessToken y el RefreshToken
                 String accessToken = tokenResponseDTO.getAccessToken();
                 String token = tokenResponseDTO.getRefreshToken();
 
-                // Guardamos el token en SharedPreferences (opcional)
-                SharedPreferences prefs = getSharedPreferences("MisPreferencias", MODE_PRIVATE);
-                SharedPreferences.Editor editor = prefs.edit();
-                editor.putString("accessToken", accessToken);
-                editor.putString("refreshToken", token);
-                editor.apply();
+                // Guardamos los tokens en la sesión (memoria + disco en segundo plano)
+                SessionManager.getInstance(this).guardarTokens(accessToken, token);
 
                 Toast.makeText(MainActivity.this, "Incicio de sesión exitoso " , Toast.LENGTH_SHORT).show();
 
@@ -0,0 +1,90 @@
+package com.example.gamelend.Activities;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.R;
+import com.example.gamelend.remote.api.NetworkStack;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Pantalla de depuración: latencias por endpoint (p50/p95/p99) y contadores de caché.
+// Se abre con una pulsación larga sobre el logo de la pantalla de login (solo en debug).
+public class MetricasRed extends AppCompatActivity {
+
+    private TextView tvMetricas;
+    private AppContainer container;
+    private NetworkStack networkStack;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metricas_red);
+
+        container = AppContainer.get(this);
+
+        tvMetricas = findViewById(R.id.tvMetricas);
+        Button btnExportar = findViewById(R.id.btnExportarMetricas);
+        Button btnReiniciar = findViewById(R.id.btnReiniciarMetricas);
+
+        btnExportar.setOnClickListener(v -> exportar());
+        btnReiniciar.setOnClickListener(v -> {
+            networkStack.getLatencyMetrics().reiniciar();
+            mostrar();
+        });
+        btnExportar.setEnabled(false);
+        btnReiniciar.setEnabled(false);
+
+        // Sin esperar en el hilo principal a que se construya el cliente
+        container.conNetworkStack(stack -> {
+            networkStack = stack;
+            btnExportar.setEnabled(true);
+            btnReiniciar.setEnabled(true);
+            mostrar();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mostrar();
+    }
+
+    private void mostrar() {
+        if (networkStack == null) {
+            return;
+        }
+        String texto = networkStack.getCacheStats()
+                + "\n" + container.getGameRepository().getPrecargaJuegosPorUsuario()
+                + "\n" + container.getAdaptiveLoadPolicy()
+                + "\n\n" + networkStack.getLatencyMetrics().toJson();
+        tvMetricas.setText(texto);
+    }
+
+    // Vuelca las latencias y el registro de peticiones a ficheros de la app
+    private void exportar() {
+        File dir = getExternalFilesDir(null);
+        if (dir == null) {
+            dir = getFilesDir();
+        }
+        File latencias = new File(dir, "latencias.json");
+        File peticiones = new File(dir, "peticiones.json");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(latencias), StandardCharsets.UTF_8)) {
+            writer.write(networkStack.getLatencyMetrics().toJson());
+            networkStack.getNetworkLog().exportar(peticiones);
+            Toast.makeText(this, "Exportado en " + dir.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "Error al exportar: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+}
@@ -11,10 +11,10 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.example.gamelend.AppContainer;
 import com.example.gamelend.R;
 import com.example.gamelend.dto.RegisterRequestDTO;
 import com.example.gamelend.dto.TokenResponseDTO;
-import com.example.gamelend.remote.api.ApiClient;
 import com.example.gamelend.remote.api.ApiService;
 
 import retrofit2.Call;
@@ -44,8 +44,8 @@ public class Registro extends AppCompatActivity {
 //        editTextCiudad = findViewById(R.id.editTextCity);
         buttonRegistrar = findViewById(R.id.buttonEntrar);
 
-        // Inicializar Retrofit
-        apiService = ApiClient.getRetrofitInstance(this).create(ApiService.class);
+        // Cliente compartido de la aplicación (se termina de construir en segundo plano)
+        apiService = AppContainer.get(this).getApiService();
 
         // Evento del botón
         buttonRegistrar.setOnClickListener(v -> {
@@ -0,0 +1,207 @@
+package com.example.gamelend;
+
+import android.content.Context;
+
+import com.example.gamelend.local.LocalDatabase;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.api.ConnectionWarmer;
+import com.example.gamelend.remote.api.DeferredCall;
+import com.example.gamelend.remote.api.NetworkStack;
+import com.example.gamelend.remote.metrics.NetworkQualityEstimator;
+import com.example.gamelend.repository.AdaptiveLoadPolicy;
+import com.example.gamelend.repository.Cancelable;
+import com.example.gamelend.repository.GameRepository;
+import com.example.gamelend.repository.UserRepository;
+import com.example.gamelend.session.SessionManager;
+import com.example.gamelend.util.AppExecutors;
+import com.example.gamelend.viewmodel.ViewModelFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Call;
+
+// Dependencias de toda la app, creadas una sola vez y solo con el contexto de la aplicación.
+// El cliente HTTP (OkHttpClient, caché, Retrofit) es lo caro: se construye en un hilo propio
+// al arrancar y, hasta que está listo, ApiService es un envoltorio que devuelve DeferredCall:
+// la llamada real se crea al ejecutarla (en un hilo de fondo), así que crear repositorios,
+// ViewModels o llamadas desde el hilo principal nunca espera al cliente.
+public class AppContainer {
+
+    // Localhost en el emulador; los builds de benchmark apuntan al backend simulado
+    private static final String BASE_URL = BuildConfig.BASE_URL;
+    // Conexiones que se dejan abiertas antes del login: la del login y la de la primera página
+    private static final int CONEXIONES_PRECALENTADAS = 2;
+
+    private final Context appContext;
+    // Existen desde el principio: la política se puede consultar sin esperar al cliente
+    private final NetworkQualityEstimator calidadRed = new NetworkQualityEstimator();
+    private final AdaptiveLoadPolicy adaptiveLoadPolicy = new AdaptiveLoadPolicy(calidadRed);
+    private final FutureTask<NetworkStack> networkStack;
+    private final ApiService apiService;
+
+    private volatile LocalDatabase localDatabase;
+    private volatile UserRepository userRepository;
+    private volatile GameRepository gameRepository;
+    private volatile ViewModelFactory viewModelFactory;
+
+    AppContainer(Context context) {
+        appContext = context.getApplicationContext();
+        networkStack = new FutureTask<>(() -> new NetworkStack(BASE_URL, appContext.getCacheDir(),
+                SessionManager.getInstance(appContext), BuildConfig.DEBUG, calidadRed));
+        apiService = (ApiService) Proxy.newProxyInstance(ApiService.class.getClassLoader(),
+                new Class<?>[]{ApiService.class}, (proxy, metodo, args) -> {
+                    if (metodo.getDeclaringClass() == Object.class) {
+                        return metodoDeObject(proxy, metodo, args);
+                    }
+                    if (networkStack.isDone()) {
+                        return invocar(metodo, args);
+                    }
+                    // Todos los métodos de ApiService devuelven Call
+                    return new DeferredCall<>(() -> (Call<Object>) invocar(metodo, args),
+                            AppExecutors.getInstance().networkIO());
+                });
+    }
+
+    private Object invocar(Method metodo, Object[] args) {
+        try {
+            return metodo.invoke(getNetworkStack().getApiService(), args);
+        } catch (InvocationTargetException e) {
+            Throwable causa = e.getCause();
+            throw causa instanceof RuntimeException ? (RuntimeException) causa : new IllegalStateException(causa);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // equals, hashCode y toString del envoltorio, sin esperar al cliente
+    private static Object metodoDeObject(Object proxy, Method metodo, Object[] args) {
+        switch (metodo.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "ApiService (cliente diferido)";
+        }
+    }
+
+    public static AppContainer get(Context context) {
+        return ((GameLendApp) context.getApplicationContext()).getContainer();
+    }
+
+    // Empieza a construir el cliente en segundo plano; se llama al arrancar la app
+    void precalentar() {
+        Thread hilo = new Thread(networkStack, "gamelend-red");
+        hilo.setPriority(Thread.NORM_PRIORITY - 1);
+        hilo.start();
+    }
+
+    // Bloquea hasta que el cliente está construido: solo desde hilos de fondo (en el principal,
+    // conNetworkStack). Si aún no ha empezado se construye en el hilo que lo pide (run() no hace
+    // nada si otro hilo ya lo está construyendo).
+    public NetworkStack getNetworkStack() {
+        networkStack.run();
+        try {
+            return networkStack.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo crear el cliente HTTP", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando al cliente HTTP", e);
+        }
+    }
+
+    // Entrega el cliente en el hilo principal en cuanto esté construido (al momento si ya lo está)
+    public void conNetworkStack(AlListo alListo) {
+        AppExecutors executors = AppExecutors.getInstance();
+        if (networkStack.isDone()) {
+            alListo.onListo(getNetworkStack());
+            return;
+        }
+        executors.networkIO().execute(() -> {
+            NetworkStack stack = getNetworkStack();
+            executors.mainThread().execute(() -> alListo.onListo(stack));
+        });
+    }
+
+    public interface AlListo {
+        void onListo(NetworkStack stack);
+    }
+
+    // Abre conexiones con el backend en segundo plano (esperando al cliente si aún se está
+    // construyendo). Cancelar corta las que sigan abriéndose.
+    public Cancelable precalentarConexiones() {
+        AtomicBoolean cancelado = new AtomicBoolean(false);
+        AppExecutors.getInstance().networkIO().execute(() -> {
+            if (cancelado.get()) {
+                return;
+            }
+            ConnectionWarmer warmer = getNetworkStack().getConnectionWarmer();
+            warmer.calentar(CONEXIONES_PRECALENTADAS);
+            if (cancelado.get()) {
+                warmer.cancelar();
+            }
+        });
+        return () -> {
+            cancelado.set(true);
+            if (networkStack.isDone()) {
+                getNetworkStack().getConnectionWarmer().cancelar();
+            }
+        };
+    }
+
+    // Tamaños de página, márgenes de precarga y resolución de portadas según la red
+    public AdaptiveLoadPolicy getAdaptiveLoadPolicy() {
+        return adaptiveLoadPolicy;
+    }
+
+    public ApiService getApiService() {
+        return apiService;
+    }
+
+    public LocalDatabase getLocalDatabase() {
+        if (localDatabase == null) {
+            localDatabase = LocalDatabase.getInstance(appContext);
+        }
+        return localDatabase;
+    }
+
+    public UserRepository getUserRepository() {
+        if (userRepository == null) {
+            synchronized (this) {
+                if (userRepository == null) {
+                    userRepository = new UserRepository(apiService, getLocalDatabase());
+                }
+            }
+        }
+        return userRepository;
+    }
+
+    public GameRepository getGameRepository() {
+        if (gameRepository == null) {
+            synchronized (this) {
+                if (gameRepository == null) {
+                    gameRepository = new GameRepository(appContext, apiService, getLocalDatabase());
+                }
+            }
+        }
+        return gameRepository;
+    }
+
+    // Fábrica de los ViewModels de las pantallas, con los repositorios de este contenedor
+    public ViewModelFactory getViewModelFactory() {
+        if (viewModelFactory == null) {
+            synchronized (this) {
+                if (viewModelFactory == null) {
+                    viewModelFactory = new ViewModelFactory(this);
+                }
+            }
+        }
+        return viewModelFactory;
+    }
+}
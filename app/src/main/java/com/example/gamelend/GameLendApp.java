@@ -0,0 +1,20 @@
+package com.example.gamelend;
+
+import android.app.Application;
+
+// Crea el contenedor de dependencias y arranca en segundo plano la construcción del cliente HTTP
+public class GameLendApp extends Application {
+
+    private AppContainer container;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        container = new AppContainer(this);
+        container.precalentar();
+    }
+
+    public AppContainer getContainer() {
+        return container;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.gamelend.Models;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.gamelend.repository.AdaptiveLoadPolicy;
+import com.example.gamelend.repository.Prefetcher;
+
+// Precarga del directorio de usuarios enganchada al RecyclerView:
+// - pide la página siguiente (o la anterior) con margen suficiente para no ver el final de la lista;
+//   el margen crece con el número de filas en pantalla, durante un fling y con una red mejor
+// - cada fila que entra en pantalla se pasa al Prefetcher de juegos, que solo la pide si sigue
+//   visible un rato; al salir de pantalla (o al separarse la lista de la ventana) se cancela
+public class DirectoryPrefetcher {
+
+    public interface Paginador {
+        void cargarSiguientePagina();
+
+        void cargarPaginaAnterior();
+    }
+
+    // Filas de margen mínimo antes del borde para pedir la página siguiente
+    private static final int UMBRAL_MINIMO = 10;
+
+    private final RecyclerView recyclerView;
+    private final LinearLayoutManager layoutManager;
+    private final Prefetcher<Long, ?> juegos;
+    private final Paginador paginador;
+    private final AdaptiveLoadPolicy politica;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+            precargarPaginas(dy);
+        }
+    };
+
+    private final RecyclerView.OnChildAttachStateChangeListener filasListener =
+            new RecyclerView.OnChildAttachStateChangeListener() {
+                @Override
+                public void onChildViewAttachedToWindow(@NonNull View view) {
+                    long id = recyclerView.getChildItemId(view);
+                    if (id != RecyclerView.NO_ID) {
+                        juegos.visible(id);
+                    }
+                }
+
+                @Override
+                public void onChildViewDetachedFromWindow(@NonNull View view) {
+                    long id = recyclerView.getChildItemId(view);
+                    if (id != RecyclerView.NO_ID) {
+                        juegos.oculto(id);
+                    }
+                }
+            };
+
+    private final View.OnAttachStateChangeListener listaListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(@NonNull View v) {
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull View v) {
+            juegos.cancelarTodo();
+        }
+    };
+
+    private DirectoryPrefetcher(RecyclerView recyclerView, LinearLayoutManager layoutManager,
+                                Prefetcher<Long, ?> juegos, Paginador paginador, AdaptiveLoadPolicy politica) {
+        this.recyclerView = recyclerView;
+        this.layoutManager = layoutManager;
+        this.juegos = juegos;
+        this.paginador = paginador;
+        this.politica = politica;
+    }
+
+    // Necesita un adapter con ids estables (el id de cada fila es el del usuario)
+    public static DirectoryPrefetcher conectar(RecyclerView recyclerView, LinearLayoutManager layoutManager,
+                                               Prefetcher<Long, ?> juegos, Paginador paginador,
+                                               AdaptiveLoadPolicy politica) {
+        DirectoryPrefetcher prefetcher = new DirectoryPrefetcher(recyclerView, layoutManager, juegos, paginador,
+                politica);
+        recyclerView.addOnScrollListener(prefetcher.scrollListener);
+        recyclerView.addOnChildAttachStateChangeListener(prefetcher.filasListener);
+        recyclerView.addOnAttachStateChangeListener(prefetcher.listaListener);
+        return prefetcher;
+    }
+
+    public void desconectar() {
+        recyclerView.removeOnScrollListener(scrollListener);
+        recyclerView.removeOnChildAttachStateChangeListener(filasListener);
+        recyclerView.removeOnAttachStateChangeListener(listaListener);
+        juegos.cancelarTodo();
+    }
+
+    private void precargarPaginas(int dy) {
+        int primera = layoutManager.findFirstVisibleItemPosition();
+        int ultima = layoutManager.findLastVisibleItemPosition();
+        if (primera == RecyclerView.NO_POSITION) {
+            return;
+        }
+        int total = layoutManager.getItemCount();
+        int visibles = ultima - primera + 1;
+        int pantallas = politica.pantallasMargen(
+                recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_SETTLING);
+        int margen = Math.max(UMBRAL_MINIMO, visibles * pantallas);
+
+        if (dy > 0 && ultima >= total - margen) {
+            paginador.cargarSiguientePagina();
+        } else if (dy < 0 && primera <= margen) {
+            paginador.cargarPaginaAnterior();
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.example.gamelend.Models;
 
 public class Game {
+    private Long id;
     private String nombre;
     private int imagenResource;
+    // Portada en el servidor; mientras no haya se usa imagenResource
+    private Long imageId;
+    // Nombre de GameStatus (AVAILABLE, BORROWED...); null en los juegos de ejemplo
+    private String estado;
 
     public Game(String nombre, int imagenResource) {
+        this(null, nombre, imagenResource);
+    }
+
+    public Game(Long id, String nombre, int imagenResource) {
+        this.id = id;
         this.nombre = nombre;
         this.imagenResource = imagenResource;
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getNombre() {
         return nombre;
     }
@@ -24,4 +42,28 @@ public class Game {
     public void setImagenResource(int imagenResource) {
         this.imagenResource = imagenResource;
     }
+
+    public Long getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(Long imageId) {
+        this.imageId = imageId;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    // Copia con otro estado: la lista del adapter no se modifica en el sitio para que el differ vea el cambio
+    public Game conEstado(String estado) {
+        Game copia = new Game(id, nombre, imagenResource);
+        copia.setImageId(imageId);
+        copia.setEstado(estado);
+        return copia;
+    }
 }
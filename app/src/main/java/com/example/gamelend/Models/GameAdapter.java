@@ -10,20 +10,62 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.gamelend.R;
+import com.example.gamelend.dto.GameStatus;
+import com.example.gamelend.images.ImageLoader;
 
 import java.util.List;
+import java.util.Objects;
 
 public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder> {
 
+    // Identidad por id (o por nombre en los juegos locales que aún no tienen id)
+    private static final DiffUtil.ItemCallback<Game> DIFF_CALLBACK = new DiffUtil.ItemCallback<Game>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Game viejo, @NonNull Game nuevo) {
+            if (viejo.getId() != null || nuevo.getId() != null) {
+                return Objects.equals(viejo.getId(), nuevo.getId());
+            }
+            return Objects.equals(viejo.getNombre(), nuevo.getNombre());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Game viejo, @NonNull Game nuevo) {
+            return Objects.equals(viejo.getNombre(), nuevo.getNombre())
+                    && viejo.getImagenResource() == nuevo.getImagenResource()
+                    && Objects.equals(viejo.getImageId(), nuevo.getImageId())
+                    && Objects.equals(viejo.getEstado(), nuevo.getEstado());
+        }
+    };
+
+    public interface OnEstadoClickListener {
+        void onEstadoClick(Game game);
+    }
+
     private Context context;
-    private List<Game> gameList;
+    private final AsyncListDiffer<Game> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private OnEstadoClickListener estadoListener;
 
     public GameAdapter(Context context, List<Game> gameList) {
         this.context = context;
-        this.gameList = gameList;
+        differ.submitList(gameList);
+    }
+
+    public void setOnEstadoClickListener(OnEstadoClickListener estadoListener) {
+        this.estadoListener = estadoListener;
+    }
+
+    public List<Game> getJuegos() {
+        return differ.getCurrentList();
+    }
+
+    // Las listas nuevas se comparan en segundo plano y solo se notifican los cambios reales
+    public void actualizarJuegos(List<Game> juegos) {
+        differ.submitList(juegos);
     }
 
     @NonNull
@@ -35,24 +77,62 @@ public class GameAdapter extends RecyclerView.Adapter<GameAdapter.GameViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull GameViewHolder holder, int position) {
-        Game game = gameList.get(position);
+        Game game = differ.getCurrentList().get(position);
         holder.tvNombreJuego.setText(game.getNombre());
-        holder.imageViewJuego.setImageResource(game.getImagenResource());
+        GameStatus estado = GameStatus.fromString(game.getEstado());
+        if (estado == null) {
+            holder.tvEstadoJuego.setVisibility(View.GONE);
+        } else {
+            holder.tvEstadoJuego.setVisibility(View.VISIBLE);
+            holder.tvEstadoJuego.setText(textoEstado(estado));
+            holder.tvEstadoJuego.setOnClickListener(v -> {
+                if (estadoListener != null) {
+                    estadoListener.onEstadoClick(game);
+                }
+            });
+        }
+        // Portada del servidor si la hay; si no, la imagen local del juego
+        ImageLoader.cargarMiniatura(holder.imageViewJuego, game.getImageId(), game.getImagenResource());
+    }
+
+    private static int textoEstado(GameStatus estado) {
+        switch (estado) {
+            case BORROWED:
+                return R.string.estado_prestado;
+            case UNAVAILABLE:
+                return R.string.estado_no_disponible;
+            default:
+                return R.string.estado_disponible;
+        }
+    }
+
+    // Para la precarga de portadas de las filas que están por llegar
+    public Long getImageId(int position) {
+        List<?> actual = differ.getCurrentList();
+        return position < actual.size() ? differ.getCurrentList().get(position).getImageId() : null;
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull GameViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancelar(holder.imageViewJuego);
     }
 
     @Override
     public int getItemCount() {
-        return gameList.size();
+        return differ.getCurrentList().size();
     }
 
     public static class GameViewHolder extends RecyclerView.ViewHolder {
         TextView tvNombreJuego;
+        TextView tvEstadoJuego;
         ImageView imageViewJuego;
         CardView cardView;
 
         public GameViewHolder(@NonNull View itemView) {
             super(itemView);
             tvNombreJuego = itemView.findViewById(R.id.tvNombreJuego);
+            tvEstadoJuego = itemView.findViewById(R.id.tvEstadoJuego);
             imageViewJuego = itemView.findViewById(R.id.imageViewJuego);
             cardView = (CardView) itemView;
         }
@@ -9,23 +9,74 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.gamelend.R;
 import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.images.ImageLoader;
+import com.example.gamelend.viewmodel.VentanaUsuarios;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class ListAdapter extends RecyclerView.Adapter<ListAdapter.ViewHolder> {
 
-    private List<UserResponseDTO> usuarios;
+    // Las listas nuevas se comparan en segundo plano y solo se notifican los cambios reales
+    private static final DiffUtil.ItemCallback<UserResponseDTO> DIFF_CALLBACK = new DiffUtil.ItemCallback<UserResponseDTO>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserResponseDTO viejo, @NonNull UserResponseDTO nuevo) {
+            return Objects.equals(viejo.getId(), nuevo.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserResponseDTO viejo, @NonNull UserResponseDTO nuevo) {
+            return Objects.equals(viejo.getNombrePublico(), nuevo.getNombrePublico())
+                    && Objects.equals(viejo.getLocalidad(), nuevo.getLocalidad())
+                    && Objects.equals(viejo.getProvincia(), nuevo.getProvincia())
+                    && Objects.equals(viejo.getEmail(), nuevo.getEmail())
+                    && Objects.equals(viejo.getImageId(), nuevo.getImageId());
+        }
+    };
+
+    private final AsyncListDiffer<UserResponseDTO> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Context context;
     private OnItemClickListener listener;
 
     public ListAdapter(List<UserResponseDTO> usuarios, Context context, OnItemClickListener listener) {
-        this.usuarios = usuarios;
         this.context = context;
         this.listener = listener;
+        setHasStableIds(true);
+        differ.submitList(conId(usuarios));
+    }
+
+    // Sustituye la ventana de páginas; el diff se calcula fuera del hilo principal
+    public void actualizarVentana(VentanaUsuarios ventana) {
+        differ.submitList(conId(ventana.getUsuarios()));
+    }
+
+    // Con ids estables cada fila necesita uno propio; un usuario sin id no se puede abrir
+    // ni precargar, así que no se muestra
+    private static List<UserResponseDTO> conId(List<UserResponseDTO> usuarios) {
+        for (UserResponseDTO usuario : usuarios) {
+            if (usuario.getId() == null) {
+                List<UserResponseDTO> filtrados = new ArrayList<>(usuarios.size());
+                for (UserResponseDTO u : usuarios) {
+                    if (u.getId() != null) {
+                        filtrados.add(u);
+                    }
+                }
+                return filtrados;
+            }
+        }
+        return usuarios;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
     }
 
     @NonNull
@@ -37,13 +88,25 @@ public class ListAdapter extends RecyclerView.Adapter<ListAdapter.ViewHolder> {
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        UserResponseDTO usuario = usuarios.get(position);
+        UserResponseDTO usuario = differ.getCurrentList().get(position);
         holder.bind(usuario, listener);
     }
 
     @Override
     public int getItemCount() {
-        return usuarios.size();
+        return differ.getCurrentList().size();
+    }
+
+    // Para la precarga de avatares de las filas que están por llegar
+    public Long getImageId(int position) {
+        List<?> actual = differ.getCurrentList();
+        return position < actual.size() ? differ.getCurrentList().get(position).getImageId() : null;
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.cancelar(holder.ivFoto);
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -66,7 +129,7 @@ public class ListAdapter extends RecyclerView.Adapter<ListAdapter.ViewHolder> {
             // Asignamos los datos del usuario a las vistas
             tvNombre.setText(usuario.getNombrePublico());
             tvCiudad.setText(usuario.getLocalidad());
-            ivFoto.setImageResource(R.drawable.perfil_usuario);
+            ImageLoader.cargarMiniatura(ivFoto, usuario.getImageId(), R.drawable.perfil_usuario);
 
             // Asignamos el comportamiento de los botones de acción
             ibJuegos.setOnClickListener(new View.OnClickListener() {
@@ -0,0 +1,124 @@
+package com.example.gamelend.images;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.example.gamelend.dto.ImageResponseDTO;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.upload.ProgressRequestBody;
+import com.example.gamelend.util.AppExecutors;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+// Subida de una portada: compresión en el hilo de cálculo (no retrasa las escrituras del hilo
+// de disco) y envío multipart en networkIO leyendo el JPEG de disco por segmentos. Los avisos
+// al listener llegan en el hilo principal.
+public class CoverUploader {
+
+    private static final MediaType JPEG = MediaType.get("image/jpeg");
+
+    public interface Listener {
+        void onProgreso(int porcentaje);
+
+        void onSubida(ImageResponseDTO imagen, ImageCompressor.Resultado compresion);
+
+        void onError(Throwable t);
+    }
+
+    // Subida en curso; cancelar() descarta la compresión pendiente o corta el envío
+    public static class Subida {
+        private volatile boolean cancelada;
+        private volatile Call<ImageResponseDTO> call;
+
+        public void cancelar() {
+            cancelada = true;
+            Call<ImageResponseDTO> actual = call;
+            if (actual != null) {
+                actual.cancel();
+            }
+        }
+    }
+
+    private final ApiService apiService;
+    private final ImageCompressor compressor;
+    private final AppExecutors executors;
+
+    public CoverUploader(Context context, ApiService apiService) {
+        this.apiService = apiService;
+        this.compressor = new ImageCompressor(context.getContentResolver(),
+                new File(context.getCacheDir(), "subidas"));
+        this.executors = AppExecutors.getInstance();
+    }
+
+    public Subida subir(Uri uri, Listener listener) {
+        Subida subida = new Subida();
+
+        executors.computation().execute(() -> {
+            ImageCompressor.Resultado compresion;
+            try {
+                compresion = compressor.comprimir(uri);
+            } catch (Exception e) {
+                avisarError(subida, listener, e);
+                return;
+            }
+            if (subida.cancelada) {
+                compresion.getFichero().delete();
+                return;
+            }
+            executors.networkIO().execute(() -> enviar(subida, compresion, listener));
+        });
+
+        return subida;
+    }
+
+    private void enviar(Subida subida, ImageCompressor.Resultado compresion, Listener listener) {
+        File fichero = compresion.getFichero();
+        try {
+            ProgressRequestBody cuerpo = new ProgressRequestBody(fichero, JPEG, (enviados, total) -> {
+                int porcentaje = (int) (total > 0 ? enviados * 100 / total : 100);
+                executors.mainThread().execute(() -> {
+                    if (!subida.cancelada) {
+                        listener.onProgreso(porcentaje);
+                    }
+                });
+            });
+            Call<ImageResponseDTO> call = apiService.uploadImage(
+                    MultipartBody.Part.createFormData("file", fichero.getName(), cuerpo));
+            subida.call = call;
+            if (subida.cancelada) {
+                call.cancel();
+            }
+
+            Response<ImageResponseDTO> respuesta = call.execute();
+            ImageResponseDTO imagen = respuesta.body();
+            if (!respuesta.isSuccessful() || imagen == null) {
+                avisarError(subida, listener, new HttpException(respuesta));
+                return;
+            }
+            executors.mainThread().execute(() -> {
+                if (!subida.cancelada) {
+                    listener.onSubida(imagen, compresion);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            avisarError(subida, listener, e);
+        } finally {
+            fichero.delete();
+        }
+    }
+
+    private void avisarError(Subida subida, Listener listener, Throwable t) {
+        executors.mainThread().execute(() -> {
+            if (!subida.cancelada) {
+                listener.onError(t);
+            }
+        });
+    }
+}
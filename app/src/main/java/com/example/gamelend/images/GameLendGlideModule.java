@@ -0,0 +1,87 @@
+package com.example.gamelend.images;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.remote.interceptor.AuthInterceptor;
+import com.example.gamelend.session.SessionManager;
+
+import java.io.InputStream;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+// Configuración única de Glide para avatares y portadas:
+// - caché en disco propia y acotada (las imágenes no pasan por la caché HTTP de OkHttp)
+// - RGB_565 por defecto: las miniaturas no necesitan alfa y ocupan la mitad en memoria
+// - descarga con el mismo pool de conexiones y el mismo token que la API. Glide se inicia en el
+//   hilo principal, así que el cliente se deriva en la primera descarga (en un hilo de Glide)
+//   y no al registrar los componentes, para no esperar a que se construya el de la API.
+@GlideModule
+public class GameLendGlideModule extends AppGlideModule {
+
+    private static final long DISK_CACHE_SIZE = 100L * 1024 * 1024; // 100 MB
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, "imagenes", DISK_CACHE_SIZE));
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .format(DecodeFormat.PREFER_RGB_565)
+                .diskCacheStrategy(DiskCacheStrategy.ALL));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        Context appContext = context.getApplicationContext();
+        registry.replace(GlideUrl.class, InputStream.class, new OkHttpUrlLoader.Factory(new Call.Factory() {
+            private volatile OkHttpClient client;
+
+            @NonNull
+            @Override
+            public Call newCall(@NonNull Request request) {
+                return cliente().newCall(request);
+            }
+
+            private OkHttpClient cliente() {
+                if (client == null) {
+                    synchronized (this) {
+                        if (client == null) {
+                            client = crearCliente(appContext);
+                        }
+                    }
+                }
+                return client;
+            }
+        }));
+    }
+
+    // Espera al cliente de la API si aún se está construyendo: solo desde los hilos de Glide
+    private static OkHttpClient crearCliente(Context context) {
+        OkHttpClient.Builder builder = AppContainer.get(context).getNetworkStack().getClient().newBuilder()
+                .cache(null);
+        // Sin registro de cuerpos ni política de caché HTTP: solo el token
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        builder.addInterceptor(new AuthInterceptor(SessionManager.getInstance(context)));
+        return builder.build();
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
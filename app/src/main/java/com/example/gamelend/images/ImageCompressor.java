@@ -0,0 +1,179 @@
+package com.example.gamelend.images;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Prepara una foto para subirla: se decodifica ya reducida en lugar de cargar los 12-50 MP del
+// original (inSampleSize y, para el resto, el escalado del propio decodificador, así que sale
+// ya al lado máximo), se corrige la orientación EXIF y se recodifica como JPEG a un fichero
+// temporal. Como mucho hay dos bitmaps de tamaño final a la vez, solo mientras se gira.
+// Hace E/S y trabajo de CPU: nunca en el hilo principal.
+public class ImageCompressor {
+
+    public static final int LADO_MAXIMO_PX = 1600;
+    public static final int CALIDAD_JPEG = 80;
+
+    public static class Resultado {
+        private final File fichero;
+        private final long bytesOriginales;
+        // Se toma al crearlo: el fichero se borra en cuanto termina la subida
+        private final long bytesComprimidos;
+        private final int ancho;
+        private final int alto;
+        private final long milisegundos;
+
+        Resultado(File fichero, long bytesOriginales, int ancho, int alto, long milisegundos) {
+            this.fichero = fichero;
+            this.bytesOriginales = bytesOriginales;
+            this.bytesComprimidos = fichero.length();
+            this.ancho = ancho;
+            this.alto = alto;
+            this.milisegundos = milisegundos;
+        }
+
+        public File getFichero() {
+            return fichero;
+        }
+
+        // -1 si el proveedor no informa del tamaño
+        public long getBytesOriginales() {
+            return bytesOriginales;
+        }
+
+        public long getBytesComprimidos() {
+            return bytesComprimidos;
+        }
+
+        public int getAncho() {
+            return ancho;
+        }
+
+        public int getAlto() {
+            return alto;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+    }
+
+    private final ContentResolver resolver;
+    private final File dirTemporal;
+
+    public ImageCompressor(ContentResolver resolver, File dirTemporal) {
+        this.resolver = resolver;
+        this.dirTemporal = dirTemporal;
+    }
+
+    public Resultado comprimir(Uri uri) throws IOException {
+        long inicio = SystemClock.elapsedRealtime();
+
+        // Solo las dimensiones, sin reservar memoria para los píxeles
+        BitmapFactory.Options opciones = new BitmapFactory.Options();
+        opciones.inJustDecodeBounds = true;
+        try (InputStream in = abrir(uri)) {
+            BitmapFactory.decodeStream(in, null, opciones);
+        }
+        if (opciones.outWidth <= 0 || opciones.outHeight <= 0) {
+            throw new IOException("No es una imagen: " + uri);
+        }
+
+        opciones.inSampleSize = calcularInSampleSize(opciones.outWidth, opciones.outHeight, LADO_MAXIMO_PX);
+        int ladoMuestreado = Math.max(opciones.outWidth, opciones.outHeight) / opciones.inSampleSize;
+        if (ladoMuestreado > LADO_MAXIMO_PX) {
+            // El decodificador escala al vuelo: no hace falta una copia a tamaño intermedio
+            opciones.inScaled = true;
+            opciones.inDensity = ladoMuestreado;
+            opciones.inTargetDensity = LADO_MAXIMO_PX;
+        }
+        opciones.inJustDecodeBounds = false;
+        Bitmap decodificado;
+        try (InputStream in = abrir(uri)) {
+            decodificado = BitmapFactory.decodeStream(in, null, opciones);
+        }
+        if (decodificado == null) {
+            throw new IOException("No se pudo decodificar: " + uri);
+        }
+
+        // Giro según EXIF (y el ajuste de redondeo que quede) en una sola copia; sin giro ni
+        // escala createBitmap devuelve el mismo bitmap. El original se libera antes de codificar
+        int ladoMayor = Math.max(decodificado.getWidth(), decodificado.getHeight());
+        float escala = Math.min(1f, (float) LADO_MAXIMO_PX / ladoMayor);
+        Matrix matrix = new Matrix();
+        matrix.postScale(escala, escala);
+        matrix.postRotate(leerRotacion(uri));
+        Bitmap finalBitmap = Bitmap.createBitmap(decodificado, 0, 0,
+                decodificado.getWidth(), decodificado.getHeight(), matrix, true);
+        if (finalBitmap != decodificado) {
+            decodificado.recycle();
+        }
+        int ancho = finalBitmap.getWidth();
+        int alto = finalBitmap.getHeight();
+
+        if (!dirTemporal.exists() && !dirTemporal.mkdirs()) {
+            finalBitmap.recycle();
+            throw new IOException("No se pudo crear " + dirTemporal);
+        }
+        File destino = File.createTempFile("portada", ".jpg", dirTemporal);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(destino))) {
+            if (!finalBitmap.compress(Bitmap.CompressFormat.JPEG, CALIDAD_JPEG, out)) {
+                throw new IOException("No se pudo codificar la imagen");
+            }
+        } catch (IOException e) {
+            destino.delete();
+            throw e;
+        } finally {
+            finalBitmap.recycle();
+        }
+
+        return new Resultado(destino, tamanoOriginal(uri), ancho, alto, SystemClock.elapsedRealtime() - inicio);
+    }
+
+    // Mayor potencia de dos que deja el lado mayor por encima (o igual) del máximo
+    static int calcularInSampleSize(int ancho, int alto, int ladoMaximo) {
+        int ladoMayor = Math.max(ancho, alto);
+        int inSampleSize = 1;
+        while (ladoMayor / (inSampleSize * 2) >= ladoMaximo) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private InputStream abrir(Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("No se pudo abrir " + uri);
+        }
+        return in;
+    }
+
+    private int leerRotacion(Uri uri) {
+        try (InputStream in = abrir(uri)) {
+            return new ExifInterface(in).getRotationDegrees();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long tamanoOriginal(Uri uri) {
+        try (AssetFileDescriptor descriptor = resolver.openAssetFileDescriptor(uri, "r")) {
+            return descriptor != null ? descriptor.getLength() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.gamelend.images;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.repository.AdaptiveLoadPolicy;
+
+import java.util.Collections;
+import java.util.List;
+
+// Carga de avatares y portadas en las listas. Todas las miniaturas se decodifican al tamaño
+// de la vista (70 dp) y no al de la imagen original, y la precarga usa el mismo tamaño y las
+// mismas opciones para que lo precargado sea un acierto en la caché de memoria al pintar.
+// Con red lenta se piden al servidor más pequeñas y se precargan menos filas (AdaptiveLoadPolicy).
+public final class ImageLoader {
+
+    public static final int TAMANO_MINIATURA_DP = 70;
+
+    public interface ImagenPorPosicion {
+        // null si la fila no tiene imagen
+        Long getImageId(int posicion);
+    }
+
+    private ImageLoader() {
+    }
+
+    public static int tamanoMiniaturaPx(Context context) {
+        return Math.round(TAMANO_MINIATURA_DP * context.getResources().getDisplayMetrics().density);
+    }
+
+    public static void cargarMiniatura(ImageView imageView, @Nullable Long imageId, @DrawableRes int porDefecto) {
+        RequestManager glide = Glide.with(imageView);
+        if (imageId == null) {
+            glide.clear(imageView);
+            imageView.setImageResource(porDefecto);
+            return;
+        }
+        Context context = imageView.getContext();
+        miniatura(glide, imageId, porDefecto, tamanoMiniaturaPx(context), politica(context)).into(imageView);
+    }
+
+    // Al reciclar la fila: se cancela la descarga pendiente y se libera el bitmap
+    public static void cancelar(ImageView imageView) {
+        Glide.with(imageView).clear(imageView);
+    }
+
+    // Precarga las miniaturas de las filas que están a punto de entrar en pantalla
+    public static RecyclerViewPreloader<Long> crearPreloader(RecyclerView recyclerView, @DrawableRes int porDefecto,
+                                                              ImagenPorPosicion imagenes) {
+        RequestManager glide = Glide.with(recyclerView);
+        int tamanoPx = tamanoMiniaturaPx(recyclerView.getContext());
+        AdaptiveLoadPolicy politica = politica(recyclerView.getContext());
+
+        ListPreloader.PreloadModelProvider<Long> modelos = new ListPreloader.PreloadModelProvider<Long>() {
+            @NonNull
+            @Override
+            public List<Long> getPreloadItems(int posicion) {
+                Long imageId = imagenes.getImageId(posicion);
+                return imageId != null ? Collections.singletonList(imageId) : Collections.<Long>emptyList();
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Long imageId) {
+                return miniatura(glide, imageId, porDefecto, tamanoPx, politica);
+            }
+        };
+
+        RecyclerViewPreloader<Long> preloader = new RecyclerViewPreloader<>(glide, modelos,
+                new FixedPreloadSizeProvider<Long>(tamanoPx, tamanoPx), politica.filasPrecargaImagenes());
+        recyclerView.addOnScrollListener(preloader);
+        return preloader;
+    }
+
+    private static AdaptiveLoadPolicy politica(Context context) {
+        return AppContainer.get(context).getAdaptiveLoadPolicy();
+    }
+
+    // Se decodifica siempre al tamaño de la vista; lo que baja con la red es lo que se descarga
+    private static RequestBuilder<Drawable> miniatura(RequestManager glide, long imageId, @DrawableRes int porDefecto,
+                                                      int tamanoPx, AdaptiveLoadPolicy politica) {
+        float escala = politica.escalaImagenes();
+        int ancho = escala < 1f ? Math.round(tamanoPx * escala) : 0;
+        return glide.load(new ImagenUrl(imageId, ancho))
+                .override(tamanoPx)
+                // Transformación explícita: si no, into() añade la del scaleType de la vista
+                // y la miniatura precargada no coincidiría con la que se pinta
+                .centerCrop()
+                .placeholder(porDefecto)
+                .error(porDefecto);
+    }
+}
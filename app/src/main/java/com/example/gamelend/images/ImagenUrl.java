@@ -0,0 +1,32 @@
+package com.example.gamelend.images;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.model.GlideUrl;
+import com.example.gamelend.BuildConfig;
+
+// URL de una imagen del servidor cuya clave de caché es solo el imageId: la misma imagen se
+// reutiliza aunque cambie la URL base o los parámetros de la petición. Las versiones reducidas
+// (?w=, en redes lentas) llevan además el ancho, para no servirlas luego como la original.
+public class ImagenUrl extends GlideUrl {
+
+    private final long imageId;
+    private final int ancho;
+
+    public ImagenUrl(long imageId) {
+        this(imageId, 0);
+    }
+
+    // ancho en px que se pide al servidor; 0 para la imagen original
+    public ImagenUrl(long imageId, int ancho) {
+        super(BuildConfig.BASE_URL + "api/images/" + imageId + (ancho > 0 ? "?w=" + ancho : ""));
+        this.imageId = imageId;
+        this.ancho = ancho;
+    }
+
+    @NonNull
+    @Override
+    public String getCacheKey() {
+        return ancho > 0 ? "imagen:" + imageId + ":" + ancho : "imagen:" + imageId;
+    }
+}
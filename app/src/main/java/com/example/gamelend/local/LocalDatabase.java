@@ -0,0 +1,90 @@
+package com.example.gamelend.local;
+
+import android.content.Context;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.outbox.Outbox;
+import com.example.gamelend.outbox.OutboxEntry;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.example.gamelend.util.AppExecutors;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.util.List;
+
+// Punto de acceso único a los almacenes locales de usuarios y juegos
+public class LocalDatabase {
+
+    private static volatile LocalDatabase instance;
+
+    private final LocalStore<UserResponseDTO> usuarios;
+    private final LocalStore<GameSummaryDTO> juegos;
+    private final LocalStore<GameResponseDTO> detallesJuego;
+    private final Outbox outbox;
+    private final SyncMarcas marcasSync;
+
+    private LocalDatabase(Context context) {
+        File dir = new File(context.getFilesDir(), "local_store");
+        dir.mkdirs();
+        Gson gson = GsonProvider.get();
+        AppExecutors executors = AppExecutors.getInstance();
+
+        usuarios = new LocalStore<>(new File(dir, "usuarios.json"), gson,
+                new TypeToken<List<UserResponseDTO>>() {}.getType(),
+                UserResponseDTO::getId, executors.diskIO());
+        juegos = new LocalStore<>(new File(dir, "juegos.json"), gson,
+                new TypeToken<List<GameSummaryDTO>>() {}.getType(),
+                GameSummaryDTO::getId, executors.diskIO());
+        detallesJuego = new LocalStore<>(new File(dir, "detalles_juego.json"), gson,
+                new TypeToken<List<GameResponseDTO>>() {}.getType(),
+                GameResponseDTO::getId, executors.diskIO());
+        // La cola de salida escribe en el mismo hilo: un cambio aceptado ya está en disco
+        outbox = new Outbox(new LocalStore<>(new File(dir, "outbox.json"), gson,
+                new TypeToken<List<OutboxEntry>>() {}.getType(),
+                OutboxEntry::getId, Runnable::run),
+                new LocalStore<>(new File(dir, "outbox_fallidas.json"), gson,
+                        new TypeToken<List<OutboxEntry>>() {}.getType(),
+                        OutboxEntry::getId, Runnable::run),
+                Outbox.MAX_INTENTOS);
+        marcasSync = new SyncMarcas(context, executors.diskIO());
+
+        // Los ficheros se leen ya en el hilo de disco, antes de que una pantalla los pida
+        usuarios.precargar();
+        juegos.precargar();
+        detallesJuego.precargar();
+    }
+
+    public static LocalDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LocalDatabase.class) {
+                if (instance == null) {
+                    instance = new LocalDatabase(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    public LocalStore<UserResponseDTO> usuarios() {
+        return usuarios;
+    }
+
+    public LocalStore<GameSummaryDTO> juegos() {
+        return juegos;
+    }
+
+    public LocalStore<GameResponseDTO> detallesJuego() {
+        return detallesJuego;
+    }
+
+    public Outbox outbox() {
+        return outbox;
+    }
+
+    public SyncMarcas marcasSync() {
+        return marcasSync;
+    }
+}
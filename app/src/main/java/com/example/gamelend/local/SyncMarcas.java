@@ -0,0 +1,68 @@
+package com.example.gamelend.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.gamelend.sync.DeltaSync;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Marcas de sincronización incremental por colección, en SharedPreferences.
+// DeltaSync solo llama a guardar cuando el LocalStore ya ha escrito los datos que cubre la marca
+// (LocalStore.despuesDeEscribir), así que nunca queda en disco una marca más nueva que los datos.
+public class SyncMarcas implements DeltaSync.Marcas {
+
+    private static final String PREFS = "sync_marcas";
+    private static final long SIN_MARCA = Long.MIN_VALUE;
+
+    private final SharedPreferences prefs;
+    private final Executor diskIO;
+    // Lo último guardado, para leerlo sin esperar a que se escriba
+    private final Map<String, long[]> enMemoria = new ConcurrentHashMap<>();
+
+    SyncMarcas(Context context, Executor diskIO) {
+        this.prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.diskIO = diskIO;
+    }
+
+    @Override
+    public Long leer(String coleccion) {
+        long marca = leerPar(coleccion)[0];
+        return marca == SIN_MARCA ? null : marca;
+    }
+
+    @Override
+    public long leerGuardadaMs(String coleccion) {
+        return leerPar(coleccion)[1];
+    }
+
+    @Override
+    public void guardar(String coleccion, long marca, long guardadaMs) {
+        enMemoria.put(coleccion, new long[]{marca, guardadaMs});
+        diskIO.execute(() -> prefs.edit()
+                .putLong(coleccion + ".marca", marca)
+                .putLong(coleccion + ".guardadaMs", guardadaMs)
+                .commit());
+    }
+
+    @Override
+    public void borrar(String coleccion) {
+        enMemoria.put(coleccion, new long[]{SIN_MARCA, 0});
+        diskIO.execute(() -> prefs.edit()
+                .remove(coleccion + ".marca")
+                .remove(coleccion + ".guardadaMs")
+                .commit());
+    }
+
+    private long[] leerPar(String coleccion) {
+        long[] par = enMemoria.get(coleccion);
+        if (par == null) {
+            par = new long[]{prefs.getLong(coleccion + ".marca", SIN_MARCA),
+                    prefs.getLong(coleccion + ".guardadaMs", 0)};
+            enMemoria.put(coleccion, par);
+        }
+        return par;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.gamelend.outbox;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.gamelend.AppContainer;
+import com.example.gamelend.repository.GameRepository;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Envía en segundo plano la cola de salida de juegos. Solo corre con red; si algo falla
+// WorkManager lo vuelve a lanzar con espera exponencial (15 s, 30 s, 1 min...) y sobrevive
+// a que se cierre la app o se reinicie el móvil.
+public class OutboxWorker extends Worker {
+
+    private static final String NOMBRE = "gamelend-outbox";
+    private static final long ESPERA_INICIAL_S = 15;
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Se llama tras cada cambio encolado, desde el hilo de disco (espera a WorkManager).
+    // procesar() vacía la cola entera, así que basta con una pasada esperando: si ya hay una, no
+    // se añade nada. Solo si la que hay está en marcha se pone otra detrás, por si ya había
+    // visto la cola vacía cuando llegó este cambio. La cadena nunca pasa de dos.
+    public static synchronized void programar(Context context) {
+        Constraints conRed = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest peticion = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+                .setConstraints(conRed)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, ESPERA_INICIAL_S, TimeUnit.SECONDS)
+                .build();
+        WorkManager workManager = WorkManager.getInstance(context);
+        ExistingWorkPolicy politica = hayPasadaEsperando(workManager)
+                ? ExistingWorkPolicy.KEEP
+                : ExistingWorkPolicy.APPEND_OR_REPLACE;
+        workManager.enqueueUniqueWork(NOMBRE, politica, peticion);
+    }
+
+    private static boolean hayPasadaEsperando(WorkManager workManager) {
+        try {
+            for (WorkInfo info : workManager.getWorkInfosForUniqueWork(NOMBRE).get()) {
+                if (info.getState() == WorkInfo.State.ENQUEUED || info.getState() == WorkInfo.State.BLOCKED) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        GameRepository repository = AppContainer.get(getApplicationContext()).getGameRepository();
+        return repository.enviarCambiosPendientes() == OutboxProcessor.Resultado.VACIA
+                ? Result.success()
+                : Result.retry();
+    }
+}
@@ -1,42 +0,0 @@
-package com.example.gamelend.remote.api;
-
-
-import android.content.Context;
-
-import com.example.gamelend.remote.interceptor.AuthInterceptor;
-
-import okhttp3.OkHttpClient;
-import retrofit2.Retrofit;
-import okhttp3.logging.HttpLoggingInterceptor;
-import retrofit2.converter.gson.GsonConverterFactory;
-
-public class ApiClient {
-    //Puerto de API antiguo
-    //private static final String BASE_URL = "http://10.0.2.2:8080/"; // Localhost
-
-    private static final String BASE_URL = "http://10.0.2.2:8081/"; // Localhost
-    private static Retrofit retrofit = null;
-    private static OkHttpClient client;
-
-    public static Retrofit getRetrofitInstance(Context context) {
-        if (retrofit == null) {
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-            client = new OkHttpClient.Builder()
-                    .addInterceptor(loggingInterceptor)
-                    .addInterceptor(new AuthInterceptor(context))
-                    .build();
-
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(client)
-                    .build();
-        }
-        return retrofit;
-    }
-
-
-}
-
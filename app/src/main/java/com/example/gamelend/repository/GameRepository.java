@@ -1,26 +1,124 @@
 package com.example.gamelend.repository;
 
 import android.content.Context;
+import android.net.Uri;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
 import com.example.gamelend.dto.GameDTO;
 import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameStatus;
 import com.example.gamelend.dto.GameSummaryDTO;
-import com.example.gamelend.remote.api.ApiClient;
+import com.example.gamelend.images.CoverUploader;
+import com.example.gamelend.local.LocalDatabase;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.outbox.Outbox;
+import com.example.gamelend.outbox.OutboxEntry;
+import com.example.gamelend.outbox.OutboxProcessor;
+import com.example.gamelend.outbox.OutboxWorker;
 import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.example.gamelend.remote.stream.StreamingListLoader;
+import com.example.gamelend.sync.DeltaSync;
+import com.example.gamelend.util.AppExecutors;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.HttpException;
 
 public class GameRepository {
+    private final Context appContext;
     private final ApiService apiService;
+    private final LocalStore<GameSummaryDTO> juegosStore;
+    private final LocalStore<GameResponseDTO> detallesStore;
+    private final AppExecutors executors;
+    private final CoverUploader coverUploader;
+    private final Outbox outbox;
+    private final OutboxProcessor outboxProcessor;
+    private final DeltaSync<GameSummaryDTO> juegosSync;
+    private final StreamingListLoader<GameSummaryDTO> juegosStreamLoader =
+            new StreamingListLoader<>(GsonProvider.get(), GameSummaryDTO.class);
+
+    // Cambios de juegos distintos que se envían juntos en cada pasada de la cola de salida
+    private static final int CAMBIOS_POR_LOTE = 10;
+    // Pasado este tiempo sin sincronizar se descarga la lista entera en vez de los cambios
+    private static final long MAX_EDAD_MARCA_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // Precarga de los juegos de cada usuario del directorio: tras 400 ms visible, como mucho
+    // seis a la vez, y se guardan los 50 últimos durante un minuto. Las que se lanzan juntas
+    // salen en una sola petición por lotes (ventana de 10 ms).
+    private static final long PERMANENCIA_PRECARGA_MS = 400;
+    private static final int MAX_PRECARGAS_SIMULTANEAS = 6;
+    private static final long VENTANA_LOTE_MS = 10;
+    private static final int MAX_JUEGOS_PRECARGADOS = 50;
+    private static final long TTL_PRECARGA_MS = 60_000;
+
+    // Hay un solo repositorio (el del AppContainer), así que lo precargado en ListaUsuarios
+    // se usa al abrir ListaJuegos
+    private final Prefetcher<Long, List<GameSummaryDTO>> juegosPorUsuario;
+
+    // Cambios de estado que se han tenido que deshacer. Llegan desde el worker, que no conoce
+    // las pantallas; como hay un solo repositorio, las pantallas abiertas se registran aquí.
+    private final StatusRollback revertidos;
+
+    // Se crea una vez en AppContainer; las pantallas y el worker lo piden allí
+    public GameRepository(Context context, ApiService apiService, LocalDatabase localDatabase) {
+        appContext = context.getApplicationContext();
+        this.apiService = apiService;
+        juegosStore = localDatabase.juegos();
+        detallesStore = localDatabase.detallesJuego();
+        executors = AppExecutors.getInstance();
+        coverUploader = new CoverUploader(appContext, apiService);
+        outbox = localDatabase.outbox();
+        revertidos = new StatusRollback(juegosStore, detallesStore, executors.mainThread());
+        juegosSync = new DeltaSync<>("juegos", juegosStore, apiService::getGameChanges,
+                localDatabase.marcasSync(), MAX_EDAD_MARCA_MS);
+        outboxProcessor = new OutboxProcessor(outbox, apiService, executors.networkIO(),
+                CAMBIOS_POR_LOTE, new OutboxProcessor.Listener() {
+                    @Override
+                    public void onConfirmada(OutboxEntry entrada, GameResponseDTO respuesta) {
+                        aplicarConfirmacion(entrada, respuesta);
+                    }
+
+                    @Override
+                    public void onDescartada(OutboxEntry entrada, int codigo, GameResponseDTO servidor) {
+                        aplicarRechazo(entrada, servidor);
+                    }
+
+                    @Override
+                    public void onConflicto(OutboxEntry entrada, GameResponseDTO servidor) {
+                        aplicarConflicto(servidor);
+                    }
+                });
+        // La caché con TTL la lleva el Prefetcher; el cargador solo agrupa
+        BatchLoader<Long, List<GameSummaryDTO>> juegosDeUsuarios = new BatchLoader<>(
+                new GamesByUserBatch(apiService), executors.scheduled(), VENTANA_LOTE_MS,
+                MAX_PRECARGAS_SIMULTANEAS, false);
+        juegosPorUsuario = new Prefetcher<>((userId, resultado) -> {
+                    juegosDeUsuarios.cargar(userId, resultado);
+                    // Una vez en un lote no se puede sacar de él
+                    return null;
+                },
+                executors.scheduled(), PERMANENCIA_PRECARGA_MS, MAX_PRECARGAS_SIMULTANEAS,
+                MAX_JUEGOS_PRECARGADOS, TTL_PRECARGA_MS);
+    }
 
-    public GameRepository(Context context) {
-        apiService = ApiClient.getRetrofitInstance(context).create(ApiService.class);
+    public Prefetcher<Long, List<GameSummaryDTO>> getPrecargaJuegosPorUsuario() {
+        return juegosPorUsuario;
     }
 
-    public Call<GameResponseDTO> createGame(GameDTO gameDTO) {
-        return apiService.createGame(gameDTO);
+    // Comprime la foto elegida y la sube; el imageId devuelto se guarda después en el juego
+    public CoverUploader.Subida subirPortada(Uri uri, CoverUploader.Listener listener) {
+        return coverUploader.subir(uri, listener);
     }
 
     public Call<List<GameSummaryDTO>> getAllGames() {
@@ -31,11 +129,384 @@ public class GameRepository {
         return apiService.getGameById(id);
     }
 
-    public Call<GameResponseDTO> updateGame(Long id, GameDTO gameDTO) {
-        return apiService.updateGame(id, gameDTO);
+    // ===== Cambios con escritura diferida =====
+    // Altas, cambios y borrados se guardan en la cola de salida y en los almacenes locales
+    // sin esperar a la red; OutboxWorker los envía después. Quien llama puede darlos por hechos.
+
+    public void crearJuego(GameDTO juego) {
+        executors.diskIO().execute(() -> {
+            long temporal = outbox.encolarCreacion(juego);
+            juegosStore.guardar(resumen(temporal, juego));
+            invalidarJuegosDeUsuario(juego.getUserId());
+            OutboxWorker.programar(appContext);
+        });
+    }
+
+    public void actualizarJuego(Long id, GameDTO juego) {
+        executors.diskIO().execute(() -> {
+            outbox.encolarActualizacion(id, juego);
+            juegosStore.guardar(resumen(id, juego));
+            GameResponseDTO detalle = detallesStore.leer(id);
+            if (detalle != null) {
+                detalle.setTitle(juego.getTitle());
+                detalle.setPlatform(juego.getPlatform());
+                detalle.setGenre(juego.getGenre());
+                detalle.setDescription(juego.getDescription());
+                detalle.setStatus(juego.getStatus());
+                detalle.setImageId(juego.getImageId());
+                detalle.setImagePath(juego.getImagePath());
+                detallesStore.guardar(detalle);
+            }
+            invalidarJuegosDeUsuario(juego.getUserId());
+            OutboxWorker.programar(appContext);
+        });
+    }
+
+    // Prestar/devolver: la pantalla pinta el estado nuevo al momento y esto solo lo encola.
+    // Si el servidor lo rechaza o ya tenía otro estado, se deshace y se avisa a los listeners de revertidos.
+    public void cambiarEstado(Long id, Long userId, GameStatus anterior, GameStatus nuevo) {
+        executors.diskIO().execute(() -> {
+            outbox.encolarCambioEstado(id, userId, anterior.name(), nuevo.name());
+            revertidos.guardarEstadoLocal(id, nuevo.name());
+            OutboxWorker.programar(appContext);
+        });
+    }
+
+    // Cada aviso llega una sola vez y en el hilo principal; hay que quitarse en onDestroy
+    public void agregarListenerRevertidos(StatusRollback.Listener listener) {
+        revertidos.agregarListener(listener);
+    }
+
+    public void quitarListenerRevertidos(StatusRollback.Listener listener) {
+        revertidos.quitarListener(listener);
+    }
+
+    public void borrarJuego(Long id, Long userId) {
+        executors.diskIO().execute(() -> {
+            outbox.encolarBorrado(id);
+            juegosStore.eliminar(id);
+            detallesStore.eliminar(id);
+            invalidarJuegosDeUsuario(userId);
+            OutboxWorker.programar(appContext);
+        });
+    }
+
+    // Lo llama OutboxWorker en su hilo; bloquea hasta vaciar la cola o encontrar un fallo pasajero
+    public OutboxProcessor.Resultado enviarCambiosPendientes() {
+        return outboxProcessor.procesar();
+    }
+
+    private void aplicarConfirmacion(OutboxEntry entrada, GameResponseDTO respuesta) {
+        Long id = entrada.getGameId();
+        switch (entrada.getOperacion()) {
+            case CREAR:
+                // Se conserva lo que hay en local (puede tener cambios posteriores aún sin enviar)
+                GameSummaryDTO local = juegosStore.leer(id);
+                juegosStore.eliminar(id);
+                if (respuesta != null) {
+                    if (local != null) {
+                        local.setId(respuesta.getId());
+                        juegosStore.guardar(local);
+                    }
+                    detallesStore.guardar(respuesta);
+                }
+                break;
+            case ACTUALIZAR:
+                if (respuesta != null) {
+                    detallesStore.guardar(respuesta);
+                }
+                break;
+            case BORRAR:
+                juegosStore.eliminar(id);
+                detallesStore.eliminar(id);
+                break;
+        }
+        invalidarJuegosDeUsuario(respuesta != null ? respuesta.getUserId()
+                : entrada.getJuego() != null ? entrada.getJuego().getUserId() : null);
+    }
+
+    // El servidor no acepta el cambio: se deshace en local y se vuelve a pedir cuando haga falta
+    private void aplicarRechazo(OutboxEntry entrada, GameResponseDTO servidor) {
+        if (!revertidos.aplicarRechazo(entrada, servidor)) {
+            juegosSync.forzarCompleta();
+        }
+        invalidarJuegosDeUsuario(entrada.getJuego() != null ? entrada.getJuego().getUserId() : null);
+    }
+
+    // Otro cambió el estado antes que nosotros: gana la versión del servidor
+    private void aplicarConflicto(GameResponseDTO servidor) {
+        revertidos.aplicarConflicto(servidor);
+        invalidarJuegosDeUsuario(servidor.getUserId());
+    }
+
+    // La lista del servidor todavía no incluye lo que hay en la cola de salida.
+    // Con userId solo se añaden las altas de ese usuario.
+    private List<GameSummaryDTO> superponerPendientes(List<GameSummaryDTO> delServidor, Long userId) {
+        List<OutboxEntry> pendientes = outbox.pendientes();
+        if (pendientes.isEmpty()) {
+            return delServidor;
+        }
+        Map<Long, GameSummaryDTO> porId = new LinkedHashMap<>();
+        for (GameSummaryDTO juego : delServidor) {
+            porId.put(juego.getId(), juego);
+        }
+        for (OutboxEntry entrada : pendientes) {
+            Long id = entrada.getGameId();
+            GameDTO juego = entrada.getJuego();
+            if (entrada.getOperacion() == OutboxEntry.Operacion.BORRAR) {
+                porId.remove(id);
+            } else if (porId.containsKey(id)) {
+                porId.put(id, combinar(porId.get(id), juego));
+            } else if (entrada.getOperacion() == OutboxEntry.Operacion.CREAR
+                    && (userId == null || userId.equals(juego.getUserId()))) {
+                porId.put(id, resumen(id, juego));
+            }
+        }
+        return new ArrayList<>(porId.values());
+    }
+
+    private void invalidarJuegosDeUsuario(Long userId) {
+        if (userId != null) {
+            juegosPorUsuario.invalidar(userId);
+        }
+    }
+
+    // Copia nueva (las listas del servidor pueden estar en la caché de precarga)
+    private static GameSummaryDTO combinar(GameSummaryDTO base, GameDTO cambio) {
+        GameSummaryDTO resumen = new GameSummaryDTO(base.getId(),
+                cambio.getTitle() != null ? cambio.getTitle() : base.getTitle(),
+                cambio.getPlatform() != null ? cambio.getPlatform() : base.getPlatform(),
+                cambio.getStatus() != null ? cambio.getStatus() : base.getStatus());
+        resumen.setGenre(cambio.getGenre() != null ? cambio.getGenre() : base.getGenre());
+        resumen.setImageId(cambio.getImageId() != null ? cambio.getImageId() : base.getImageId());
+        return resumen;
+    }
+
+    private static GameSummaryDTO resumen(Long id, GameDTO juego) {
+        GameSummaryDTO resumen = new GameSummaryDTO(id, juego.getTitle(), juego.getPlatform(), juego.getStatus());
+        resumen.setGenre(juego.getGenre());
+        resumen.setImageId(juego.getImageId());
+        return resumen;
     }
 
-    public Call<Void> deleteGame(Long id) {
-        return apiService.deleteGame(id);
+    // Catálogo completo para ListaJuegos. Los avisos llegan en el hilo principal.
+    public interface CatalogoListener {
+        // Lista entera: lo guardado en local al abrir y la versión del servidor al terminar
+        void onLista(List<GameSummaryDTO> juegos);
+
+        // Solo en la primera descarga (sin nada en local): cada bloque según llega, para
+        // añadirlo a lo que ya se ve
+        void onBloque(List<GameSummaryDTO> bloque);
+
+        void onError(Throwable t);
+    }
+
+    // Emite lo guardado en local al momento y después la versión del servidor.
+    // Cancelar deja de avisar y, si ninguna otra pantalla espera el catálogo, corta la descarga.
+    public Cancelable obtenerJuegos(CatalogoListener listener) {
+        AtomicBoolean cancelada = new AtomicBoolean(false);
+        AtomicReference<Cancelable> suscripcion = new AtomicReference<>();
+
+        executors.diskIO().execute(() -> {
+            if (cancelada.get()) {
+                return;
+            }
+            List<GameSummaryDTO> guardados = juegosStore.leerTodos();
+            boolean hayDatosLocales = !guardados.isEmpty();
+            if (hayDatosLocales) {
+                enPrincipal(cancelada, () -> listener.onLista(guardados));
+            }
+
+            // Las peticiones simultáneas del catálogo comparten la misma descarga; los bloques
+            // solo llegan a la pantalla que la lanzó, las demás reciben la lista al terminar
+            suscripcion.set(RequestCoalescer.getInstance().ejecutar("GET api/games",
+                    r -> {
+                        DescargaCatalogo descarga = new DescargaCatalogo();
+                        executors.networkIO().execute(() -> refrescarJuegos(hayDatosLocales,
+                                bloque -> enPrincipal(cancelada, () -> listener.onBloque(bloque)), descarga, r));
+                        return descarga;
+                    },
+                    new RequestCoalescer.Resultado<List<GameSummaryDTO>>() {
+                        @Override
+                        public void onExito(List<GameSummaryDTO> todos) {
+                            enPrincipal(cancelada, () -> listener.onLista(todos));
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            // Sin conexión: si ya se mostraron los datos locales se mantienen
+                            if (!hayDatosLocales) {
+                                enPrincipal(cancelada, () -> listener.onError(t));
+                            }
+                        }
+                    }));
+            if (cancelada.get()) {
+                cancelarSuscripcion(suscripcion);
+            }
+        });
+
+        return () -> {
+            cancelada.set(true);
+            cancelarSuscripcion(suscripcion);
+        };
+    }
+
+    private static void cancelarSuscripcion(AtomicReference<Cancelable> suscripcion) {
+        Cancelable cancelable = suscripcion.getAndSet(null);
+        if (cancelable != null) {
+            cancelable.cancelar();
+        }
+    }
+
+    private void enPrincipal(AtomicBoolean cancelada, Runnable aviso) {
+        executors.mainThread().execute(() -> {
+            if (!cancelada.get()) {
+                aviso.run();
+            }
+        });
+    }
+
+    private interface BloqueListener {
+        void onBloque(List<GameSummaryDTO> bloque);
+    }
+
+    // Descarga del catálogo en marcha en networkIO: cancelarla corta la llamada en curso, que
+    // termina con error y libera el hilo, y evita que se lancen las siguientes
+    private static class DescargaCatalogo implements Cancelable {
+        private boolean cancelada;
+        private Call<?> enCurso;
+
+        synchronized boolean isCancelada() {
+            return cancelada;
+        }
+
+        // Devuelve false (y la cancela) si la descarga ya se canceló
+        synchronized boolean usar(Call<?> llamada) {
+            if (cancelada) {
+                llamada.cancel();
+                return false;
+            }
+            enCurso = llamada;
+            return true;
+        }
+
+        @Override
+        public void cancelar() {
+            Call<?> llamada;
+            synchronized (this) {
+                cancelada = true;
+                llamada = enCurso;
+            }
+            if (llamada != null) {
+                llamada.cancel();
+            }
+        }
+    }
+
+    // Con datos locales solo se piden los cambios desde la última vez. Si no se puede (primera
+    // vez, marca caducada o 410) se descarga la lista completa por bloques: sin datos locales
+    // cada bloque se pasa a la pantalla según llega. La lista la va juntando solo este método,
+    // para guardarla entera al terminar.
+    private void refrescarJuegos(boolean hayDatosLocales, BloqueListener alBloque, DescargaCatalogo descarga,
+                                 RequestCoalescer.Resultado<List<GameSummaryDTO>> r) {
+        if (descarga.isCancelada()) {
+            return;
+        }
+        if (hayDatosLocales) {
+            try {
+                if (!juegosSync.sincronizar().isCompletaNecesaria()) {
+                    r.onExito(superponerPendientes(juegosStore.leerTodos(), null));
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                r.onError(e);
+                return;
+            }
+        }
+
+        Long marca = juegosSync.pedirMarca();
+        Call<ResponseBody> llamada = apiService.getAllGamesStream();
+        if (!descarga.usar(llamada)) {
+            return;
+        }
+        final List<GameSummaryDTO> descargados = new ArrayList<>();
+        juegosStreamLoader.cargar(llamada,
+                new StreamingListLoader.Listener<GameSummaryDTO>() {
+                    @Override
+                    public void onBloque(List<GameSummaryDTO> bloque) {
+                        descargados.addAll(bloque);
+                        if (!hayDatosLocales) {
+                            alBloque.onBloque(bloque);
+                        }
+                    }
+
+                    @Override
+                    public void onCompleto(int total) {
+                        List<GameSummaryDTO> conPendientes = superponerPendientes(descargados, null);
+                        juegosStore.reemplazarTodos(conPendientes);
+                        juegosSync.terminarCompleta(marca);
+                        r.onExito(conPendientes);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        r.onError(t);
+                    }
+                });
+    }
+
+    // Juegos de un usuario: si el directorio ya los precargó (o los está pidiendo) no hay espera
+    public LiveData<List<GameSummaryDTO>> obtenerJuegosDeUsuario(Long userId) {
+        MutableLiveData<List<GameSummaryDTO>> juegosLiveData = new MutableLiveData<>();
+
+        juegosPorUsuario.obtener(userId, new RequestCoalescer.Resultado<List<GameSummaryDTO>>() {
+            @Override
+            public void onExito(List<GameSummaryDTO> juegos) {
+                // Con lo pendiente de enviar encima (p. ej. un préstamo recién marcado)
+                executors.diskIO().execute(() ->
+                        juegosLiveData.postValue(superponerPendientes(juegos, userId)));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                juegosLiveData.postValue(null);
+            }
+        });
+
+        return juegosLiveData;
+    }
+
+    // Detalle de un juego con la misma estrategia: caché local primero, red después
+    public LiveData<GameResponseDTO> obtenerJuego(Long id) {
+        MutableLiveData<GameResponseDTO> juegoLiveData = new MutableLiveData<>();
+
+        executors.diskIO().execute(() -> {
+            GameResponseDTO guardado = detallesStore.leer(id);
+            if (guardado != null) {
+                juegoLiveData.postValue(guardado);
+            }
+
+            RequestCoalescer.getInstance().ejecutar("GET api/games/" + id,
+                    r -> RequestCoalescer.enqueue(apiService.getGameById(id), r),
+                    new RequestCoalescer.Resultado<GameResponseDTO>() {
+                        @Override
+                        public void onExito(GameResponseDTO juego) {
+                            detallesStore.guardar(juego);
+                            juegoLiveData.postValue(juego);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            if (t instanceof HttpException && ((HttpException) t).code() == 404) {
+                                detallesStore.eliminar(id);
+                                juegoLiveData.postValue(null);
+                            } else if (guardado == null) {
+                                juegoLiveData.postValue(null);
+                            }
+                        }
+                    });
+        });
+
+        return juegoLiveData;
     }
 }
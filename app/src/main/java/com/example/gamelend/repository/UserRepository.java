@@ -1,73 +1,55 @@
 package com.example.gamelend.repository;
 
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
-
 import com.example.gamelend.dto.LoginRequestDTO;
 import com.example.gamelend.dto.TokenResponseDTO;
 import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.local.LocalDatabase;
+import com.example.gamelend.local.LocalStore;
 import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.util.AppExecutors;
 
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class UserRepository {
 
     private ApiService apiService;
+    private final LocalStore<UserResponseDTO> usuariosStore;
+    private final AppExecutors executors;
 
     // Constructor
-    public UserRepository(ApiService apiService) {
+    public UserRepository(ApiService apiService, LocalDatabase localDatabase) {
         this.apiService = apiService;
+        this.usuariosStore = localDatabase.usuarios();
+        this.executors = AppExecutors.getInstance();
     }
 
-    // Metodo para registrar un usuario
-    public LiveData<TokenResponseDTO> login(String usuario, String contrasena) {
-        MutableLiveData<TokenResponseDTO> liveData = new MutableLiveData<>();
-
+    // Inicio de sesión; los errores HTTP llegan como HttpException
+    public Cancelable login(String usuario, String contrasena, RequestCoalescer.Resultado<TokenResponseDTO> resultado) {
         LoginRequestDTO request = new LoginRequestDTO(usuario, contrasena);
-
-        apiService.login(request).enqueue(new Callback<TokenResponseDTO>() {
-            @Override
-            public void onResponse(Call<TokenResponseDTO> call, Response<TokenResponseDTO> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    liveData.postValue(response.body());
-                } else {
-                    liveData.postValue(null); // Manejar error
-                }
-            }
-
-            @Override
-            public void onFailure(Call<TokenResponseDTO> call, Throwable t) {
-                liveData.postValue(null); // Manejar error de conexión
-            }
-        });
-
-        return liveData;
-
+        return RequestCoalescer.enqueue(apiService.login(request), resultado);
     }
-    // Metodo obternerUsuarios
-        public LiveData<List<UserResponseDTO>> obtenerUsuarios(String token) {
-            MutableLiveData<List<UserResponseDTO>> usuariosLiveData = new MutableLiveData<>();
 
-            apiService.getAllUsers("Bearer " + token).enqueue(new Callback<List<UserResponseDTO>>() {
-                @Override
-                public void onResponse(Call<List<UserResponseDTO>> call, Response<List<UserResponseDTO>> response) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        usuariosLiveData.postValue(response.body());
-                    } else {
-                        usuariosLiveData.postValue(null); // Manejar error
-                    }
-                }
+    // Fuente paginada para el directorio de usuarios
+    public UserPagingSource crearPagingSource(String token, int tamanoPagina) {
+        return new UserPagingSource(apiService, usuariosStore, executors.diskIO(), token, tamanoPagina);
+    }
 
-                @Override
-                public void onFailure(Call<List<UserResponseDTO>> call, Throwable t) {
-                    usuariosLiveData.postValue(null); // Manejar error de conexión
+    // Primeros usuarios guardados en local, para pintar mientras llega la primera página.
+    // Se leen en el hilo de disco y se entregan en el principal.
+    public Cancelable obtenerUsuariosGuardados(int limite, RequestCoalescer.Resultado<List<UserResponseDTO>> resultado) {
+        AtomicBoolean cancelada = new AtomicBoolean(false);
+        executors.diskIO().execute(() -> {
+            if (cancelada.get()) {
+                return;
+            }
+            List<UserResponseDTO> primeros = usuariosStore.leerPrimeros(limite);
+            executors.mainThread().execute(() -> {
+                if (!cancelada.get()) {
+                    resultado.onExito(primeros);
                 }
             });
-
-            return usuariosLiveData;
-        }
-}
\ No newline at end of file
+        });
+        return () -> cancelada.set(true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.gamelend.session;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.gamelend.util.AppExecutors;
+
+// Sesión del usuario para todo el proceso. Los tokens se guardan en memoria en un objeto
+// inmutable (volatile), así que leerlos en cada petición no bloquea ni toca disco; las
+// escrituras se persisten en segundo plano en un único fichero de preferencias.
+public class SessionManager implements TokenStore {
+
+    private static final String PREFS = "GameLend";
+    // Fichero donde MainActivity guardaba antes los tokens; se migra una vez
+    private static final String PREFS_ANTIGUAS = "MisPreferencias";
+    private static final String KEY_ACCESS = "token";
+    private static final String KEY_REFRESH = "refreshToken";
+
+    private static volatile SessionManager instance;
+
+    private final SharedPreferences prefs;
+    private volatile Tokens tokens;
+
+    private SessionManager(Context context) {
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        String access = prefs.getString(KEY_ACCESS, "");
+        String refresh = prefs.getString(KEY_REFRESH, "");
+
+        if (access.isEmpty()) {
+            SharedPreferences antiguas = context.getSharedPreferences(PREFS_ANTIGUAS, Context.MODE_PRIVATE);
+            access = antiguas.getString("accessToken", "");
+            refresh = antiguas.getString("refreshToken", "");
+            if (!access.isEmpty()) {
+                migrar(new Tokens(access, refresh), antiguas);
+            }
+        }
+        tokens = new Tokens(access, refresh);
+    }
+
+    public static SessionManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SessionManager.class) {
+                if (instance == null) {
+                    instance = new SessionManager(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public String getAccessToken() {
+        return tokens.access;
+    }
+
+    @Override
+    public String getRefreshToken() {
+        return tokens.refresh;
+    }
+
+    public boolean haySesion() {
+        return !tokens.access.isEmpty();
+    }
+
+    @Override
+    public void guardarTokens(String accessToken, String refreshToken) {
+        Tokens nuevos = new Tokens(
+                accessToken != null ? accessToken : "",
+                // Si el servidor no rota el refresh token se conserva el anterior
+                refreshToken != null ? refreshToken : tokens.refresh);
+        tokens = nuevos;
+        persistir(nuevos);
+    }
+
+    public void cerrarSesion() {
+        Tokens vacios = new Tokens("", "");
+        tokens = vacios;
+        persistir(vacios);
+    }
+
+    private void persistir(final Tokens aGuardar) {
+        AppExecutors.getInstance().diskIO().execute(() -> prefs.edit()
+                .putString(KEY_ACCESS, aGuardar.access)
+                .putString(KEY_REFRESH, aGuardar.refresh)
+                .commit());
+    }
+
+    // Las preferencias antiguas solo se borran cuando los tokens ya están escritos en las
+    // nuevas: si la app muere antes, el próximo arranque vuelve a migrarlos
+    private void migrar(final Tokens migrados, final SharedPreferences antiguas) {
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            boolean guardados = prefs.edit()
+                    .putString(KEY_ACCESS, migrados.access)
+                    .putString(KEY_REFRESH, migrados.refresh)
+                    .commit();
+            if (guardados) {
+                antiguas.edit().clear().commit();
+            }
+        });
+    }
+
+    private static final class Tokens {
+        final String access;
+        final String refresh;
+
+        Tokens(String access, String refresh) {
+            this.access = access;
+            this.refresh = refresh;
+        }
+    }
+}
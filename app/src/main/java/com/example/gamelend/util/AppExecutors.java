@@ -0,0 +1,62 @@
+package com.example.gamelend.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+// Hilos compartidos de la app: disco, red, cálculo, tareas programadas y el hilo principal
+public class AppExecutors {
+
+    private static volatile AppExecutors instance;
+
+    private final ExecutorService diskIO;
+    private final ExecutorService networkIO;
+    // Trabajo de CPU que no debe ir en el hilo principal ni retrasar las escrituras a disco
+    private final ExecutorService computation;
+    private final ScheduledExecutorService scheduled;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        diskIO = Executors.newSingleThreadExecutor();
+        networkIO = Executors.newFixedThreadPool(3);
+        computation = Executors.newSingleThreadExecutor();
+        scheduled = Executors.newSingleThreadScheduledExecutor();
+        Handler handler = new Handler(Looper.getMainLooper());
+        mainThread = handler::post;
+    }
+
+    public static AppExecutors getInstance() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    public ExecutorService networkIO() {
+        return networkIO;
+    }
+
+    public ExecutorService computation() {
+        return computation;
+    }
+
+    public ScheduledExecutorService scheduled() {
+        return scheduled;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+}
@@ -5,32 +5,137 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.repository.AdaptiveLoadPolicy;
+import com.example.gamelend.repository.Peticiones;
+import com.example.gamelend.repository.RequestCoalescer;
+import com.example.gamelend.repository.UserPagingSource;
 import com.example.gamelend.repository.UserRepository;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ListaUsuariosViewModel extends ViewModel {
 
+    // Como mucho se mantienen estas páginas en memoria; al avanzar se descartan las del principio
+    private static final int MAX_PAGINAS_EN_MEMORIA = 5;
+
     private UserRepository userRepository;
-    private MutableLiveData<List<UserResponseDTO>> usuariosLiveData = new MutableLiveData<>();
+    private final AdaptiveLoadPolicy politica;
+    private MutableLiveData<VentanaUsuarios> ventanaLiveData = new MutableLiveData<>();
+
+    private UserPagingSource pagingSource;
+    private final ArrayDeque<List<UserResponseDTO>> paginas = new ArrayDeque<>();
+    private int primeraPagina = 0;
+    // Se elige según la red al empezar a cargar y se mantiene: los offsets dependen de él
+    private int tamPagina;
+    private boolean cargando = false;
+    private boolean ultimaPaginaAlcanzada = false;
+    // Páginas y lecturas en curso: se cancelan al recargar y en onCleared
+    private final Peticiones peticiones = new Peticiones();
 
-    public ListaUsuariosViewModel(UserRepository userRepository) {
+    public ListaUsuariosViewModel(UserRepository userRepository, AdaptiveLoadPolicy politica) {
         this.userRepository = userRepository;
+        this.politica = politica;
     }
 
-    public LiveData<List<UserResponseDTO>> getUsuarios() {
-        return usuariosLiveData;
+    public LiveData<VentanaUsuarios> getUsuarios() {
+        return ventanaLiveData;
     }
 
     public void cargarUsuarios(String token) {
-        userRepository.obtenerUsuarios(token).observeForever(usuarios -> {
-            if(usuarios != null) {
-                usuariosLiveData.setValue(usuarios);
-            } else {
-                // Manejar el caso en que no se obtienen usuarios
-                usuariosLiveData.setValue(null);
+        peticiones.cancelarTodo();
+        tamPagina = politica.tamanoPagina();
+        pagingSource = userRepository.crearPagingSource(token, tamPagina);
+        paginas.clear();
+        primeraPagina = 0;
+        ultimaPaginaAlcanzada = false;
+        cargando = false;
+
+        // Mientras llega la primera página se enseña lo que haya guardado en local
+        peticiones.lanzar(r -> userRepository.obtenerUsuariosGuardados(tamPagina, r),
+                new RequestCoalescer.Resultado<List<UserResponseDTO>>() {
+                    @Override
+                    public void onExito(List<UserResponseDTO> guardados) {
+                        if (!guardados.isEmpty() && paginas.isEmpty()) {
+                            ventanaLiveData.setValue(new VentanaUsuarios(0, guardados, true));
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+                });
+
+        cargarPagina(0, true);
+    }
+
+    public void cargarSiguientePagina() {
+        if (pagingSource == null || cargando || ultimaPaginaAlcanzada) {
+            return;
+        }
+        cargarPagina(primeraPagina + paginas.size(), true);
+    }
+
+    public void cargarPaginaAnterior() {
+        if (pagingSource == null || cargando || primeraPagina == 0) {
+            return;
+        }
+        cargarPagina(primeraPagina - 1, false);
+    }
+
+    private void cargarPagina(final int pagina, final boolean alFinal) {
+        cargando = true;
+        final UserPagingSource fuente = pagingSource;
+        peticiones.lanzar(r -> fuente.cargar(pagina, r), new RequestCoalescer.Resultado<List<UserResponseDTO>>() {
+            @Override
+            public void onExito(List<UserResponseDTO> usuarios) {
+                cargando = false;
+                if (alFinal) {
+                    if (usuarios.size() < tamPagina) {
+                        ultimaPaginaAlcanzada = true;
+                    }
+                    if (usuarios.isEmpty() && !paginas.isEmpty()) {
+                        publicar();
+                        return;
+                    }
+                    paginas.addLast(usuarios);
+                    if (paginas.size() > MAX_PAGINAS_EN_MEMORIA) {
+                        paginas.removeFirst();
+                        primeraPagina++;
+                    }
+                } else {
+                    paginas.addFirst(usuarios);
+                    primeraPagina = pagina;
+                    if (paginas.size() > MAX_PAGINAS_EN_MEMORIA) {
+                        paginas.removeLast();
+                        ultimaPaginaAlcanzada = false;
+                    }
+                }
+                publicar();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                cargando = false;
+                // Solo se avisa del error si no hay nada que enseñar
+                if (paginas.isEmpty() && ventanaLiveData.getValue() == null) {
+                    ventanaLiveData.setValue(null);
+                }
             }
         });
     }
-}
 
+    private void publicar() {
+        List<UserResponseDTO> usuarios = new ArrayList<>();
+        for (List<UserResponseDTO> pagina : paginas) {
+            usuarios.addAll(pagina);
+        }
+        ventanaLiveData.setValue(new VentanaUsuarios(primeraPagina * tamPagina, usuarios, !ultimaPaginaAlcanzada));
+    }
+
+    @Override
+    protected void onCleared() {
+        peticiones.cerrar();
+    }
+}
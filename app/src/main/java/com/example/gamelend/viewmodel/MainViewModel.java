@@ -5,12 +5,16 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.gamelend.dto.TokenResponseDTO;
+import com.example.gamelend.repository.Peticiones;
+import com.example.gamelend.repository.RequestCoalescer;
 import com.example.gamelend.repository.UserRepository;
 
 public class MainViewModel extends ViewModel {
 
     private UserRepository userRepository;
     private MutableLiveData<TokenResponseDTO> tokenResponseLiveData = new MutableLiveData<>();
+    // Llamadas en curso de esta pantalla: se cancelan en onCleared
+    private final Peticiones peticiones = new Peticiones();
 
     public MainViewModel(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -21,14 +25,25 @@ public class MainViewModel extends ViewModel {
         return tokenResponseLiveData;
     }
 
-    // Metodo para iniciar sesión
+    // Metodo para iniciar sesión; un segundo intento sustituye al que siguiera en curso
     public void login(String usuario, String contrasena) {
-        userRepository.login(usuario, contrasena).observeForever(response -> {
-            if (response != null) {
-                tokenResponseLiveData.postValue(response);
-            } else {
-                tokenResponseLiveData.postValue(null); // Manejar error
-            }
-        });
+        peticiones.cancelarTodo();
+        peticiones.lanzar(r -> userRepository.login(usuario, contrasena, r),
+                new RequestCoalescer.Resultado<TokenResponseDTO>() {
+                    @Override
+                    public void onExito(TokenResponseDTO response) {
+                        tokenResponseLiveData.postValue(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        tokenResponseLiveData.postValue(null); // Manejar error
+                    }
+                });
+    }
+
+    @Override
+    protected void onCleared() {
+        peticiones.cerrar();
     }
 }
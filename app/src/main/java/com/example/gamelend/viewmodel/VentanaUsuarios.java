@@ -0,0 +1,35 @@
+package com.example.gamelend.viewmodel;
+
+import com.example.gamelend.dto.UserResponseDTO;
+
+import java.util.List;
+
+// Porción del directorio que está en memoria: los usuarios de las páginas cargadas
+// y la posición absoluta del primero de ellos dentro del directorio completo.
+public class VentanaUsuarios {
+    private final int offset;
+    private final List<UserResponseDTO> usuarios;
+    private final boolean hayMasAlFinal;
+
+    public VentanaUsuarios(int offset, List<UserResponseDTO> usuarios, boolean hayMasAlFinal) {
+        this.offset = offset;
+        this.usuarios = usuarios;
+        this.hayMasAlFinal = hayMasAlFinal;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public List<UserResponseDTO> getUsuarios() {
+        return usuarios;
+    }
+
+    public boolean hayMasAlFinal() {
+        return hayMasAlFinal;
+    }
+
+    public boolean hayMasAlPrincipio() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.gamelend.viewmodel;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.example.gamelend.AppContainer;
+
+// Crea los ViewModels de las pantallas con los repositorios del contenedor. Se usa a través de
+// ViewModelProvider: el ViewModel sobrevive a los giros y el sistema llama a onCleared al
+// cerrarse la pantalla, que es donde se cancelan sus peticiones.
+public class ViewModelFactory implements ViewModelProvider.Factory {
+
+    private final AppContainer container;
+
+    public ViewModelFactory(AppContainer container) {
+        this.container = container;
+    }
+
+    @NonNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+        if (modelClass == MainViewModel.class) {
+            return (T) new MainViewModel(container.getUserRepository());
+        }
+        if (modelClass == ListaUsuariosViewModel.class) {
+            return (T) new ListaUsuariosViewModel(container.getUserRepository(),
+                    container.getAdaptiveLoadPolicy());
+        }
+        throw new IllegalArgumentException("ViewModel desconocido: " + modelClass.getName());
+    }
+}
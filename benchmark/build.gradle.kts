@@ -0,0 +1,25 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(libs.okhttp.mockwebserver)
+}
+
+// ./gradlew :benchmark:jmh  -> benchmark/build/results/jmh/results.json
+// Se puede filtrar con -Pjmh.includes=JsonDecodeBenchmark
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    (findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+}
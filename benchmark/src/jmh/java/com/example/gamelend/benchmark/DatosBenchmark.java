@@ -0,0 +1,49 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.remote.json.GsonProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Genera listas y JSON deterministas con la forma que devuelve la API (api/users, api/games)
+final class DatosBenchmark {
+
+    private static final String[] PROVINCIAS = {"Madrid", "Sevilla", "Valencia", "A Coruña", "Málaga"};
+    private static final String[] PLATAFORMAS = {"PS5", "Switch", "PC", "Xbox Series"};
+    private static final String[] ESTADOS = {"AVAILABLE", "BORROWED", "UNAVAILABLE"};
+
+    private DatosBenchmark() {
+    }
+
+    static List<UserResponseDTO> usuarios(int n) {
+        Random random = new Random(42);
+        List<UserResponseDTO> usuarios = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String provincia = PROVINCIAS[random.nextInt(PROVINCIAS.length)];
+            usuarios.add(new UserResponseDTO((long) i, "Usuario " + i, "usuario" + i + "@gamelend.com",
+                    provincia, provincia + " centro", "2024-0" + (1 + random.nextInt(9)) + "-15"));
+        }
+        return usuarios;
+    }
+
+    static List<GameSummaryDTO> juegos(int n) {
+        Random random = new Random(42);
+        List<GameSummaryDTO> juegos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            juegos.add(new GameSummaryDTO((long) i, "Juego número " + i,
+                    PLATAFORMAS[random.nextInt(PLATAFORMAS.length)], ESTADOS[random.nextInt(ESTADOS.length)]));
+        }
+        return juegos;
+    }
+
+    static String usuariosJson(int n) {
+        return GsonProvider.get().toJson(usuarios(n));
+    }
+
+    static String juegosJson(int n) {
+        return GsonProvider.get().toJson(juegos(n));
+    }
+}
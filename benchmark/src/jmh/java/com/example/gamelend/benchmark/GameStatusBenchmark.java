@@ -0,0 +1,32 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.dto.GameStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// GameStatus.fromString se llama por cada juego al decodificar y al pintar la lista
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class GameStatusBenchmark {
+
+    // Mezcla de lo que llega del servidor: mayúsculas, minúsculas, desconocidos y null
+    private final String[] valores = {"AVAILABLE", "borrowed", "Unavailable", "LOST", null, "available"};
+    private int indice;
+
+    @Benchmark
+    public void fromString(Blackhole bh) {
+        bh.consume(GameStatus.fromString(valores[indice]));
+        indice = (indice + 1) % valores.length;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.example.gamelend.remote.stream.JsonArrayStreamer;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+// Decodificación de las listas de usuarios y juegos: Gson por reflexión (como estaba antes),
+// con los adapters escritos a mano de DtoTypeAdapterFactory y leyendo por bloques con
+// JsonArrayStreamer, que es lo que usa la app para las listas grandes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final Type TIPO_USUARIOS = new TypeToken<List<UserResponseDTO>>() {}.getType();
+    private static final Type TIPO_JUEGOS = new TypeToken<List<GameSummaryDTO>>() {}.getType();
+
+    @Param({"1000", "10000", "100000"})
+    public int elementos;
+
+    private final Gson gsonReflexion = new Gson();
+    private final Gson gsonAdapters = GsonProvider.get();
+
+    private String usuariosJson;
+    private String juegosJson;
+    private JsonArrayStreamer<UserResponseDTO> streamerUsuarios;
+    private JsonArrayStreamer<GameSummaryDTO> streamerJuegos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        usuariosJson = DatosBenchmark.usuariosJson(elementos);
+        juegosJson = DatosBenchmark.juegosJson(elementos);
+        streamerUsuarios = new JsonArrayStreamer<>(gsonAdapters, UserResponseDTO.class);
+        streamerJuegos = new JsonArrayStreamer<>(gsonAdapters, GameSummaryDTO.class);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> usuariosReflexion() {
+        return gsonReflexion.fromJson(usuariosJson, TIPO_USUARIOS);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> usuariosAdapters() {
+        return gsonAdapters.fromJson(usuariosJson, TIPO_USUARIOS);
+    }
+
+    @Benchmark
+    public int usuariosStreaming(Blackhole bh) throws IOException {
+        return streamerUsuarios.leer(ResponseBody.create(usuariosJson, JSON), bh::consume);
+    }
+
+    @Benchmark
+    public List<GameSummaryDTO> juegosReflexion() {
+        return gsonReflexion.fromJson(juegosJson, TIPO_JUEGOS);
+    }
+
+    @Benchmark
+    public List<GameSummaryDTO> juegosAdapters() {
+        return gsonAdapters.fromJson(juegosJson, TIPO_JUEGOS);
+    }
+
+    @Benchmark
+    public int juegosStreaming(Blackhole bh) throws IOException {
+        return streamerJuegos.leer(ResponseBody.create(juegosJson, JSON), bh::consume);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.remote.metrics.LatencyHistogram;
+import com.example.gamelend.remote.metrics.LatencyMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lo que cuesta registrar una latencia en cada fase de cada petición, con uno y con varios
+// hilos de red escribiendo a la vez, y normalizar la ruta del endpoint.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+    private final LatencyHistogram histograma = new LatencyHistogram();
+
+    @Benchmark
+    @Threads(1)
+    public void registrar() {
+        histograma.registrar(ThreadLocalRandom.current().nextLong(100_000L, 2_000_000_000L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void registrarCuatroHilos() {
+        histograma.registrar(ThreadLocalRandom.current().nextLong(100_000L, 2_000_000_000L));
+    }
+
+    @Benchmark
+    public long percentil95() {
+        return histograma.percentilMs(95);
+    }
+
+    @Benchmark
+    public String normalizarRuta() {
+        return LatencyMetrics.normalizar("GET", "/api/games/1234");
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// LocalStore: lecturas desde memoria, escrituras sueltas (la persistencia se descarta para
+// medir solo el mapa), una escritura suelta a disco (una línea de diario) y la persistencia
+// completa con un ejecutor síncrono.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LocalStoreBenchmark {
+
+    @Param({"1000", "10000"})
+    public int elementos;
+
+    private File dir;
+    private List<UserResponseDTO> usuarios;
+    private LocalStore<UserResponseDTO> enMemoria;
+    private LocalStore<UserResponseDTO> aDisco;
+    private long siguienteId;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        dir = Files.createTempDirectory("local_store_bench").toFile();
+        usuarios = DatosBenchmark.usuarios(elementos);
+        Executor descartar = tarea -> { };
+        Executor sincrono = Runnable::run;
+        enMemoria = crear(new File(dir, "memoria.json"), descartar);
+        aDisco = crear(new File(dir, "disco.json"), sincrono);
+        enMemoria.reemplazarTodos(usuarios);
+        aDisco.reemplazarTodos(usuarios);
+        siguienteId = elementos;
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        File[] ficheros = dir.listFiles();
+        if (ficheros != null) {
+            for (File fichero : ficheros) {
+                fichero.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private LocalStore<UserResponseDTO> crear(File file, Executor diskIO) {
+        return new LocalStore<>(file, GsonProvider.get(),
+                new TypeToken<List<UserResponseDTO>>() {}.getType(), UserResponseDTO::getId, diskIO);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> leerTodos() {
+        return enMemoria.leerTodos();
+    }
+
+    @Benchmark
+    public UserResponseDTO leerPorId() {
+        return enMemoria.leer((long) (elementos / 2));
+    }
+
+    @Benchmark
+    public void guardarUno() {
+        enMemoria.guardar(new UserResponseDTO(siguienteId++ % (elementos * 2L), "Nuevo", "nuevo@gamelend.com",
+                "Madrid", "Madrid", "2024-01-01"));
+    }
+
+    // No depende del tamaño de la colección, salvo cuando toca compactar el diario
+    @Benchmark
+    public void guardarUnoYPersistir() {
+        aDisco.guardar(new UserResponseDTO(siguienteId++ % (elementos * 2L), "Nuevo", "nuevo@gamelend.com",
+                "Madrid", "Madrid", "2024-01-01"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void reemplazarTodosYPersistir() {
+        aDisco.reemplazarTodos(usuarios);
+    }
+}
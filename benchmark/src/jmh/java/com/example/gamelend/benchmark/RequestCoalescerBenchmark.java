@@ -0,0 +1,60 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.repository.RequestCoalescer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste que añade RequestCoalescer a cada petición cuando la llamada termina enseguida
+// (clave por hilo) y cuando varios hilos piden la misma clave a la vez.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class RequestCoalescerBenchmark {
+
+    private final RequestCoalescer coalescer = RequestCoalescer.getInstance();
+
+    @State(Scope.Thread)
+    public static class Clave {
+        final String valor = "GET api/users/" + Thread.currentThread().getId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sinConcurrencia(Clave clave, Blackhole bh) {
+        ejecutar(clave.valor, bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void mismaClaveCuatroHilos(Blackhole bh) {
+        ejecutar("GET api/games", bh);
+    }
+
+    private void ejecutar(String clave, final Blackhole bh) {
+        coalescer.ejecutar(clave, resultado -> {
+            resultado.onExito(clave);
+            return null;
+        }, new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                bh.consume(valor);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                bh.consume(t);
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gamelend.benchmark;
+
+import com.example.gamelend.search.SearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda de ListaJuegos: lo que cuesta cada pulsación con el índice frente a recorrer la
+// lista con contains, y lo que cuesta actualizar un juego o montar el índice entero.
+// El objetivo es que buscar quede muy por debajo de un frame (16 ms).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] PALABRAS = {"Legend", "Zelda", "Pokémon", "Mario", "Kart", "Final",
+            "Fantasy", "Dragón", "Quest", "Halo", "Gears", "Guerra", "Niño", "Leyenda", "Sombra", "Estrella",
+            "Caballero", "Hollow", "Monster", "Hunter", "Crónicas", "Souls", "Ciudad", "Océano"};
+    private static final String[] PLATAFORMAS = {"PS5", "Switch", "PC", "Xbox Series"};
+    private static final String[] GENEROS = {"Acción", "Aventura", "Rol", "Plataformas", "Simulación"};
+
+    @Param({"1000", "5000"})
+    public int juegos;
+
+    private final List<String[]> campos = new ArrayList<>();
+    private SearchIndex indice;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(11);
+        for (int i = 0; i < juegos; i++) {
+            String titulo = PALABRAS[random.nextInt(PALABRAS.length)] + " "
+                    + PALABRAS[random.nextInt(PALABRAS.length)] + " " + (i % 7 + 1);
+            campos.add(new String[]{titulo, PLATAFORMAS[i % PLATAFORMAS.length], GENEROS[i % GENEROS.length]});
+        }
+        indice = construir();
+    }
+
+    private SearchIndex construir() {
+        SearchIndex nuevo = new SearchIndex();
+        for (int i = 0; i < campos.size(); i++) {
+            nuevo.indexar((long) i, campos.get(i));
+        }
+        return nuevo;
+    }
+
+    @Benchmark
+    public List<Long> buscarPrimeraLetra() {
+        return indice.buscar("z", 200);
+    }
+
+    @Benchmark
+    public List<Long> buscarDosPalabrasSinTildes() {
+        return indice.buscar("pokemon switch", 200);
+    }
+
+    @Benchmark
+    public List<Long> buscarEnMedioDePalabra() {
+        return indice.buscar("ster", 200);
+    }
+
+    // Lo que había antes de tener índice: contains sobre cada título
+    @Benchmark
+    public List<Long> recorrerConContains() {
+        List<Long> encontrados = new ArrayList<>();
+        String consulta = SearchIndex.normalizar("pokemon");
+        for (int i = 0; i < campos.size(); i++) {
+            if (SearchIndex.normalizar(campos.get(i)[0]).contains(consulta)) {
+                encontrados.add((long) i);
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public void actualizarUnJuego() {
+        int i = siguiente % campos.size();
+        // Una vuelta con el título cambiado y otra con el original, para que siempre haya cambio
+        boolean cambiado = (siguiente++ / campos.size()) % 2 == 0;
+        String[] juego = campos.get(i);
+        indice.indexar((long) i, cambiado ? juego[0] + " Remastered" : juego[0], juego[1], juego[2]);
+    }
+
+    @Benchmark
+    public SearchIndex construirEntero() {
+        return construir();
+    }
+}
@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    // Retrofit para comunicación API
+    api(libs.retrofit)
+    api(libs.retrofit.converter.gson)
+
+    // OkHttp para intercepción de peticiones (token JWT)
+    api(libs.okhttp)
+
+    testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
+}
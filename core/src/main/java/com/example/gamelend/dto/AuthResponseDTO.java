@@ -30,4 +30,7 @@ public class AuthResponseDTO {
     public List<String> getRoles() {
         return roles;
     }
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
 }
@@ -0,0 +1,45 @@
+package com.example.gamelend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Respuesta de los endpoints /changes: lo creado o modificado y los ids borrados desde la marca
+// pedida, más la marca nueva a usar la próxima vez. hasMore indica que hay más cambios detrás.
+public class ChangesDTO<T> {
+    private List<T> items = new ArrayList<>();
+    private List<Long> deletedIds = new ArrayList<>();
+    private Long watermark;
+    private boolean hasMore;
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public Long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Long watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -5,8 +5,14 @@ public enum GameStatus {
     BORROWED,
     UNAVAILABLE;
 
+    // values() devuelve una copia nueva en cada llamada; se guarda una sola vez
+    private static final GameStatus[] VALUES = values();
+
     public static GameStatus fromString(String value) {
-        for (GameStatus status : GameStatus.values()) {
+        if (value == null) {
+            return null;
+        }
+        for (GameStatus status : VALUES) {
             if (status.name().equalsIgnoreCase(value)) {
                 return status;
             }
@@ -7,6 +7,10 @@ public class GameSummaryDTO {
     private String title;
     private String platform;
     private String status;
+    // Puede no venir en los listados (solo se usa para buscar)
+    private String genre;
+    // Portada (null si el juego no tiene imagen)
+    private Long imageId;
 
     // Constructor
     public GameSummaryDTO(Long id, String title, String platform, String status) {
@@ -47,4 +51,20 @@ public class GameSummaryDTO {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public Long getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(Long imageId) {
+        this.imageId = imageId;
+    }
 }
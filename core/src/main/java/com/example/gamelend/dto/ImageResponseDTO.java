@@ -0,0 +1,31 @@
+package com.example.gamelend.dto;
+
+// Respuesta de POST api/images: id y ruta de la imagen guardada en el servidor
+public class ImageResponseDTO {
+
+    private Long id;
+    private String imagePath;
+
+    public ImageResponseDTO() {}
+
+    public ImageResponseDTO(Long id, String imagePath) {
+        this.id = id;
+        this.imagePath = imagePath;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    public void setImagePath(String imagePath) {
+        this.imagePath = imagePath;
+    }
+}
@@ -9,6 +9,8 @@ public class UserResponseDTO {
     private String provincia;
     private String localidad;
     private String fechaRegistro;
+    // Foto de perfil (null si el usuario no ha subido ninguna)
+    private Long imageId;
 
     public UserResponseDTO(Long id, String nombrePublico, String email, String provincia,
                            String localidad, String fechaRegistro) {
@@ -69,4 +71,12 @@ public class UserResponseDTO {
     public void setFechaRegistro(String fechaRegistro) {
         this.fechaRegistro = fechaRegistro;
     }
-}
\ No newline at end of file
+
+    public Long getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(Long imageId) {
+        this.imageId = imageId;
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.gamelend.local;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Almacén local de una colección de registros identificados por id.
+// Los datos viven en memoria. En disco hay una foto completa (un array JSON) y un diario con
+// los cambios posteriores, una línea por registro: guardar o eliminar uno solo añade su línea,
+// y los cambios que llegan seguidos se escriben juntos en una pasada del hilo de disco.
+// Cuando el diario ocupa más que la colección se compacta en una foto nueva.
+// El diario empieza con una cabecera que lo ata a la foto sobre la que se escribió (su CRC) y
+// cada línea lleva su propio CRC: al cargar se ignora un diario de otra foto y una línea a medias.
+public class LocalStore<T> {
+
+    public interface KeyExtractor<T> {
+        Long getId(T item);
+    }
+
+    // El diario no se compacta por debajo de estas líneas (colecciones pequeñas)
+    private static final int MIN_LINEAS_COMPACTAR = 100;
+    private static final char GUARDADO = '+';
+    private static final char BORRADO = '-';
+    private static final String CABECERA = "#crc32 ";
+
+    private final File file;
+    private final File diario;
+    private final Gson gson;
+    private final Type listType;
+    private final Type itemType;
+    private final KeyExtractor<T> keyExtractor;
+    private final Executor diskIO;
+
+    private final Map<Long, T> items = new LinkedHashMap<>();
+    private boolean cargado = false;
+
+    // Líneas del diario aún sin escribir, en orden
+    private final List<String> pendientes = new ArrayList<>();
+    // Hay que escribir una foto nueva (tras reemplazarTodos o para compactar)
+    private boolean fotoPendiente = false;
+    // Hay una escritura programada o en marcha; solo una a la vez para no desordenar el diario
+    private boolean escribiendo = false;
+    private int lineasDiario = 0;
+    // CRC de la foto en disco (0 si no hay) y si el diario en disco lleva su cabecera.
+    // Solo se tocan al cargar y en el hilo de disco.
+    private long crcFoto = 0;
+    private boolean diarioDeLaFoto = false;
+    // Acciones que esperan a que lo anotado hasta ahora esté en disco
+    private final List<Runnable> alEscribir = new ArrayList<>();
+
+    public LocalStore(File file, Gson gson, Type listType, KeyExtractor<T> keyExtractor, Executor diskIO) {
+        this.file = file;
+        this.diario = new File(file.getPath() + ".log");
+        this.gson = gson;
+        this.listType = listType;
+        this.itemType = ((ParameterizedType) listType).getActualTypeArguments()[0];
+        this.keyExtractor = keyExtractor;
+        this.diskIO = diskIO;
+    }
+
+    // Lee los ficheros en el hilo de disco para que la primera lectura no lo haga en el principal
+    public void precargar() {
+        diskIO.execute(() -> {
+            synchronized (this) {
+                cargarSiHaceFalta();
+            }
+        });
+    }
+
+    public synchronized List<T> leerTodos() {
+        cargarSiHaceFalta();
+        return new ArrayList<>(items.values());
+    }
+
+    // Los primeros registros, sin copiar el resto
+    public synchronized List<T> leerPrimeros(int limite) {
+        cargarSiHaceFalta();
+        List<T> primeros = new ArrayList<>(Math.min(limite, items.size()));
+        for (T item : items.values()) {
+            if (primeros.size() == limite) {
+                break;
+            }
+            primeros.add(item);
+        }
+        return primeros;
+    }
+
+    public synchronized T leer(Long id) {
+        cargarSiHaceFalta();
+        return items.get(id);
+    }
+
+    public synchronized boolean estaVacio() {
+        cargarSiHaceFalta();
+        return items.isEmpty();
+    }
+
+    public synchronized int tamano() {
+        cargarSiHaceFalta();
+        return items.size();
+    }
+
+    // Sustituye la colección completa (por ejemplo tras descargar la lista entera)
+    public synchronized void reemplazarTodos(List<T> nuevos) {
+        cargarSiHaceFalta();
+        items.clear();
+        for (T item : nuevos) {
+            items.put(keyExtractor.getId(item), item);
+        }
+        // Las líneas pendientes se quedan: la foto ya las incluye y se dan por escritas con ella
+        fotoPendiente = true;
+        programarEscritura();
+    }
+
+    // Inserta o actualiza los registros recibidos sin tocar el resto
+    public synchronized void guardarTodos(List<T> nuevos) {
+        cargarSiHaceFalta();
+        for (T item : nuevos) {
+            items.put(keyExtractor.getId(item), item);
+            anotar(GUARDADO + gson.toJson(item, itemType));
+        }
+        programarEscritura();
+    }
+
+    public synchronized void guardar(T item) {
+        cargarSiHaceFalta();
+        items.put(keyExtractor.getId(item), item);
+        anotar(GUARDADO + gson.toJson(item, itemType));
+        programarEscritura();
+    }
+
+    public synchronized void eliminar(Long id) {
+        cargarSiHaceFalta();
+        if (items.remove(id) != null) {
+            anotar(BORRADO + String.valueOf(id));
+            programarEscritura();
+        }
+    }
+
+    // Ejecuta la acción en el hilo de disco cuando todo lo guardado hasta ahora ya esté escrito.
+    // Si una escritura falla, espera a la siguiente que salga bien.
+    public synchronized void despuesDeEscribir(Runnable accion) {
+        if (!escribiendo && !fotoPendiente && pendientes.isEmpty()) {
+            diskIO.execute(accion);
+            return;
+        }
+        alEscribir.add(accion);
+    }
+
+    // Se serializa al anotar: lo que se escribe es el registro tal y como estaba al guardarlo
+    private void anotar(String linea) {
+        if (fotoPendiente) {
+            // La foto se toma al escribir y ya incluirá este cambio
+            return;
+        }
+        pendientes.add(linea);
+        lineasDiario++;
+        if (lineasDiario > Math.max(items.size(), MIN_LINEAS_COMPACTAR)) {
+            fotoPendiente = true;
+        }
+    }
+
+    private void programarEscritura() {
+        if (!escribiendo && (fotoPendiente || !pendientes.isEmpty())) {
+            escribiendo = true;
+            diskIO.execute(this::escribir);
+        }
+    }
+
+    private void escribir() {
+        List<String> lineas;
+        List<T> foto = null;
+        synchronized (this) {
+            // Se copian sin quitarlas: si la escritura falla siguen pendientes
+            lineas = new ArrayList<>(pendientes);
+            if (fotoPendiente) {
+                foto = new ArrayList<>(items.values());
+                fotoPendiente = false;
+                lineasDiario = 0;
+            }
+        }
+
+        boolean escrito;
+        if (foto == null) {
+            escrito = anadirAlDiario(lineas);
+        } else {
+            // La foto ya incluye todas las líneas. El diario se borra solo cuando la foto está en su
+            // sitio; si la app muere antes, su cabecera es de la foto anterior y al cargar se ignora.
+            escrito = escribirFoto(foto);
+            if (escrito) {
+                diario.delete();
+            }
+        }
+
+        List<Runnable> acciones;
+        synchronized (this) {
+            escribiendo = false;
+            if (!escrito) {
+                // Sin espacio o sin permisos: se intenta con una foto completa en el próximo cambio.
+                // Tras un fallo el diario puede acabar a medias y no se sigue añadiendo detrás.
+                fotoPendiente = true;
+                return;
+            }
+            // Mientras tanto pueden haberse anotado más; esas siguen pendientes
+            pendientes.subList(0, lineas.size()).clear();
+            programarEscritura();
+            if (escribiendo || alEscribir.isEmpty()) {
+                return;
+            }
+            acciones = new ArrayList<>(alEscribir);
+            alEscribir.clear();
+        }
+        for (Runnable accion : acciones) {
+            accion.run();
+        }
+    }
+
+    private boolean anadirAlDiario(List<String> lineas) {
+        if (lineas.isEmpty()) {
+            return true;
+        }
+        // Un diario de otra foto (no se pudo borrar) se empieza de nuevo en vez de alargarlo
+        boolean nuevo = !diarioDeLaFoto;
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(diario, !nuevo), StandardCharsets.UTF_8)) {
+            if (nuevo) {
+                writer.write(CABECERA + Long.toHexString(crcFoto));
+                writer.write('\n');
+            }
+            for (String linea : lineas) {
+                writer.write(linea);
+                writer.write('\t');
+                writer.write(crc(linea));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        diarioDeLaFoto = true;
+        return true;
+    }
+
+    private boolean escribirFoto(List<T> foto) {
+        File tmp = new File(file.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (Writer writer = new OutputStreamWriter(
+                new CheckedOutputStream(new FileOutputStream(tmp), crc), StandardCharsets.UTF_8)) {
+            gson.toJson(foto, listType, writer);
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        crcFoto = crc.getValue();
+        diarioDeLaFoto = false;
+        return true;
+    }
+
+    // Gson escapa los tabuladores dentro del JSON: el último de la línea es el separador
+    private static String crc(String linea) {
+        CRC32 crc = new CRC32();
+        crc.update(linea.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private void cargarSiHaceFalta() {
+        if (cargado) {
+            return;
+        }
+        cargado = true;
+        if (file.exists()) {
+            try (CheckedInputStream entrada = new CheckedInputStream(new FileInputStream(file), new CRC32());
+                 Reader reader = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+                List<T> guardados = gson.fromJson(reader, listType);
+                if (guardados != null) {
+                    for (T item : guardados) {
+                        items.put(keyExtractor.getId(item), item);
+                    }
+                }
+                // Gson lee hasta el final del fichero: el CRC es el del fichero entero
+                crcFoto = entrada.getChecksum().getValue();
+            } catch (IOException | RuntimeException e) {
+                // Fichero corrupto o ilegible: se empieza de cero y se rellenará desde la red.
+                // Su diario no se aplica (la cabecera no cuadra) y se escribe una foto limpia.
+                items.clear();
+                fotoPendiente = true;
+                programarEscritura();
+            }
+        }
+        if (diario.exists()) {
+            aplicarDiario();
+        }
+    }
+
+    private void aplicarDiario() {
+        boolean rehacer = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(diario), StandardCharsets.UTF_8))) {
+            String linea = reader.readLine();
+            boolean conCrc = linea != null && linea.startsWith(CABECERA);
+            if (conCrc) {
+                if (Long.parseLong(linea.substring(CABECERA.length()), 16) != crcFoto) {
+                    // Diario de la foto anterior (la app murió antes de borrarlo): la foto actual
+                    // ya lo incluye o lo sustituye. Se pisa en la próxima escritura.
+                    return;
+                }
+                diarioDeLaFoto = true;
+                linea = reader.readLine();
+            } else {
+                // Diario sin CRC de una versión anterior: se aplica tal cual y se pasa a una foto
+                rehacer = true;
+            }
+            for (; linea != null; linea = reader.readLine()) {
+                if (linea.isEmpty()) {
+                    continue;
+                }
+                if (conCrc) {
+                    int separador = linea.lastIndexOf('\t');
+                    if (separador < 0 || !linea.substring(separador + 1).equals(crc(linea.substring(0, separador)))) {
+                        // Línea a medias (la app murió escribiendo): lo anterior vale, lo que sigue no
+                        rehacer = true;
+                        break;
+                    }
+                    linea = linea.substring(0, separador);
+                }
+                if (linea.charAt(0) == GUARDADO) {
+                    T item = gson.fromJson(linea.substring(1), itemType);
+                    items.put(keyExtractor.getId(item), item);
+                } else {
+                    items.remove(Long.parseLong(linea.substring(1)));
+                }
+                lineasDiario++;
+            }
+        } catch (IOException | RuntimeException e) {
+            rehacer = true;
+        }
+        if (rehacer) {
+            // Se reescribe todo para no seguir añadiendo detrás de la línea rota
+            fotoPendiente = true;
+            programarEscritura();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.gamelend.outbox;
+
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.local.LocalStore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Cola de salida persistente con los altas, cambios y borrados de juegos que faltan por enviar.
+// Cada cambio se guarda en disco antes de devolver, así que la pantalla puede darlo por hecho
+// aunque no haya red. Al encolar se fusiona con lo que aún no ha salido del mismo juego:
+// - alta + cambio: un alta con los datos nuevos
+// - cambio + cambio: solo el último
+// - alta + borrado: no se envía nada
+// - cambios + borrado: solo el borrado
+// Los cambios de un mismo juego se envían en orden, de uno en uno; los de juegos distintos, a la vez.
+// Los cambios de estado solo llevan el estado nuevo: el resto del juego se toma del servidor al enviarlos.
+// Una entrada que falla MAX_INTENTOS veces seguidas deja de reintentarse y pasa, con lo que
+// dependa de ella, al almacén de fallidas para no bloquear la cola para siempre.
+public class Outbox {
+
+    public static final int MAX_INTENTOS = 10;
+
+    private final LocalStore<OutboxEntry> store;
+    // null: lo que agota los intentos se quita sin guardarlo aparte
+    private final LocalStore<OutboxEntry> fallidas;
+    private final int maxIntentos;
+
+    // Entradas que se están enviando: no se fusionan ni se vuelven a entregar
+    private final Set<Long> enVuelo = new HashSet<>();
+    private long siguienteId = 0;
+    private long ultimoTemporal = 0;
+
+    // El store debería escribir en disco en el mismo hilo (ver LocalDatabase)
+    public Outbox(LocalStore<OutboxEntry> store) {
+        this(store, null, MAX_INTENTOS);
+    }
+
+    public Outbox(LocalStore<OutboxEntry> store, LocalStore<OutboxEntry> fallidas, int maxIntentos) {
+        this.store = store;
+        this.fallidas = fallidas;
+        this.maxIntentos = maxIntentos;
+    }
+
+    public static boolean esTemporal(Long gameId) {
+        return gameId != null && gameId < 0;
+    }
+
+    // Devuelve el id temporal (negativo) con el que se conoce el juego hasta que el servidor le da uno
+    public synchronized long encolarCreacion(GameDTO juego) {
+        long temporal = Math.min(-System.currentTimeMillis(), ultimoTemporal - 1);
+        ultimoTemporal = temporal;
+        juego.setId(null);
+        store.guardar(nueva(OutboxEntry.Operacion.CREAR, temporal, juego));
+        return temporal;
+    }
+
+    public synchronized void encolarActualizacion(long gameId, GameDTO juego) {
+        OutboxEntry ultima = ultimaDelJuego(gameId);
+        if (ultima != null && ultima.getOperacion() == OutboxEntry.Operacion.BORRAR) {
+            // Cambiar un juego ya borrado no tiene efecto
+            return;
+        }
+        if (ultima != null && !enVuelo.contains(ultima.getId())) {
+            juego.setId(ultima.getOperacion() == OutboxEntry.Operacion.CREAR ? null : gameId);
+            ultima.setJuego(juego);
+            if (ultima.getEstadoAnterior() != null) {
+                // Deja de ser solo un cambio de estado: se envía entero, sin comprobar el estado del
+                // servidor, y el de partida se guarda solo para deshacerlo si se rechaza
+                ultima.setEstadoOriginal(ultima.getEstadoAnterior());
+                ultima.setEstadoAnterior(null);
+            }
+            store.guardar(ultima);
+            return;
+        }
+        juego.setId(gameId);
+        store.guardar(nueva(OutboxEntry.Operacion.ACTUALIZAR, gameId, juego));
+    }
+
+    // Cambio de estado (prestado, disponible...) sobre el estado que se conocía del servidor
+    public synchronized void encolarCambioEstado(long gameId, Long userId, String estadoAnterior, String estadoNuevo) {
+        OutboxEntry ultima = ultimaDelJuego(gameId);
+        if (ultima != null && ultima.getOperacion() == OutboxEntry.Operacion.BORRAR) {
+            return;
+        }
+        if (ultima != null && !enVuelo.contains(ultima.getId())) {
+            // Se suma al alta o al cambio que aún no ha salido, conservando su estado de partida
+            ultima.getJuego().setStatus(estadoNuevo);
+            if (ultima.getEstadoAnterior() == null && ultima.getEstadoOriginal() == null) {
+                ultima.setEstadoOriginal(estadoAnterior);
+            }
+            store.guardar(ultima);
+            return;
+        }
+        GameDTO soloEstado = new GameDTO(gameId, null, null, null, null, estadoNuevo, userId,
+                null, null, null, null);
+        OutboxEntry entrada = nueva(OutboxEntry.Operacion.ACTUALIZAR, gameId, soloEstado);
+        entrada.setEstadoAnterior(estadoAnterior);
+        store.guardar(entrada);
+    }
+
+    public synchronized void encolarBorrado(long gameId) {
+        OutboxEntry ultima = ultimaDelJuego(gameId);
+        if (ultima != null && ultima.getOperacion() == OutboxEntry.Operacion.BORRAR) {
+            return;
+        }
+        boolean altaSinEnviar = false;
+        for (OutboxEntry entrada : store.leerTodos()) {
+            if (entrada.getGameId() != gameId || enVuelo.contains(entrada.getId())) {
+                continue;
+            }
+            if (entrada.getOperacion() == OutboxEntry.Operacion.CREAR) {
+                altaSinEnviar = true;
+            }
+            store.eliminar(entrada.getId());
+        }
+        if (!altaSinEnviar) {
+            store.guardar(nueva(OutboxEntry.Operacion.BORRAR, gameId, null));
+        }
+    }
+
+    // Siguiente lote: la entrada más antigua de cada juego que no tenga ya una en vuelo
+    public synchronized List<OutboxEntry> siguienteLote(int maximo) {
+        List<OutboxEntry> lote = new ArrayList<>();
+        Set<Long> juegos = new HashSet<>();
+        for (OutboxEntry entrada : store.leerTodos()) {
+            if (lote.size() >= maximo) {
+                break;
+            }
+            if (!juegos.add(entrada.getGameId()) || enVuelo.contains(entrada.getId())) {
+                continue;
+            }
+            enVuelo.add(entrada.getId());
+            lote.add(entrada);
+        }
+        return lote;
+    }
+
+    // El servidor aceptó la entrada; si era un alta, lo que venga detrás pasa a usar el id real
+    public synchronized void confirmar(OutboxEntry entrada, Long idServidor) {
+        enVuelo.remove(entrada.getId());
+        store.eliminar(entrada.getId());
+        if (entrada.getOperacion() != OutboxEntry.Operacion.CREAR || idServidor == null) {
+            return;
+        }
+        List<OutboxEntry> cambiadas = new ArrayList<>();
+        for (OutboxEntry siguiente : store.leerTodos()) {
+            if (siguiente.getGameId().equals(entrada.getGameId())) {
+                siguiente.setGameId(idServidor);
+                if (siguiente.getJuego() != null) {
+                    siguiente.getJuego().setId(idServidor);
+                }
+                cambiadas.add(siguiente);
+            }
+        }
+        if (!cambiadas.isEmpty()) {
+            store.guardarTodos(cambiadas);
+        }
+    }
+
+    // Fallo pasajero (sin red, 5xx...): se queda en la cola para el próximo intento.
+    // Devuelve false si ya agotó los intentos y ha pasado a fallidas: hay que tratarla como rechazada.
+    public synchronized boolean reintentar(OutboxEntry entrada) {
+        enVuelo.remove(entrada.getId());
+        entrada.setIntentos(entrada.getIntentos() + 1);
+        if (entrada.getIntentos() < maxIntentos) {
+            store.guardar(entrada);
+            return true;
+        }
+        List<OutboxEntry> quitadas = quitar(entrada);
+        if (fallidas != null) {
+            fallidas.guardarTodos(quitadas);
+        }
+        return false;
+    }
+
+    // Sin enviar por una causa ajena a la entrada (se ha parado el worker): no cuenta como intento
+    public synchronized void soltar(OutboxEntry entrada) {
+        enVuelo.remove(entrada.getId());
+    }
+
+    // Rechazo definitivo: se quita y, si era un alta, también lo que dependía de ella
+    public synchronized void descartar(OutboxEntry entrada) {
+        quitar(entrada);
+    }
+
+    // Entradas que agotaron los intentos, por si se quieren revisar o volver a encolar a mano
+    public List<OutboxEntry> fallidas() {
+        return fallidas != null ? fallidas.leerTodos() : new ArrayList<OutboxEntry>();
+    }
+
+    public synchronized List<OutboxEntry> pendientes() {
+        return store.leerTodos();
+    }
+
+    public synchronized boolean estaVacia() {
+        return store.estaVacio();
+    }
+
+    // Quita la entrada y, si era un alta, lo que venía detrás del mismo juego
+    private List<OutboxEntry> quitar(OutboxEntry entrada) {
+        enVuelo.remove(entrada.getId());
+        store.eliminar(entrada.getId());
+        List<OutboxEntry> quitadas = new ArrayList<>();
+        quitadas.add(entrada);
+        if (entrada.getOperacion() != OutboxEntry.Operacion.CREAR) {
+            return quitadas;
+        }
+        for (OutboxEntry siguiente : store.leerTodos()) {
+            if (siguiente.getGameId().equals(entrada.getGameId())) {
+                store.eliminar(siguiente.getId());
+                quitadas.add(siguiente);
+            }
+        }
+        return quitadas;
+    }
+
+    private OutboxEntry ultimaDelJuego(long gameId) {
+        OutboxEntry ultima = null;
+        for (OutboxEntry entrada : store.leerTodos()) {
+            if (entrada.getGameId() == gameId) {
+                ultima = entrada;
+            }
+        }
+        return ultima;
+    }
+
+    private OutboxEntry nueva(OutboxEntry.Operacion operacion, long gameId, GameDTO juego) {
+        if (siguienteId == 0) {
+            // Los ids siguen a los que ya hay en el fichero para conservar el orden de llegada
+            for (OutboxEntry entrada : store.leerTodos()) {
+                siguienteId = Math.max(siguienteId, entrada.getId());
+            }
+        }
+        siguienteId++;
+        return new OutboxEntry(siguienteId, operacion, gameId, juego, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.gamelend.outbox;
+
+import com.example.gamelend.dto.GameDTO;
+
+// Cambio de un juego pendiente de enviar al servidor.
+// gameId es negativo (id temporal) mientras el alta no se ha confirmado.
+public class OutboxEntry {
+
+    public enum Operacion {
+        CREAR,
+        ACTUALIZAR,
+        BORRAR
+    }
+
+    private Long id;
+    private Operacion operacion;
+    private Long gameId;
+    // Datos del juego; null en los borrados
+    private GameDTO juego;
+    // Solo en los cambios de estado: estado que tenía el juego en el servidor al hacer el cambio.
+    // Antes de enviarlo se compara con el actual para detectar que otro lo cambió antes.
+    private String estadoAnterior;
+    // Cambio de estado sumado a un alta o a un cambio completo: estado que había antes. No se
+    // comprueba contra el servidor; solo sirve para deshacerlo y avisar si se rechaza la entrada.
+    private String estadoOriginal;
+    private int intentos;
+    private long creadaMs;
+
+    public OutboxEntry(Long id, Operacion operacion, Long gameId, GameDTO juego, long creadaMs) {
+        this.id = id;
+        this.operacion = operacion;
+        this.gameId = gameId;
+        this.juego = juego;
+        this.creadaMs = creadaMs;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(Operacion operacion) {
+        this.operacion = operacion;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public GameDTO getJuego() {
+        return juego;
+    }
+
+    public void setJuego(GameDTO juego) {
+        this.juego = juego;
+    }
+
+    public String getEstadoAnterior() {
+        return estadoAnterior;
+    }
+
+    public void setEstadoAnterior(String estadoAnterior) {
+        this.estadoAnterior = estadoAnterior;
+    }
+
+    public String getEstadoOriginal() {
+        return estadoOriginal;
+    }
+
+    public void setEstadoOriginal(String estadoOriginal) {
+        this.estadoOriginal = estadoOriginal;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public long getCreadaMs() {
+        return creadaMs;
+    }
+
+    public void setCreadaMs(long creadaMs) {
+        this.creadaMs = creadaMs;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.gamelend.outbox;
+
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.remote.api.ApiService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Vacía la cola de salida por lotes: en cada lote va como mucho un cambio por juego y los
+// de juegos distintos se envían a la vez. Se bloquea hasta terminar, así que hay que
+// llamarlo desde un hilo de fondo (el worker de la app). Ante un fallo pasajero se para y
+// devuelve REINTENTAR para que quien lo llama vuelva más tarde con espera creciente.
+// Los cambios de estado se comprueban antes contra la versión actual del servidor: si alguien
+// lo cambió entretanto a otro valor, gana el servidor y el cambio local se descarta (conflicto).
+public class OutboxProcessor {
+
+    public enum Resultado {
+        VACIA,
+        REINTENTAR
+    }
+
+    public interface Listener {
+        // El servidor aceptó el cambio; respuesta es null en los borrados.
+        // En las altas entrada.getGameId() sigue siendo el id temporal.
+        void onConfirmada(OutboxEntry entrada, GameResponseDTO respuesta);
+
+        // El servidor lo rechazó y reintentar no serviría de nada (400, 403, 409...), o agotó
+        // los intentos (codigo es el del último fallo; 0 si no llegó a haber respuesta).
+        // En los cambios, servidor es la versión actual del juego para deshacerlo en local;
+        // null si no se pudo leer (o si era un alta o un borrado).
+        void onDescartada(OutboxEntry entrada, int codigo, GameResponseDTO servidor);
+
+        // Cambio de estado descartado porque el servidor ya tenía otro más reciente
+        void onConflicto(OutboxEntry entrada, GameResponseDTO servidor);
+    }
+
+    private final Outbox outbox;
+    private final ApiService apiService;
+    private final Executor red;
+    private final int tamanoLote;
+    private final Listener listener;
+
+    public OutboxProcessor(Outbox outbox, ApiService apiService, Executor red, int tamanoLote, Listener listener) {
+        this.outbox = outbox;
+        this.apiService = apiService;
+        this.red = red;
+        this.tamanoLote = tamanoLote;
+        this.listener = listener;
+    }
+
+    public Resultado procesar() {
+        while (true) {
+            List<OutboxEntry> lote = outbox.siguienteLote(tamanoLote);
+            if (lote.isEmpty()) {
+                return outbox.estaVacia() ? Resultado.VACIA : Resultado.REINTENTAR;
+            }
+            if (!enviarLote(lote)) {
+                return Resultado.REINTENTAR;
+            }
+        }
+    }
+
+    // Devuelve false si algo del lote tiene que reintentarse más tarde
+    private boolean enviarLote(List<OutboxEntry> lote) {
+        final CountDownLatch pendientes = new CountDownLatch(lote.size());
+        final AtomicBoolean todoBien = new AtomicBoolean(true);
+        final Llamadas llamadas = new Llamadas();
+        for (final OutboxEntry entrada : lote) {
+            red.execute(() -> {
+                try {
+                    if (!enviar(entrada, llamadas)) {
+                        todoBien.set(false);
+                    }
+                } finally {
+                    pendientes.countDown();
+                }
+            });
+        }
+        try {
+            pendientes.await();
+        } catch (InterruptedException e) {
+            // Se ha parado el worker: lo que no haya terminado se reintenta en la próxima pasada
+            llamadas.cancelarTodas();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return todoBien.get();
+    }
+
+    private boolean enviar(OutboxEntry entrada, Llamadas llamadas) {
+        try {
+            GameDTO cuerpo = entrada.getJuego();
+            GameResponseDTO servidor = null;
+            if (entrada.getEstadoAnterior() != null) {
+                Response<GameResponseDTO> actual = llamadas.ejecutar(apiService.getGameById(entrada.getGameId()));
+                if (!actual.isSuccessful() || actual.body() == null) {
+                    return tratarRespuesta(entrada, actual, null, llamadas);
+                }
+                servidor = actual.body();
+                String estado = servidor.getStatus();
+                if (!iguales(estado, entrada.getEstadoAnterior()) && !iguales(estado, cuerpo.getStatus())) {
+                    outbox.descartar(entrada);
+                    listener.onConflicto(entrada, servidor);
+                    return true;
+                }
+                cuerpo = combinar(servidor, cuerpo);
+            }
+            return tratarRespuesta(entrada, llamadas.ejecutar(crearLlamada(entrada, cuerpo)), servidor, llamadas);
+        } catch (IOException | RuntimeException e) {
+            if (llamadas.estanCanceladas()) {
+                outbox.soltar(entrada);
+                return false;
+            }
+            return reintentar(entrada, 0, llamadas);
+        }
+    }
+
+    // Devuelve false si se queda en la cola para más tarde; si agotó los intentos se da por rechazada
+    private boolean reintentar(OutboxEntry entrada, int codigo, Llamadas llamadas) {
+        if (outbox.reintentar(entrada)) {
+            return false;
+        }
+        rechazada(entrada, codigo, null, llamadas);
+        return true;
+    }
+
+    private void rechazada(OutboxEntry entrada, int codigo, GameResponseDTO servidor, Llamadas llamadas) {
+        if (servidor == null && entrada.getOperacion() == OutboxEntry.Operacion.ACTUALIZAR) {
+            servidor = leerDelServidor(entrada.getGameId(), llamadas);
+        }
+        listener.onDescartada(entrada, codigo, servidor);
+    }
+
+    private Call<?> crearLlamada(OutboxEntry entrada, GameDTO cuerpo) {
+        switch (entrada.getOperacion()) {
+            case CREAR:
+                return apiService.createGame(cuerpo);
+            case ACTUALIZAR:
+                return apiService.updateGame(entrada.getGameId(), cuerpo);
+            default:
+                return apiService.deleteGame(entrada.getGameId());
+        }
+    }
+
+    private boolean tratarRespuesta(OutboxEntry entrada, Response<?> respuesta, GameResponseDTO servidor,
+                                    Llamadas llamadas) {
+        int codigo = respuesta.code();
+        if (respuesta.isSuccessful()
+                || (codigo == 404 && entrada.getOperacion() == OutboxEntry.Operacion.BORRAR)) {
+            GameResponseDTO juego = respuesta.body() instanceof GameResponseDTO
+                    ? (GameResponseDTO) respuesta.body() : null;
+            outbox.confirmar(entrada, juego != null ? juego.getId() : null);
+            listener.onConfirmada(entrada, juego);
+            return true;
+        }
+        if (esReintentable(codigo)) {
+            return reintentar(entrada, codigo, llamadas);
+        }
+        outbox.descartar(entrada);
+        rechazada(entrada, codigo, servidor, llamadas);
+        return true;
+    }
+
+    // Versión actual del juego, o null si no se puede leer ahora
+    private GameResponseDTO leerDelServidor(Long gameId, Llamadas llamadas) {
+        try {
+            Response<GameResponseDTO> actual = llamadas.ejecutar(apiService.getGameById(gameId));
+            return actual.isSuccessful() ? actual.body() : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Versión del servidor con los campos que trae el cambio (los null se quedan como estaban)
+    private static GameDTO combinar(GameResponseDTO servidor, GameDTO cambio) {
+        return new GameDTO(servidor.getId(),
+                cambio.getTitle() != null ? cambio.getTitle() : servidor.getTitle(),
+                cambio.getPlatform() != null ? cambio.getPlatform() : servidor.getPlatform(),
+                cambio.getGenre() != null ? cambio.getGenre() : servidor.getGenre(),
+                cambio.getDescription() != null ? cambio.getDescription() : servidor.getDescription(),
+                cambio.getStatus() != null ? cambio.getStatus() : servidor.getStatus(),
+                cambio.getUserId() != null ? cambio.getUserId() : servidor.getUserId(),
+                cambio.getImageId() != null ? cambio.getImageId() : servidor.getImageId(),
+                cambio.getImagePath() != null ? cambio.getImagePath() : servidor.getImagePath(),
+                cambio.getCatalog() != null ? cambio.getCatalog() : servidor.isCatalog(),
+                cambio.getCatalogGameId() != null ? cambio.getCatalogGameId() : servidor.getCatalogGameId());
+    }
+
+    private static boolean iguales(String a, String b) {
+        return a == null ? b == null : a.equalsIgnoreCase(b);
+    }
+
+    // 401 incluido: el TokenAuthenticator ya intentó renovar y la sesión puede volver más tarde
+    private static boolean esReintentable(int codigo) {
+        return codigo == 401 || codigo == 408 || codigo == 429 || codigo >= 500;
+    }
+
+    // Llamadas en curso de un lote, para cancelarlas todas si se para el worker
+    private static class Llamadas {
+        private final List<Call<?>> enCurso = new ArrayList<>();
+        private boolean canceladas;
+
+        <T> Response<T> ejecutar(Call<T> llamada) throws IOException {
+            synchronized (this) {
+                if (canceladas) {
+                    throw new IOException("Canceled");
+                }
+                enCurso.add(llamada);
+            }
+            return llamada.execute();
+        }
+
+        synchronized boolean estanCanceladas() {
+            return canceladas;
+        }
+
+        synchronized void cancelarTodas() {
+            canceladas = true;
+            for (Call<?> llamada : enCurso) {
+                llamada.cancel();
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.gamelend.remote.api;
 
+import com.example.gamelend.dto.ChangesDTO;
 import com.example.gamelend.dto.GameDTO;
 import com.example.gamelend.dto.GameResponseDTO;
 import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.ImageResponseDTO;
 import com.example.gamelend.dto.LoginRequestDTO;
 import com.example.gamelend.dto.RegisterRequestDTO;
 import com.example.gamelend.dto.TokenResponseDTO;
@@ -10,16 +12,22 @@ import com.example.gamelend.dto.UserDTO;
 import com.example.gamelend.dto.UserResponseDTO;
 
 import java.util.List;
+import java.util.Map;
 
+import okhttp3.MultipartBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
+import retrofit2.http.Part;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface ApiService {
 
@@ -38,6 +46,14 @@ public interface ApiService {
     @GET("api/users")
     Call<List<UserResponseDTO>> getAllUsers(@Header("Authorization") String token);
 
+    // Directorio paginado (page empieza en 0)
+    @GET("api/users")
+    Call<List<UserResponseDTO>> getUsersPage(
+            @Query("page") int page,
+            @Query("size") int size,
+            @Header("Authorization") String token
+    );
+
     @GET("api/users/{id}")
     Call<UserResponseDTO> getUserById(@Path("id") Long id, @Header("Authorization") String token);
 
@@ -74,19 +90,44 @@ public interface ApiService {
     );
 
     // ===== Game Endpoints =====
-    @GET("api/games")
+    @POST("api/games")
     Call<GameResponseDTO> createGame(@Body GameDTO gameDTO);
 
     @GET("api/games")
     Call<List<GameSummaryDTO>> getAllGames();
 
+    // Mismo listado sin bufferizar: el cuerpo se decodifica por bloques (ver JsonArrayStreamer)
+    @Streaming
+    @GET("api/games")
+    Call<ResponseBody> getAllGamesStream();
+
+    // Sincronización incremental (ver DeltaSync): cambios y borrados desde la marca "since".
+    // Sin "since" solo devuelve la marca actual. 410 si la marca es más antigua que los borrados
+    // que guarda el servidor: entonces hay que volver a descargar la lista completa.
+    @GET("api/games/changes")
+    Call<ChangesDTO<GameSummaryDTO>> getGameChanges(@Query("since") Long since);
+
     @GET("api/games/{id}")
     Call<GameResponseDTO> getGameById(@Path("id") Long id);
 
+    // Juegos de un usuario (lo que se abre desde el botón de juegos del directorio)
+    @GET("api/games/user/{userId}")
+    Call<List<GameSummaryDTO>> getGamesByUser(@Path("userId") Long userId);
+
+    // Juegos de varios usuarios a la vez, por id de usuario; ids separados por comas.
+    // Si el servidor no lo tiene se vuelve a getGamesByUser (ver GamesByUserBatch)
+    @GET("api/games/users")
+    Call<Map<Long, List<GameSummaryDTO>>> getGamesByUsers(@Query("ids") String ids);
+
     @PUT("api/games/{id}")
     Call<GameResponseDTO> updateGame(@Path("id") Long id, @Body GameDTO gameDTO);
 
     @DELETE("api/games/{id}")
     Call<Void> deleteGame(@Path("id") Long id);
 
-}
\ No newline at end of file
+    // ===== Image Endpoints =====
+    // El fichero va como parte multipart "file" y se lee de disco mientras se envía
+    @Multipart
+    @POST("api/images")
+    Call<ImageResponseDTO> uploadImage(@Part MultipartBody.Part file);
+}
@@ -0,0 +1,138 @@
+package com.example.gamelend.remote.api;
+
+import com.example.gamelend.dto.LoginRequestDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Authenticator;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Deja preparado el cliente mientras el usuario escribe sus credenciales: abre conexiones con
+// el backend (DNS, TCP y TLS) con un HEAD a la URL base y las deja aparcadas en el pool, y crea
+// de antemano los métodos de Retrofit y los adapters de Gson del login y de la primera página.
+// Usa un cliente derivado del compartido (mismo pool y mismo dispatcher) pero sin caché, sin
+// interceptores y sin authenticator, para que un 401 del HEAD no dispare una renovación de token.
+public class ConnectionWarmer {
+
+    // Lo más que espera un HEAD con su conexión ya abierta a que la tengan los demás de la tanda
+    private static final long ESPERA_TANDA_MS = 2000;
+
+    private final OkHttpClient client;
+    private final ApiService apiService;
+    private final HttpUrl baseUrl;
+
+    private final List<Call> enVuelo = new ArrayList<>();
+    private boolean conversoresListos = false;
+
+    public ConnectionWarmer(OkHttpClient compartido, ApiService apiService, HttpUrl baseUrl) {
+        OkHttpClient.Builder builder = compartido.newBuilder()
+                .cache(null)
+                .authenticator(Authenticator.NONE);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        builder.addNetworkInterceptor(ConnectionWarmer::esperarTanda);
+        this.client = builder.build();
+        this.apiService = apiService;
+        this.baseUrl = baseUrl;
+    }
+
+    // Lanza los HEAD que falten para tener "conexiones" libres en el pool; devuelve cuántos lanzó.
+    // Llamarlo otra vez con las conexiones ya abiertas no hace nada.
+    public int calentar(int conexiones) {
+        prepararConversores();
+
+        List<Call> nuevas = new ArrayList<>();
+        synchronized (this) {
+            int faltan = conexiones - client.connectionPool().idleConnectionCount() - enVuelo.size();
+            CountDownLatch tanda = new CountDownLatch(Math.max(faltan, 0));
+            for (int i = 0; i < faltan; i++) {
+                Call call = client.newCall(new Request.Builder()
+                        .url(baseUrl)
+                        .head()
+                        .cacheControl(CacheControl.FORCE_NETWORK)
+                        .tag(CountDownLatch.class, tanda)
+                        .build());
+                enVuelo.add(call);
+                nuevas.add(call);
+            }
+        }
+        for (Call call : nuevas) {
+            call.enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    // Cerrar la respuesta devuelve la conexión al pool
+                    response.close();
+                    terminar(call);
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    terminar(call);
+                }
+            });
+        }
+        return nuevas.size();
+    }
+
+    // Al pasar la app a segundo plano: corta lo que siga abriéndose. Las conexiones ya
+    // aparcadas se quedan en el pool, que las cierra solo cuando caducan.
+    public void cancelar() {
+        List<Call> aCancelar;
+        synchronized (this) {
+            aCancelar = new ArrayList<>(enVuelo);
+            enVuelo.clear();
+        }
+        for (Call call : aCancelar) {
+            call.cancel();
+        }
+    }
+
+    // Un HEAD no tiene cuerpo, así que su conexión vuelve al pool en cuanto llega la respuesta y
+    // otro HEAD de la misma tanda que saliera después la reutilizaría en vez de abrir la suya.
+    // Con la conexión ya abierta, cada uno espera a que la tengan todos antes de enviar.
+    private static Response esperarTanda(Interceptor.Chain chain) throws IOException {
+        CountDownLatch tanda = chain.request().tag(CountDownLatch.class);
+        if (tanda != null) {
+            tanda.countDown();
+            try {
+                tanda.await(ESPERA_TANDA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Canceled", e);
+            }
+        }
+        return chain.proceed(chain.request());
+    }
+
+    public synchronized int getEnVuelo() {
+        return enVuelo.size();
+    }
+
+    private synchronized void terminar(Call call) {
+        enVuelo.remove(call);
+    }
+
+    // Crear la Call (sin lanzarla) hace que Retrofit lea las anotaciones del método y pida a
+    // Gson los adapters del cuerpo y de la respuesta; así el primer login no paga ese coste
+    private void prepararConversores() {
+        synchronized (this) {
+            if (conversoresListos) {
+                return;
+            }
+            conversoresListos = true;
+        }
+        apiService.login(new LoginRequestDTO("", ""));
+        apiService.getUsersPage(0, 1, "");
+    }
+}
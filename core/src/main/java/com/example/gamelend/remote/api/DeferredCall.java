@@ -0,0 +1,136 @@
+package com.example.gamelend.remote.api;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Call de Retrofit cuya llamada real se crea cuando hace falta: execute() la crea en el hilo que
+// la ejecuta (que ya tiene que ser de fondo) y enqueue() en el executor indicado. Así se puede
+// crear, encolar o cancelar desde el hilo principal aunque el cliente HTTP aún se esté construyendo.
+public class DeferredCall<T> implements Call<T> {
+
+    public interface Fabrica<T> {
+        // Puede bloquear hasta que el cliente esté listo
+        Call<T> crear();
+    }
+
+    private final Fabrica<T> fabrica;
+    private final Executor executor;
+
+    private Call<T> real;
+    private boolean ejecutada;
+    private boolean cancelada;
+
+    public DeferredCall(Fabrica<T> fabrica, Executor executor) {
+        this.fabrica = fabrica;
+        this.executor = executor;
+    }
+
+    @Override
+    public Response<T> execute() throws IOException {
+        marcarEjecutada();
+        synchronized (this) {
+            if (cancelada) {
+                throw new IOException("Canceled");
+            }
+        }
+        return obtenerReal().execute();
+    }
+
+    @Override
+    public void enqueue(final Callback<T> callback) {
+        marcarEjecutada();
+        executor.execute(() -> {
+            Call<T> llamada;
+            try {
+                llamada = obtenerReal();
+            } catch (RuntimeException e) {
+                callback.onFailure(DeferredCall.this, e);
+                return;
+            }
+            // Los avisos llegan por el executor de la llamada real (el hilo principal en Android)
+            llamada.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    callback.onResponse(DeferredCall.this, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    callback.onFailure(DeferredCall.this, t);
+                }
+            });
+        });
+    }
+
+    @Override
+    public synchronized boolean isExecuted() {
+        return ejecutada;
+    }
+
+    @Override
+    public void cancel() {
+        Call<T> llamada;
+        synchronized (this) {
+            cancelada = true;
+            llamada = real;
+        }
+        if (llamada != null) {
+            llamada.cancel();
+        }
+    }
+
+    @Override
+    public synchronized boolean isCanceled() {
+        return cancelada || (real != null && real.isCanceled());
+    }
+
+    @Override
+    public Call<T> clone() {
+        return new DeferredCall<>(fabrica, executor);
+    }
+
+    // Estos dos necesitan la llamada real: pueden esperar al cliente
+    @Override
+    public Request request() {
+        return obtenerReal().request();
+    }
+
+    @Override
+    public Timeout timeout() {
+        return obtenerReal().timeout();
+    }
+
+    private synchronized void marcarEjecutada() {
+        if (ejecutada) {
+            throw new IllegalStateException("Already executed.");
+        }
+        ejecutada = true;
+    }
+
+    // La espera va fuera del cerrojo: cancelar desde el hilo principal nunca se bloquea
+    private Call<T> obtenerReal() {
+        synchronized (this) {
+            if (real != null) {
+                return real;
+            }
+        }
+        Call<T> nueva = fabrica.crear();
+        boolean cancelar;
+        synchronized (this) {
+            if (real == null) {
+                real = nueva;
+            }
+            cancelar = cancelada;
+        }
+        if (cancelar) {
+            real.cancel();
+        }
+        return real;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.gamelend.remote.api;
+
+import com.example.gamelend.remote.cache.CachePolicyInterceptor;
+import com.example.gamelend.remote.cache.HttpCacheStats;
+import com.example.gamelend.remote.interceptor.AuthInterceptor;
+import com.example.gamelend.remote.interceptor.TokenAuthenticator;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.example.gamelend.remote.logging.NetworkLogBuffer;
+import com.example.gamelend.remote.logging.NetworkLoggingInterceptor;
+import com.example.gamelend.remote.metrics.LatencyEventListener;
+import com.example.gamelend.remote.metrics.LatencyMetrics;
+import com.example.gamelend.remote.metrics.NetworkQualityEstimator;
+import com.example.gamelend.session.TokenStore;
+
+import java.io.File;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+// Cliente HTTP completo (caché, auth, registro, métricas) sin dependencias de Android:
+// la app lo construye en AppContainer y los benchmarks lo pueden montar contra un servidor local.
+public class NetworkStack {
+
+    // Caché de respuestas en disco (acotada) para los GET de ApiService
+    private static final long CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+
+    private final HttpCacheStats cacheStats = new HttpCacheStats();
+    private final NetworkLogBuffer networkLog = new NetworkLogBuffer(256);
+    private final LatencyMetrics latencyMetrics = new LatencyMetrics();
+    private final NetworkQualityEstimator networkQuality;
+
+    private final OkHttpClient client;
+    private final Retrofit retrofit;
+    private final ApiService apiService;
+    private final ConnectionWarmer connectionWarmer;
+
+    // debug: registra todas las peticiones y hasta 4 KB de cada respuesta; si no, solo una
+    // de cada diez peticiones correctas (los errores siempre) y sin cuerpos
+    public NetworkStack(String baseUrl, File cacheDir, TokenStore tokenStore, boolean debug) {
+        this(baseUrl, cacheDir, tokenStore, debug, new NetworkQualityEstimator());
+    }
+
+    // El estimador puede venir de fuera para que se pueda consultar antes de construir el cliente
+    public NetworkStack(String baseUrl, File cacheDir, TokenStore tokenStore, boolean debug,
+                        NetworkQualityEstimator networkQuality) {
+        this.networkQuality = networkQuality;
+        Cache cache = new Cache(new File(cacheDir, "http_cache"), CACHE_SIZE);
+        cacheStats.setCache(cache);
+
+        client = new OkHttpClient.Builder()
+                .cache(cache)
+                .addInterceptor(new AuthInterceptor(tokenStore))
+                .addInterceptor(new NetworkLoggingInterceptor(networkLog, debug ? 1.0 : 0.1, debug ? 4096 : 0))
+                .addNetworkInterceptor(new CachePolicyInterceptor(cacheStats))
+                .authenticator(new TokenAuthenticator(tokenStore, this::getApiService))
+                .eventListenerFactory(new LatencyEventListener.Factory(latencyMetrics, networkQuality))
+                .build();
+
+        retrofit = new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .client(client)
+                .build();
+
+        apiService = retrofit.create(ApiService.class);
+        connectionWarmer = new ConnectionWarmer(client, apiService, retrofit.baseUrl());
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    public Retrofit getRetrofit() {
+        return retrofit;
+    }
+
+    public ApiService getApiService() {
+        return apiService;
+    }
+
+    public ConnectionWarmer getConnectionWarmer() {
+        return connectionWarmer;
+    }
+
+    public HttpCacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    public NetworkLogBuffer getNetworkLog() {
+        return networkLog;
+    }
+
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    public NetworkQualityEstimator getNetworkQuality() {
+        return networkQuality;
+    }
+}
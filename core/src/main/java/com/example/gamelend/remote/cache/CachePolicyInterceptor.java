@@ -0,0 +1,64 @@
+package com.example.gamelend.remote.cache;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Interceptor de red que aplica una política de frescura por endpoint a las respuestas GET
+// cuando el backend no envía su propio Cache-Control. Con max-age 0 se fuerza la revalidación
+// (If-None-Match / If-Modified-Since), de modo que una lista sin cambios vuelve como un 304.
+public class CachePolicyInterceptor implements Interceptor {
+
+    private final Map<Pattern, Integer> maxAgePorEndpoint = new LinkedHashMap<>();
+    private final HttpCacheStats stats;
+
+    public CachePolicyInterceptor(HttpCacheStats stats) {
+        this.stats = stats;
+
+        // Listados: siempre se revalidan, cambian con cada préstamo
+        maxAgePorEndpoint.put(Pattern.compile("^/api/users$"), 0);
+        maxAgePorEndpoint.put(Pattern.compile("^/api/games$"), 0);
+        // Detalle: se puede servir de caché durante un rato sin preguntar
+        maxAgePorEndpoint.put(Pattern.compile("^/api/users/\\d+$"), 60);
+        maxAgePorEndpoint.put(Pattern.compile("^/api/games/\\d+$"), 30);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+
+        if (response.code() == 304) {
+            stats.registrarRevalidacion();
+        }
+
+        Integer maxAge = maxAgePara(request.url().encodedPath());
+        if (maxAge == null || response.header("Cache-Control") != null) {
+            return response;
+        }
+
+        String cacheControl = maxAge == 0 ? "private, no-cache" : "private, max-age=" + maxAge;
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", cacheControl)
+                .build();
+    }
+
+    private Integer maxAgePara(String path) {
+        for (Map.Entry<Pattern, Integer> entry : maxAgePorEndpoint.entrySet()) {
+            if (entry.getKey().matcher(path).matches()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
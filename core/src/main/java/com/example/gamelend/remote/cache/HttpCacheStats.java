@@ -0,0 +1,45 @@
+package com.example.gamelend.remote.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+
+// Contadores de la caché HTTP: aciertos y fallos salen de la propia Cache de OkHttp,
+// las revalidaciones (respuestas 304) las cuenta CachePolicyInterceptor.
+public class HttpCacheStats {
+
+    private final AtomicLong revalidaciones = new AtomicLong();
+    private Cache cache;
+
+    void registrarRevalidacion() {
+        revalidaciones.incrementAndGet();
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public long getAciertos() {
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    public long getFallos() {
+        return cache != null ? cache.networkCount() - revalidaciones.get() : 0;
+    }
+
+    public long getRevalidaciones() {
+        return revalidaciones.get();
+    }
+
+    public long getPeticiones() {
+        return cache != null ? cache.requestCount() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{peticiones=" + getPeticiones()
+                + ", aciertos=" + getAciertos()
+                + ", fallos=" + getFallos()
+                + ", revalidaciones=" + getRevalidaciones() + "}";
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.gamelend.remote.interceptor;
 
-import android.content.Context;
-import android.content.SharedPreferences;
+import com.example.gamelend.session.TokenStore;
 
 import java.io.IOException;
 
@@ -10,11 +9,11 @@ import okhttp3.Request;
 import okhttp3.Response;
 
 public class AuthInterceptor implements Interceptor {
-    private Context context;
+    private final TokenStore tokenStore;
 
-    public AuthInterceptor(Context context) {
+    public AuthInterceptor(TokenStore tokenStore) {
 
-        this.context = context;
+        this.tokenStore = tokenStore;
     }
 
     @Override
@@ -26,9 +25,8 @@ public class AuthInterceptor implements Interceptor {
             return chain.proceed(original);
         }
 
-        // Obtener token almacenado
-        SharedPreferences prefs = context.getSharedPreferences("GameLend", Context.MODE_PRIVATE);
-        String token = prefs.getString("token", "");
+        // Token en memoria: no se lee de disco en cada petición
+        String token = tokenStore.getAccessToken();
 
         // Agregar token a la petición
         Request.Builder builder = original.newBuilder()
@@ -36,4 +34,4 @@ public class AuthInterceptor implements Interceptor {
 
         return chain.proceed(builder.build());
     }
-}
\ No newline at end of file
+}
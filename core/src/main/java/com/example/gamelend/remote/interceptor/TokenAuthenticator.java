@@ -0,0 +1,97 @@
+package com.example.gamelend.remote.interceptor;
+
+import com.example.gamelend.dto.TokenResponseDTO;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.session.TokenStore;
+
+import java.io.IOException;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+// Renueva el access token cuando una petición recibe un 401 y la repite con el token nuevo.
+// La renovación es única: si varias peticiones fallan a la vez, la primera llama a
+// api/auth/refresh y las demás esperan en el cerrojo y reutilizan el token que obtuvo.
+public class TokenAuthenticator implements Authenticator {
+
+    // El ApiService se pide al renovar: se construye con el mismo cliente que usa este authenticator
+    public interface ApiServiceProvider {
+        ApiService get();
+    }
+
+    private final TokenStore tokenStore;
+    private final ApiServiceProvider apiServiceProvider;
+    private final Object lock = new Object();
+    // Refresh token con el que ya falló la renovación, para no reintentarla en bucle
+    private String refreshFallido;
+
+    public TokenAuthenticator(TokenStore tokenStore, ApiServiceProvider apiServiceProvider) {
+        this.tokenStore = tokenStore;
+        this.apiServiceProvider = apiServiceProvider;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) throws IOException {
+        Request request = response.request();
+
+        // Las peticiones de auth no se reintentan, ni tampoco una que ya se repitió
+        if (request.url().encodedPath().contains("/auth/") || response.priorResponse() != null) {
+            return null;
+        }
+
+        String tokenUsado = tokenDe(request);
+        String tokenNuevo;
+
+        synchronized (lock) {
+            String tokenActual = tokenStore.getAccessToken();
+
+            if (!tokenActual.isEmpty() && !tokenActual.equals(tokenUsado)) {
+                // Otra petición ya renovó el token mientras esta esperaba
+                tokenNuevo = tokenActual;
+            } else {
+                tokenNuevo = renovar();
+            }
+        }
+
+        if (tokenNuevo == null) {
+            return null;
+        }
+        return request.newBuilder()
+                .header("Authorization", "Bearer " + tokenNuevo)
+                .build();
+    }
+
+    // Se llama con el cerrojo tomado
+    private String renovar() {
+        String refreshToken = tokenStore.getRefreshToken();
+        if (refreshToken.isEmpty() || refreshToken.equals(refreshFallido)) {
+            return null;
+        }
+
+        ApiService apiService = apiServiceProvider.get();
+        try {
+            retrofit2.Response<TokenResponseDTO> respuesta = apiService.refreshToken("Bearer " + refreshToken).execute();
+            TokenResponseDTO tokens = respuesta.body();
+            if (!respuesta.isSuccessful() || tokens == null || tokens.getAccessToken() == null) {
+                refreshFallido = refreshToken;
+                return null;
+            }
+
+            tokenStore.guardarTokens(tokens.getAccessToken(), tokens.getRefreshToken());
+            return tokens.getAccessToken();
+        } catch (IOException e) {
+            // Error de red: no se marca como fallido, la siguiente petición lo volverá a intentar
+            return null;
+        }
+    }
+
+    private static String tokenDe(Request request) {
+        String header = request.header("Authorization");
+        if (header == null) {
+            return "";
+        }
+        return header.startsWith("Bearer ") ? header.substring("Bearer ".length()) : header;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.AuthResponseDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class AuthResponseDTOAdapter extends TypeAdapter<AuthResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, AuthResponseDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("token").value(value.getToken());
+        out.name("nombrePublico").value(value.getNombrePublico());
+        out.name("userId").value(value.getUserId());
+        out.name("roles");
+        JsonUtils.writeStringList(out, value.getRoles());
+        out.endObject();
+    }
+
+    @Override
+    public AuthResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        AuthResponseDTO dto = new AuthResponseDTO();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "token":
+                    dto.setToken(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "nombrePublico":
+                    dto.setNombrePublico(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "userId":
+                    Long userId = JsonUtils.nextLongOrNull(in);
+                    dto.setUserId(userId != null ? userId : 0L);
+                    break;
+                case "roles":
+                    dto.setRoles(JsonUtils.nextStringListOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
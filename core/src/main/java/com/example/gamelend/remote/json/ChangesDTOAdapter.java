@@ -0,0 +1,94 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.ChangesDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Los elementos se delegan al adapter del tipo concreto (ChangesDTO<GameSummaryDTO>, ...)
+class ChangesDTOAdapter<T> extends TypeAdapter<ChangesDTO<T>> {
+
+    private final TypeAdapter<T> itemAdapter;
+
+    ChangesDTOAdapter(TypeAdapter<T> itemAdapter) {
+        this.itemAdapter = itemAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, ChangesDTO<T> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("items").beginArray();
+        for (T item : value.getItems()) {
+            itemAdapter.write(out, item);
+        }
+        out.endArray();
+        out.name("deletedIds").beginArray();
+        for (Long id : value.getDeletedIds()) {
+            out.value(id);
+        }
+        out.endArray();
+        out.name("watermark").value(value.getWatermark());
+        out.name("hasMore").value(value.isHasMore());
+        out.endObject();
+    }
+
+    @Override
+    public ChangesDTO<T> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChangesDTO<T> cambios = new ChangesDTO<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "items":
+                    List<T> items = new ArrayList<>();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            items.add(itemAdapter.read(in));
+                        }
+                        in.endArray();
+                    }
+                    cambios.setItems(items);
+                    break;
+                case "deletedIds":
+                    List<Long> ids = new ArrayList<>();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            ids.add(in.nextLong());
+                        }
+                        in.endArray();
+                    }
+                    cambios.setDeletedIds(ids);
+                    break;
+                case "watermark":
+                    cambios.setWatermark(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "hasMore":
+                    Boolean hasMore = JsonUtils.nextBooleanOrNull(in);
+                    cambios.setHasMore(hasMore != null && hasMore);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return cambios;
+    }
+}
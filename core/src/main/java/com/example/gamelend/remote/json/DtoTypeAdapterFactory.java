@@ -0,0 +1,87 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.AuthResponseDTO;
+import com.example.gamelend.dto.ChangesDTO;
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameStatus;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.ImageResponseDTO;
+import com.example.gamelend.dto.LoginRequestDTO;
+import com.example.gamelend.dto.RegisterRequestDTO;
+import com.example.gamelend.dto.RespuestaGeneral;
+import com.example.gamelend.dto.TokenResponseDTO;
+import com.example.gamelend.dto.UserDTO;
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.outbox.OutboxEntry;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+// Adapters escritos a mano para todos los DTO: Gson no tiene que recorrer campos por
+// reflexión y R8 puede renombrar y recortar las clases del paquete dto sin romper el JSON.
+// Al añadir un DTO nuevo hay que añadir aquí su adapter.
+public class DtoTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+
+        if (raw == GameSummaryDTO.class) {
+            return (TypeAdapter<T>) new GameSummaryDTOAdapter();
+        }
+        if (raw == UserResponseDTO.class) {
+            return (TypeAdapter<T>) new UserResponseDTOAdapter();
+        }
+        if (raw == GameResponseDTO.class) {
+            return (TypeAdapter<T>) new GameResponseDTOAdapter();
+        }
+        if (raw == GameDTO.class) {
+            return (TypeAdapter<T>) new GameDTOAdapter();
+        }
+        if (raw == TokenResponseDTO.class) {
+            return (TypeAdapter<T>) new TokenResponseDTOAdapter();
+        }
+        if (raw == LoginRequestDTO.class) {
+            return (TypeAdapter<T>) new LoginRequestDTOAdapter();
+        }
+        if (raw == RegisterRequestDTO.class) {
+            return (TypeAdapter<T>) new RegisterRequestDTOAdapter();
+        }
+        if (raw == UserDTO.class) {
+            return (TypeAdapter<T>) new UserDTOAdapter(gson.getAdapter(GameDTO.class));
+        }
+        if (raw == AuthResponseDTO.class) {
+            return (TypeAdapter<T>) new AuthResponseDTOAdapter();
+        }
+        if (raw == ImageResponseDTO.class) {
+            return (TypeAdapter<T>) new ImageResponseDTOAdapter();
+        }
+        if (raw == OutboxEntry.class) {
+            return (TypeAdapter<T>) new OutboxEntryAdapter(gson.getAdapter(GameDTO.class));
+        }
+        if (raw == GameStatus.class) {
+            return (TypeAdapter<T>) new GameStatusAdapter();
+        }
+        if (raw == RespuestaGeneral.class) {
+            Type tipoCuerpo = Object.class;
+            if (type.getType() instanceof ParameterizedType) {
+                tipoCuerpo = ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+            }
+            return (TypeAdapter<T>) new RespuestaGeneralAdapter<>(gson.getAdapter(TypeToken.get(tipoCuerpo)));
+        }
+        if (raw == ChangesDTO.class) {
+            Type tipoItem = Object.class;
+            if (type.getType() instanceof ParameterizedType) {
+                tipoItem = ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+            }
+            return (TypeAdapter<T>) new ChangesDTOAdapter<>(gson.getAdapter(TypeToken.get(tipoItem)));
+        }
+        return null;
+    }
+}
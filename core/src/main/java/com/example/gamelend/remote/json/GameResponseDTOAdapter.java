@@ -0,0 +1,89 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class GameResponseDTOAdapter extends TypeAdapter<GameResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, GameResponseDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("title").value(value.getTitle());
+        out.name("platform").value(value.getPlatform());
+        out.name("genre").value(value.getGenre());
+        out.name("description").value(value.getDescription());
+        out.name("status").value(value.getStatus());
+        out.name("userId").value(value.getUserId());
+        out.name("userName").value(value.getUserName());
+        out.name("imageId").value(value.getImageId());
+        out.name("imagePath").value(value.getImagePath());
+        out.name("catalog").value(value.isCatalog());
+        out.name("catalogGameId").value(value.getCatalogGameId());
+        out.endObject();
+    }
+
+    @Override
+    public GameResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        GameResponseDTO dto = new GameResponseDTO();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    dto.setId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "title":
+                    dto.setTitle(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "platform":
+                    dto.setPlatform(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "genre":
+                    dto.setGenre(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "description":
+                    dto.setDescription(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "status":
+                    dto.setStatus(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "userId":
+                    dto.setUserId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "userName":
+                    dto.setUserName(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "imageId":
+                    dto.setImageId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "imagePath":
+                    dto.setImagePath(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "catalog":
+                    Boolean catalog = JsonUtils.nextBooleanOrNull(in);
+                    dto.setCatalog(catalog != null && catalog);
+                    break;
+                case "catalogGameId":
+                    dto.setCatalogGameId(JsonUtils.nextLongOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
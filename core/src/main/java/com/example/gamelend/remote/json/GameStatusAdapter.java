@@ -0,0 +1,21 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.GameStatus;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class GameStatusAdapter extends TypeAdapter<GameStatus> {
+
+    @Override
+    public void write(JsonWriter out, GameStatus value) throws IOException {
+        out.value(value != null ? value.name() : null);
+    }
+
+    @Override
+    public GameStatus read(JsonReader in) throws IOException {
+        return GameStatus.fromString(JsonUtils.nextStringOrNull(in));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class GameSummaryDTOAdapter extends TypeAdapter<GameSummaryDTO> {
+
+    @Override
+    public void write(JsonWriter out, GameSummaryDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("title").value(value.getTitle());
+        out.name("platform").value(value.getPlatform());
+        out.name("status").value(value.getStatus());
+        out.name("genre").value(value.getGenre());
+        out.name("imageId").value(value.getImageId());
+        out.endObject();
+    }
+
+    @Override
+    public GameSummaryDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Long id = null;
+        String title = null;
+        String platform = null;
+        String status = null;
+        String genre = null;
+        Long imageId = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = JsonUtils.nextLongOrNull(in);
+                    break;
+                case "title":
+                    title = JsonUtils.nextStringOrNull(in);
+                    break;
+                case "platform":
+                    platform = JsonUtils.nextStringOrNull(in);
+                    break;
+                case "status":
+                    status = JsonUtils.nextStringOrNull(in);
+                    break;
+                case "genre":
+                    genre = JsonUtils.nextStringOrNull(in);
+                    break;
+                case "imageId":
+                    imageId = JsonUtils.nextLongOrNull(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        GameSummaryDTO dto = new GameSummaryDTO(id, title, platform, status);
+        dto.setGenre(genre);
+        dto.setImageId(imageId);
+        return dto;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.gamelend.remote.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+// Instancia única de Gson para Retrofit, el almacén local y la lectura por streaming
+public final class GsonProvider {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+
+    private GsonProvider() {
+    }
+
+    public static Gson get() {
+        return GSON;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.ImageResponseDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class ImageResponseDTOAdapter extends TypeAdapter<ImageResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, ImageResponseDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("imagePath").value(value.getImagePath());
+        out.endObject();
+    }
+
+    @Override
+    public ImageResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ImageResponseDTO dto = new ImageResponseDTO();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    dto.setId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "imagePath":
+                    dto.setImagePath(JsonUtils.nextStringOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.gamelend.remote.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Utilidades de lectura/escritura compartidas por los adapters de los DTO
+final class JsonUtils {
+
+    private JsonUtils() {
+    }
+
+    static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static Long nextLongOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+
+    static Boolean nextBooleanOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+
+    static List<String> nextStringListOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<String> lista = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            lista.add(nextStringOrNull(in));
+        }
+        in.endArray();
+        return lista;
+    }
+
+    static void writeStringList(JsonWriter out, List<String> lista) throws IOException {
+        if (lista == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String valor : lista) {
+            out.value(valor);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.LoginRequestDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class LoginRequestDTOAdapter extends TypeAdapter<LoginRequestDTO> {
+
+    @Override
+    public void write(JsonWriter out, LoginRequestDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("email").value(value.getEmail());
+        out.name("password").value(value.getPassword());
+        out.endObject();
+    }
+
+    @Override
+    public LoginRequestDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String email = null;
+        String password = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "email":
+                    email = JsonUtils.nextStringOrNull(in);
+                    break;
+                case "password":
+                    password = JsonUtils.nextStringOrNull(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new LoginRequestDTO(email, password);
+    }
+}
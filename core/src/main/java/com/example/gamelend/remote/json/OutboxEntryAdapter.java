@@ -0,0 +1,82 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.outbox.OutboxEntry;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+// Formato del fichero de la cola de salida (solo se usa en local, nunca viaja al servidor)
+class OutboxEntryAdapter extends TypeAdapter<OutboxEntry> {
+
+    private final TypeAdapter<GameDTO> juegoAdapter;
+
+    OutboxEntryAdapter(TypeAdapter<GameDTO> juegoAdapter) {
+        this.juegoAdapter = juegoAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, OutboxEntry value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("operacion").value(value.getOperacion() != null ? value.getOperacion().name() : null);
+        out.name("gameId").value(value.getGameId());
+        out.name("juego");
+        juegoAdapter.write(out, value.getJuego());
+        out.name("estadoAnterior").value(value.getEstadoAnterior());
+        out.name("estadoOriginal").value(value.getEstadoOriginal());
+        out.name("intentos").value(value.getIntentos());
+        out.name("creadaMs").value(value.getCreadaMs());
+        out.endObject();
+    }
+
+    @Override
+    public OutboxEntry read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        OutboxEntry entrada = new OutboxEntry(null, null, null, null, 0);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    entrada.setId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "operacion":
+                    String operacion = JsonUtils.nextStringOrNull(in);
+                    entrada.setOperacion(operacion != null ? OutboxEntry.Operacion.valueOf(operacion) : null);
+                    break;
+                case "gameId":
+                    entrada.setGameId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "juego":
+                    entrada.setJuego(juegoAdapter.read(in));
+                    break;
+                case "estadoAnterior":
+                    entrada.setEstadoAnterior(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "estadoOriginal":
+                    entrada.setEstadoOriginal(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "intentos":
+                    entrada.setIntentos(in.nextInt());
+                    break;
+                case "creadaMs":
+                    entrada.setCreadaMs(in.nextLong());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return entrada;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.RegisterRequestDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class RegisterRequestDTOAdapter extends TypeAdapter<RegisterRequestDTO> {
+
+    @Override
+    public void write(JsonWriter out, RegisterRequestDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(value.getName());
+        out.name("publicName").value(value.getPublicName());
+        out.name("password").value(value.getPassword());
+        out.name("email").value(value.getEmail());
+        out.name("province").value(value.getProvince());
+        out.name("city").value(value.getCity());
+        out.endObject();
+    }
+
+    @Override
+    public RegisterRequestDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        RegisterRequestDTO dto = new RegisterRequestDTO(null, null, null, null, null, null);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    dto.setName(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "publicName":
+                    dto.setPublicName(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "password":
+                    dto.setPassword(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "email":
+                    dto.setEmail(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "province":
+                    dto.setProvince(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "city":
+                    dto.setCity(JsonUtils.nextStringOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.RespuestaGeneral;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+// El cuerpo genérico se delega al adapter del tipo concreto (RespuestaGeneral<UserResponseDTO>, ...)
+class RespuestaGeneralAdapter<T> extends TypeAdapter<RespuestaGeneral<T>> {
+
+    private final TypeAdapter<T> cuerpoAdapter;
+
+    RespuestaGeneralAdapter(TypeAdapter<T> cuerpoAdapter) {
+        this.cuerpoAdapter = cuerpoAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, RespuestaGeneral<T> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("tipo").value(value.getTipo());
+        out.name("respuesta").value(value.getRespuesta());
+        out.name("mensaje").value(value.getMensaje());
+        out.name("cuerpo");
+        cuerpoAdapter.write(out, value.getCuerpo());
+        out.name("exito").value(value.isExito());
+        out.endObject();
+    }
+
+    @Override
+    public RespuestaGeneral<T> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        RespuestaGeneral<T> respuesta = new RespuestaGeneral<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "tipo":
+                    respuesta.setTipo(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "respuesta":
+                    Long codigo = JsonUtils.nextLongOrNull(in);
+                    respuesta.setRespuesta(codigo != null ? codigo.intValue() : 0);
+                    break;
+                case "mensaje":
+                    respuesta.setMensaje(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "cuerpo":
+                    respuesta.setCuerpo(cuerpoAdapter.read(in));
+                    break;
+                case "exito":
+                    Boolean exito = JsonUtils.nextBooleanOrNull(in);
+                    respuesta.setExito(exito != null && exito);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return respuesta;
+    }
+}
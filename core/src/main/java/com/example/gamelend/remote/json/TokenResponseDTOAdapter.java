@@ -0,0 +1,48 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.TokenResponseDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class TokenResponseDTOAdapter extends TypeAdapter<TokenResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, TokenResponseDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("access_token").value(value.getAccessToken());
+        out.name("refresh_token").value(value.getRefreshToken());
+        out.endObject();
+    }
+
+    @Override
+    public TokenResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        TokenResponseDTO dto = new TokenResponseDTO();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "access_token":
+                    dto.setAccessToken(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "refresh_token":
+                    dto.setRefreshToken(JsonUtils.nextStringOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
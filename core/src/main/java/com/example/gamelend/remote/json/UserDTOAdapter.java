@@ -0,0 +1,109 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.dto.UserDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class UserDTOAdapter extends TypeAdapter<UserDTO> {
+
+    private final TypeAdapter<GameDTO> gameAdapter;
+
+    UserDTOAdapter(TypeAdapter<GameDTO> gameAdapter) {
+        this.gameAdapter = gameAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, UserDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(value.getName());
+        out.name("publicName").value(value.getPublicName());
+        out.name("email").value(value.getEmail());
+        out.name("province").value(value.getProvince());
+        out.name("city").value(value.getCity());
+        out.name("password").value(value.getPassword());
+        out.name("registrationDate").value(value.getRegistrationDate());
+        out.name("games");
+        if (value.getGames() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+            for (GameDTO game : value.getGames()) {
+                gameAdapter.write(out, game);
+            }
+            out.endArray();
+        }
+        out.name("roles");
+        JsonUtils.writeStringList(out, value.getRoles());
+        out.endObject();
+    }
+
+    @Override
+    public UserDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UserDTO dto = new UserDTO(null, null, null, null, null, null, null, null, null);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    dto.setName(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "publicName":
+                    dto.setPublicName(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "email":
+                    dto.setEmail(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "province":
+                    dto.setProvince(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "city":
+                    dto.setCity(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "password":
+                    dto.setPassword(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "registrationDate":
+                    dto.setRegistrationDate(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "games":
+                    dto.setGames(leerJuegos(in));
+                    break;
+                case "roles":
+                    dto.setRoles(JsonUtils.nextStringListOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+
+    private List<GameDTO> leerJuegos(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<GameDTO> juegos = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            juegos.add(gameAdapter.read(in));
+        }
+        in.endArray();
+        return juegos;
+    }
+}
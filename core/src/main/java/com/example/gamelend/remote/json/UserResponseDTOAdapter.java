@@ -0,0 +1,68 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class UserResponseDTOAdapter extends TypeAdapter<UserResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, UserResponseDTO value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("nombrePublico").value(value.getNombrePublico());
+        out.name("email").value(value.getEmail());
+        out.name("provincia").value(value.getProvincia());
+        out.name("localidad").value(value.getLocalidad());
+        out.name("fechaRegistro").value(value.getFechaRegistro());
+        out.name("imageId").value(value.getImageId());
+        out.endObject();
+    }
+
+    @Override
+    public UserResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UserResponseDTO dto = new UserResponseDTO();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    dto.setId(JsonUtils.nextLongOrNull(in));
+                    break;
+                case "nombrePublico":
+                    dto.setNombrePublico(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "email":
+                    dto.setEmail(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "provincia":
+                    dto.setProvincia(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "localidad":
+                    dto.setLocalidad(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "fechaRegistro":
+                    dto.setFechaRegistro(JsonUtils.nextStringOrNull(in));
+                    break;
+                case "imageId":
+                    dto.setImageId(JsonUtils.nextLongOrNull(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return dto;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.gamelend.remote.logging;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Buffer circular de tamaño fijo con los últimos registros de red. Escribir es un
+// incremento atómico más un set, sin cerrojos; cuando se llena se pisan los más antiguos.
+public class NetworkLogBuffer {
+
+    private final AtomicReferenceArray<NetworkLogRecord> registros;
+    private final AtomicLong siguiente = new AtomicLong();
+    private final int mascara;
+
+    // La capacidad se redondea a la siguiente potencia de dos
+    public NetworkLogBuffer(int capacidad) {
+        int tamano = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        registros = new AtomicReferenceArray<>(tamano);
+        mascara = tamano - 1;
+    }
+
+    public void add(NetworkLogRecord registro) {
+        long posicion = siguiente.getAndIncrement();
+        registros.set((int) (posicion & mascara), registro);
+    }
+
+    // Copia de los registros actuales, del más antiguo al más reciente
+    public List<NetworkLogRecord> snapshot() {
+        long fin = siguiente.get();
+        long inicio = Math.max(0, fin - registros.length());
+        List<NetworkLogRecord> copia = new ArrayList<>((int) (fin - inicio));
+        for (long i = inicio; i < fin; i++) {
+            NetworkLogRecord registro = registros.get((int) (i & mascara));
+            if (registro != null) {
+                copia.add(registro);
+            }
+        }
+        return copia;
+    }
+
+    public long getTotalRegistrados() {
+        return siguiente.get();
+    }
+
+    // Exporta el contenido actual como JSON (un array de objetos)
+    public void exportar(File destino) throws IOException {
+        List<NetworkLogRecord> copia = snapshot();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(destino), StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.setIndent("  ");
+            json.beginArray();
+            for (NetworkLogRecord registro : copia) {
+                json.beginObject();
+                json.name("timestamp").value(registro.getTimestamp());
+                json.name("method").value(registro.getMethod());
+                json.name("path").value(registro.getPath());
+                json.name("status").value(registro.getStatus());
+                json.name("requestBytes").value(registro.getRequestBytes());
+                json.name("responseBytes").value(registro.getResponseBytes());
+                json.name("durationMs").value(registro.getDurationMs());
+                json.name("requestHeaders").beginObject();
+                for (Map.Entry<String, String> header : registro.getRequestHeaders().entrySet()) {
+                    json.name(header.getKey()).value(header.getValue());
+                }
+                json.endObject();
+                if (registro.getError() != null) {
+                    json.name("error").value(registro.getError());
+                }
+                if (registro.getResponseBody() != null) {
+                    json.name("responseBody").value(registro.getResponseBody());
+                }
+                json.endObject();
+            }
+            json.endArray();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.gamelend.remote.logging;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Una petición registrada: inmutable para poder publicarla en el buffer sin cerrojos
+public final class NetworkLogRecord {
+    private final long timestamp;
+    private final String method;
+    private final String path;
+    private final int status; // -1 si falló antes de recibir respuesta
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long durationMs;
+    private final Map<String, String> requestHeaders;
+    private final String error;
+    private final String responseBody; // solo en debug y truncado
+
+    public NetworkLogRecord(long timestamp, String method, String path, int status, long requestBytes,
+                            long responseBytes, long durationMs, Map<String, String> requestHeaders,
+                            String error, String responseBody) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.durationMs = durationMs;
+        this.requestHeaders = Collections.unmodifiableMap(requestHeaders);
+        this.error = error;
+        this.responseBody = responseBody;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public Map<String, String> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.gamelend.remote.logging;
+
+import com.example.gamelend.remote.metrics.LatencyMetrics;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+// Registra cada petición en un NetworkLogBuffer: método, ruta, estado, tamaños y tiempo.
+// La ruta se guarda normalizada como en LatencyMetrics ("/api/users/email/{email}"): el
+// registro se exporta y no debe llevar emails, tokens ni otros parámetros del usuario.
+// No bufferiza cuerpos: como mucho se copia un trozo acotado de la respuesta, y solo
+// si se activa (en debug). Las peticiones correctas se muestrean; los errores siempre.
+public class NetworkLoggingInterceptor implements Interceptor {
+
+    private static final Set<String> HEADERS_OCULTOS = new HashSet<>();
+
+    static {
+        HEADERS_OCULTOS.add("authorization");
+        HEADERS_OCULTOS.add("cookie");
+        HEADERS_OCULTOS.add("set-cookie");
+        HEADERS_OCULTOS.add("proxy-authorization");
+    }
+
+    private final NetworkLogBuffer buffer;
+    private final double muestreo;
+    private final long maxBytesCuerpo;
+
+    // muestreo: fracción (0..1) de peticiones correctas que se registran.
+    // maxBytesCuerpo: 0 para no capturar nunca el cuerpo de la respuesta.
+    public NetworkLoggingInterceptor(NetworkLogBuffer buffer, double muestreo, long maxBytesCuerpo) {
+        this.buffer = buffer;
+        this.muestreo = muestreo;
+        this.maxBytesCuerpo = maxBytesCuerpo;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long inicio = System.nanoTime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            registrar(request, -1, -1, inicio, e.toString(), null);
+            throw e;
+        }
+
+        boolean esError = response.code() >= 400;
+        if (!esError && (muestreo <= 0 || ThreadLocalRandom.current().nextDouble() >= muestreo)) {
+            return response;
+        }
+
+        String cuerpo = null;
+        if (maxBytesCuerpo > 0) {
+            // peekBody lee como mucho maxBytesCuerpo y deja el cuerpo intacto para Retrofit
+            cuerpo = response.peekBody(maxBytesCuerpo).string();
+        }
+        ResponseBody body = response.body();
+        long bytesRespuesta = body != null ? body.contentLength() : -1;
+        registrar(request, response.code(), bytesRespuesta, inicio, null, cuerpo);
+        return response;
+    }
+
+    private void registrar(Request request, int status, long bytesRespuesta, long inicio, String error, String cuerpo) {
+        long bytesPeticion = -1;
+        try {
+            if (request.body() != null) {
+                bytesPeticion = request.body().contentLength();
+            }
+        } catch (IOException ignored) {
+            // Cuerpo de longitud desconocida
+        }
+
+        buffer.add(new NetworkLogRecord(
+                System.currentTimeMillis(),
+                request.method(),
+                "/" + LatencyMetrics.normalizarRuta(request.url().encodedPath()),
+                status,
+                bytesPeticion,
+                bytesRespuesta,
+                (System.nanoTime() - inicio) / 1_000_000,
+                ocultarHeaders(request.headers()),
+                error,
+                cuerpo));
+    }
+
+    private static Map<String, String> ocultarHeaders(Headers headers) {
+        if (headers.size() == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> resultado = new LinkedHashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            String nombre = headers.name(i);
+            boolean oculto = HEADERS_OCULTOS.contains(nombre.toLowerCase(Locale.ROOT));
+            resultado.put(nombre, oculto ? "██" : headers.value(i));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.gamelend.remote.metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Mide las fases de cada llamada de OkHttp y las vuelca en LatencyMetrics.
+// La lectura del cuerpo termina cuando el conversor acaba de leerlo, así que incluye
+// el tiempo de decodificación del JSON: sirve para separar lentitud del backend
+// (PRIMER_BYTE) del coste en el cliente (LECTURA_CUERPO).
+// Las mismas medidas alimentan al estimador de calidad de red.
+public class LatencyEventListener extends EventListener {
+
+    public static class Factory implements EventListener.Factory {
+        private final LatencyMetrics metrics;
+        private final NetworkQualityEstimator calidadRed;
+
+        public Factory(LatencyMetrics metrics, NetworkQualityEstimator calidadRed) {
+            this.metrics = metrics;
+            this.calidadRed = calidadRed;
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            Request request = call.request();
+            return new LatencyEventListener(metrics, calidadRed,
+                    LatencyMetrics.normalizar(request.method(), request.url().encodedPath()));
+        }
+    }
+
+    private final LatencyMetrics metrics;
+    private final NetworkQualityEstimator calidadRed;
+    private final String endpoint;
+
+    private long inicioLlamada;
+    private long inicioDns;
+    private long inicioConexion;
+    private long inicioTls;
+    private long inicioEnvio;
+    private long finEnvio;
+    private long inicioCuerpo;
+
+    LatencyEventListener(LatencyMetrics metrics, NetworkQualityEstimator calidadRed, String endpoint) {
+        this.metrics = metrics;
+        this.calidadRed = calidadRed;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        inicioLlamada = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        inicioDns = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        metrics.registrar(endpoint, LatencyMetrics.Fase.DNS, System.nanoTime() - inicioDns);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        inicioConexion = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        inicioTls = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        metrics.registrar(endpoint, LatencyMetrics.Fase.TLS, System.nanoTime() - inicioTls);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        metrics.registrar(endpoint, LatencyMetrics.Fase.CONEXION, System.nanoTime() - inicioConexion);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        inicioEnvio = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        finEnvio = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        finEnvio = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        long ahora = System.nanoTime();
+        if (inicioEnvio != 0) {
+            metrics.registrar(endpoint, LatencyMetrics.Fase.ENVIO, finEnvio - inicioEnvio);
+            metrics.registrar(endpoint, LatencyMetrics.Fase.PRIMER_BYTE, ahora - finEnvio);
+            calidadRed.registrarLatencia(ahora - finEnvio);
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        inicioCuerpo = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        long lectura = System.nanoTime() - inicioCuerpo;
+        metrics.registrar(endpoint, LatencyMetrics.Fase.LECTURA_CUERPO, lectura);
+        calidadRed.registrarTransferencia(byteCount, lectura);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        metrics.registrar(endpoint, LatencyMetrics.Fase.TOTAL, System.nanoTime() - inicioLlamada);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        metrics.registrar(endpoint, LatencyMetrics.Fase.TOTAL, System.nanoTime() - inicioLlamada);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.gamelend.remote.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma de latencias con cubetas log-lineales: 1 ms de resolución hasta ~10 ms y
+// luego cubetas un 10% más anchas cada vez, hasta 2 minutos. Registrar es lock-free;
+// los percentiles devuelven el límite superior de la cubeta (error máximo ~10%).
+public class LatencyHistogram {
+
+    private static final long[] LIMITES = calcularLimites();
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(LIMITES.length + 1);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumaMicros = new AtomicLong();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    private static long[] calcularLimites() {
+        long[] tmp = new long[256];
+        int n = 0;
+        long limite = 1;
+        while (limite <= 120_000 && n < tmp.length) {
+            tmp[n++] = limite;
+            limite = Math.max(limite + 1, (long) Math.ceil(limite * 1.1));
+        }
+        long[] limites = new long[n];
+        System.arraycopy(tmp, 0, limites, 0, n);
+        return limites;
+    }
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long micros = nanos / 1_000;
+        long ms = (micros + 999) / 1_000;
+        cubetas.incrementAndGet(indice(ms));
+        total.incrementAndGet();
+        sumaMicros.addAndGet(micros);
+
+        long maximo;
+        do {
+            maximo = maximoMicros.get();
+        } while (micros > maximo && !maximoMicros.compareAndSet(maximo, micros));
+    }
+
+    private static int indice(long ms) {
+        int bajo = 0;
+        int alto = LIMITES.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (LIMITES[medio] < ms) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public double getMediaMs() {
+        long n = total.get();
+        return n == 0 ? 0 : sumaMicros.get() / 1_000.0 / n;
+    }
+
+    public double getMaximoMs() {
+        return maximoMicros.get() / 1_000.0;
+    }
+
+    // percentil entre 0 y 100
+    public long percentilMs(double percentil) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(n * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length(); i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return i < LIMITES.length ? LIMITES[i] : (long) getMaximoMs();
+            }
+        }
+        return (long) getMaximoMs();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.gamelend.remote.metrics;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Histogramas por endpoint y por fase de la llamada (DNS, conexión, TLS, envío,
+// tiempo hasta el primer byte, lectura del cuerpo y total)
+public class LatencyMetrics {
+
+    public enum Fase {
+        DNS, CONEXION, TLS, ENVIO, PRIMER_BYTE, LECTURA_CUERPO, TOTAL
+    }
+
+    private static final Pattern SEGMENTO_ID = Pattern.compile("\\d+");
+    // Solo las palabras fijas de una ruta; cualquier otra cosa (un email, un UUID, un
+    // token...) es un parámetro y no puede acabar en la clave ni en el JSON exportado
+    private static final Pattern SEGMENTO_FIJO = Pattern.compile("[A-Za-z_-]+");
+    // Rutas cuyo siguiente segmento es siempre un parámetro, aunque parezca una palabra
+    private static final Map<String, String> PARAMETRO_TRAS = new HashMap<>();
+
+    static {
+        PARAMETRO_TRAS.put("email", "{email}");
+    }
+
+    private final ConcurrentHashMap<String, LatencyHistogram[]> porEndpoint = new ConcurrentHashMap<>();
+
+    // "/api/games/42" -> "GET api/games/{id}", "/api/users/email/ana%40x.com" -> "GET api/users/email/{email}"
+    public static String normalizar(String metodo, String path) {
+        StringBuilder sb = new StringBuilder(metodo.length() + path.length() + 1).append(metodo).append(' ');
+        anadirRuta(sb, path);
+        return sb.toString();
+    }
+
+    // Solo la ruta, sin método: "/api/users/email/ana%40x.com" -> "api/users/email/{email}"
+    public static String normalizarRuta(String path) {
+        StringBuilder sb = new StringBuilder(path.length());
+        anadirRuta(sb, path);
+        return sb.toString();
+    }
+
+    private static void anadirRuta(StringBuilder sb, String path) {
+        String anterior = null;
+        int inicio = path.startsWith("/") ? 1 : 0;
+        while (inicio <= path.length()) {
+            int fin = path.indexOf('/', inicio);
+            if (fin < 0) {
+                fin = path.length();
+            }
+            String segmento = path.substring(inicio, fin);
+            if (anterior != null) {
+                sb.append('/');
+            }
+            String parametro = anterior != null ? PARAMETRO_TRAS.get(anterior) : null;
+            if (parametro != null) {
+                sb.append(parametro);
+            } else if (SEGMENTO_ID.matcher(segmento).matches()) {
+                sb.append("{id}");
+            } else if (segmento.isEmpty() || SEGMENTO_FIJO.matcher(segmento).matches()) {
+                sb.append(segmento);
+            } else {
+                sb.append("{param}");
+            }
+            anterior = segmento;
+            inicio = fin + 1;
+        }
+    }
+
+    public void registrar(String endpoint, Fase fase, long nanos) {
+        LatencyHistogram[] histogramas = porEndpoint.get(endpoint);
+        if (histogramas == null) {
+            LatencyHistogram[] nuevos = new LatencyHistogram[Fase.values().length];
+            for (int i = 0; i < nuevos.length; i++) {
+                nuevos[i] = new LatencyHistogram();
+            }
+            LatencyHistogram[] previos = porEndpoint.putIfAbsent(endpoint, nuevos);
+            histogramas = previos != null ? previos : nuevos;
+        }
+        histogramas[fase.ordinal()].registrar(nanos);
+    }
+
+    public LatencyHistogram get(String endpoint, Fase fase) {
+        LatencyHistogram[] histogramas = porEndpoint.get(endpoint);
+        return histogramas != null ? histogramas[fase.ordinal()] : null;
+    }
+
+    public void reiniciar() {
+        porEndpoint.clear();
+    }
+
+    // {"GET api/users": {"TOTAL": {"n": 12, "p50": 80, "p95": 210, "p99": 300, ...}, ...}, ...}
+    public String toJson() {
+        StringWriter salida = new StringWriter();
+        try (JsonWriter json = new JsonWriter(salida)) {
+            json.setIndent("  ");
+            json.beginObject();
+            for (Map.Entry<String, LatencyHistogram[]> entry : new TreeMap<>(porEndpoint).entrySet()) {
+                json.name(entry.getKey()).beginObject();
+                for (Fase fase : Fase.values()) {
+                    LatencyHistogram h = entry.getValue()[fase.ordinal()];
+                    if (h.getTotal() == 0) {
+                        continue;
+                    }
+                    json.name(fase.name()).beginObject();
+                    json.name("n").value(h.getTotal());
+                    json.name("p50").value(h.percentilMs(50));
+                    json.name("p95").value(h.percentilMs(95));
+                    json.name("p99").value(h.percentilMs(99));
+                    json.name("mediaMs").value(Math.round(h.getMediaMs() * 10) / 10.0);
+                    json.name("maxMs").value(Math.round(h.getMaximoMs() * 10) / 10.0);
+                    json.endObject();
+                }
+                json.endObject();
+            }
+            json.endObject();
+        } catch (IOException e) {
+            // StringWriter no lanza IOException
+        }
+        return salida.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.gamelend.remote.metrics;
+
+// Estima la calidad de la red con las transferencias reales del cliente compartido:
+// - ancho de banda: bytes del cuerpo / tiempo de lectura, solo con cuerpos grandes (en los
+//   pequeños manda la latencia). Incluye la decodificación del JSON, así que en móviles lentos
+//   tiende a quedarse corto, que es el lado seguro.
+// - latencia: tiempo hasta el primer byte de cada respuesta (red + servidor)
+// Ambas son medias móviles exponenciales en escala logarítmica (media geométrica), así un pico
+// aislado de varios segundos no arrastra la media durante muchas peticiones. Además la clase solo
+// cambia cuando varias muestras seguidas apuntan a la misma, para no ir saltando de tamaño de
+// página con cada petición.
+public class NetworkQualityEstimator {
+
+    public enum Calidad {
+        DESCONOCIDA, MALA, MODERADA, BUENA, EXCELENTE
+    }
+
+    // Umbrales de ancho de banda (kbps) y de latencia (ms) entre clases
+    private static final double KBPS_MODERADA = 150;
+    private static final double KBPS_BUENA = 550;
+    private static final double KBPS_EXCELENTE = 2000;
+    private static final double RTT_MALA_MS = 1000;
+    private static final double RTT_MODERADA_MS = 400;
+    private static final double RTT_BUENA_MS = 150;
+
+    static final long BYTES_MINIMOS = 16 * 1024;
+    private static final double PESO_MUESTRA = 0.25;
+    static final int MUESTRAS_PARA_CAMBIAR = 3;
+
+    // Logaritmos de las medias; NaN mientras no hay muestras
+    private double logKbps = Double.NaN;
+    private double logRttMs = Double.NaN;
+    private long muestrasTransferencia = 0;
+    private long muestrasLatencia = 0;
+    private long cambios = 0;
+
+    private volatile Calidad calidad = Calidad.DESCONOCIDA;
+    private Calidad candidata = Calidad.DESCONOCIDA;
+    private int votosCandidata = 0;
+
+    public void registrarTransferencia(long bytes, long nanos) {
+        if (bytes < BYTES_MINIMOS || nanos <= 0) {
+            return;
+        }
+        double muestra = Math.log(bytes * 8.0 / 1000 / (nanos / 1e9));
+        synchronized (this) {
+            logKbps = media(logKbps, muestra);
+            muestrasTransferencia++;
+            reclasificar();
+        }
+    }
+
+    public void registrarLatencia(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        double muestra = Math.log(nanos / 1e6);
+        synchronized (this) {
+            logRttMs = media(logRttMs, muestra);
+            muestrasLatencia++;
+            reclasificar();
+        }
+    }
+
+    public Calidad getCalidad() {
+        return calidad;
+    }
+
+    // -1 si aún no hay muestras
+    public synchronized double getKbps() {
+        return Double.isNaN(logKbps) ? -1 : Math.exp(logKbps);
+    }
+
+    public synchronized double getRttMs() {
+        return Double.isNaN(logRttMs) ? -1 : Math.exp(logRttMs);
+    }
+
+    private static double media(double anterior, double muestra) {
+        return Double.isNaN(anterior) ? muestra : anterior + PESO_MUESTRA * (muestra - anterior);
+    }
+
+    // Veces que ha cambiado la clase
+    public synchronized long getCambios() {
+        return cambios;
+    }
+
+    // Se llama con el cerrojo tomado
+    private void reclasificar() {
+        Calidad estimada = estimar();
+        if (estimada == calidad) {
+            votosCandidata = 0;
+            return;
+        }
+        if (estimada != candidata) {
+            candidata = estimada;
+            votosCandidata = 0;
+        }
+        votosCandidata++;
+        // La primera clasificación es inmediata; después hace falta confirmarla
+        if (calidad == Calidad.DESCONOCIDA || votosCandidata >= MUESTRAS_PARA_CAMBIAR) {
+            calidad = estimada;
+            votosCandidata = 0;
+            cambios++;
+        }
+    }
+
+    // La peor de las dos: un enlace rápido con mucha latencia sigue siendo lento para páginas pequeñas
+    private Calidad estimar() {
+        double kbps = getKbps();
+        double rttMs = getRttMs();
+        Calidad porLatencia = rttMs < 0 ? Calidad.DESCONOCIDA
+                : rttMs > RTT_MALA_MS ? Calidad.MALA
+                : rttMs > RTT_MODERADA_MS ? Calidad.MODERADA
+                : rttMs > RTT_BUENA_MS ? Calidad.BUENA
+                : Calidad.EXCELENTE;
+        if (kbps < 0) {
+            return porLatencia;
+        }
+        Calidad porAncho = kbps < KBPS_MODERADA ? Calidad.MALA
+                : kbps < KBPS_BUENA ? Calidad.MODERADA
+                : kbps < KBPS_EXCELENTE ? Calidad.BUENA
+                : Calidad.EXCELENTE;
+        if (porLatencia == Calidad.DESCONOCIDA) {
+            return porAncho;
+        }
+        return porAncho.ordinal() < porLatencia.ordinal() ? porAncho : porLatencia;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "NetworkQuality{calidad=" + calidad
+                + ", kbps=" + Math.round(getKbps())
+                + ", rttMs=" + Math.round(getRttMs())
+                + ", muestrasTransferencia=" + muestrasTransferencia
+                + ", muestrasLatencia=" + muestrasLatencia
+                + ", cambios=" + cambios + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.gamelend.remote.stream;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+// Decodifica un array JSON elemento a elemento según va llegando del socket, en lugar de
+// esperar al cuerpo completo. Los elementos se entregan en bloques: el primero es pequeño
+// (una pantalla) para pintar cuanto antes y los siguientes van creciendo.
+public class JsonArrayStreamer<T> {
+
+    public interface ChunkListener<T> {
+        void onChunk(List<T> chunk);
+    }
+
+    private static final int PRIMER_BLOQUE = 20;
+    private static final int BLOQUE_MAXIMO = 500;
+
+    private final Gson gson;
+    private final TypeAdapter<T> adapter;
+
+    public JsonArrayStreamer(Gson gson, Class<T> tipo) {
+        this.gson = gson;
+        this.adapter = gson.getAdapter(tipo);
+    }
+
+    // Devuelve el número total de elementos leídos
+    public int leer(ResponseBody body, ChunkListener<T> listener) throws IOException {
+        int total = 0;
+        int tamanoBloque = PRIMER_BLOQUE;
+
+        try (JsonReader reader = gson.newJsonReader(body.charStream())) {
+            reader.beginArray();
+            List<T> bloque = new ArrayList<>(tamanoBloque);
+            while (reader.hasNext()) {
+                bloque.add(adapter.read(reader));
+                total++;
+                if (bloque.size() == tamanoBloque) {
+                    listener.onChunk(bloque);
+                    tamanoBloque = Math.min(tamanoBloque * 2, BLOQUE_MAXIMO);
+                    bloque = new ArrayList<>(tamanoBloque);
+                }
+            }
+            reader.endArray();
+            if (!bloque.isEmpty()) {
+                listener.onChunk(bloque);
+            }
+        } finally {
+            body.close();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.gamelend.remote.stream;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+// Ejecuta una llamada @Streaming que devuelve un array JSON y entrega cada bloque según se
+// decodifica. No guarda nada: quien escucha añade los bloques a su propia lista, así que no hay
+// una segunda copia de la lista ni se vuelve a copiar lo ya entregado. Debe llamarse desde un
+// hilo de fondo.
+public class StreamingListLoader<T> {
+
+    public interface Listener<T> {
+        // Solo los elementos nuevos, no la lista acumulada
+        void onBloque(List<T> bloque);
+
+        void onCompleto(int total);
+
+        void onError(Throwable t);
+    }
+
+    private final JsonArrayStreamer<T> streamer;
+
+    public StreamingListLoader(Gson gson, Class<T> tipo) {
+        this.streamer = new JsonArrayStreamer<>(gson, tipo);
+    }
+
+    public void cargar(Call<ResponseBody> call, Listener<T> listener) {
+        try {
+            Response<ResponseBody> response = call.execute();
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                if (body != null) {
+                    body.close();
+                }
+                listener.onError(new IOException("HTTP " + response.code()));
+                return;
+            }
+
+            int total = streamer.leer(body, listener::onBloque);
+            listener.onCompleto(total);
+        } catch (IOException | RuntimeException e) {
+            listener.onError(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gamelend.remote.upload;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+// Cuerpo de petición que se lee del fichero por segmentos según se escribe en el socket:
+// nunca está entero en memoria, y se avisa del progreso (como mucho una vez por punto
+// porcentual). Si la petición se reintenta (p. ej. tras renovar el token) se vuelve a leer.
+public class ProgressRequestBody extends RequestBody {
+
+    public interface Listener {
+        void onProgreso(long enviados, long total);
+    }
+
+    private static final long SEGMENTO = 8 * 1024;
+
+    private final File file;
+    private final MediaType contentType;
+    private final Listener listener;
+
+    public ProgressRequestBody(File file, MediaType contentType, Listener listener) {
+        this.file = file;
+        this.contentType = contentType;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.length();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long total = contentLength();
+        long enviados = 0;
+        long ultimoPorcentaje = -1;
+
+        try (Source source = Okio.source(file)) {
+            long leidos;
+            while ((leidos = source.read(sink.getBuffer(), SEGMENTO)) != -1) {
+                sink.flush();
+                enviados += leidos;
+                long porcentaje = total > 0 ? enviados * 100 / total : 100;
+                if (porcentaje != ultimoPorcentaje) {
+                    ultimoPorcentaje = porcentaje;
+                    listener.onProgreso(enviados, total);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.remote.metrics.NetworkQualityEstimator;
+import com.example.gamelend.remote.metrics.NetworkQualityEstimator.Calidad;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cuánto pedir según la calidad de la red: en enlaces malos páginas más pequeñas (la primera
+// llega antes) y portadas a menos resolución; en los buenos más margen de precarga para que
+// el scroll no llegue nunca al final de lo cargado. Cuenta las decisiones tomadas en cada clase:
+// cada elección del tamaño de página y, para lo que se consulta a menudo (el margen en cada
+// frame de scroll, las portadas en cada bind), solo cuando cambia la clase con la que se responde.
+public class AdaptiveLoadPolicy {
+
+    // Por clase, en el orden de Calidad: DESCONOCIDA, MALA, MODERADA, BUENA, EXCELENTE
+    private static final int[] TAMANO_PAGINA = {30, 15, 30, 50, 50};
+    private static final int[] PANTALLAS_MARGEN = {2, 1, 2, 2, 3};
+    private static final int[] PANTALLAS_MARGEN_FLING = {4, 2, 3, 4, 6};
+    private static final int[] FILAS_PRECARGA_IMAGENES = {10, 3, 6, 10, 15};
+    private static final float[] ESCALA_IMAGENES = {1f, 0.5f, 0.75f, 1f, 1f};
+
+    // Quién pregunta, para saber con qué clase se le respondió la última vez
+    private static final int PAGINA = 0;
+    private static final int MARGEN = 1;
+    private static final int FILAS_PRECARGA = 2;
+    private static final int ESCALA = 3;
+
+    private final NetworkQualityEstimator estimador;
+    // Decisiones tomadas con cada clase
+    private final AtomicLongArray decisiones = new AtomicLongArray(Calidad.values().length);
+    // Última clase con la que se respondió a cada consulta; -1 si aún no se ha preguntado
+    private final AtomicIntegerArray ultimaClase = new AtomicIntegerArray(new int[]{-1, -1, -1, -1});
+
+    public AdaptiveLoadPolicy(NetworkQualityEstimator estimador) {
+        this.estimador = estimador;
+    }
+
+    public Calidad getCalidad() {
+        return estimador.getCalidad();
+    }
+
+    // Se decide al empezar a recorrer el directorio y se mantiene mientras dure
+    public int tamanoPagina() {
+        return TAMANO_PAGINA[decidir(PAGINA, true)];
+    }
+
+    // Pantallas de margen antes del borde para pedir la página siguiente
+    public int pantallasMargen(boolean fling) {
+        return (fling ? PANTALLAS_MARGEN_FLING : PANTALLAS_MARGEN)[decidir(MARGEN, false)];
+    }
+
+    public int filasPrecargaImagenes() {
+        return FILAS_PRECARGA_IMAGENES[decidir(FILAS_PRECARGA, false)];
+    }
+
+    // Fracción del tamaño de la vista con la que se piden las portadas al servidor
+    public float escalaImagenes() {
+        return ESCALA_IMAGENES[decidir(ESCALA, false)];
+    }
+
+    public long getDecisiones(Calidad calidad) {
+        return decisiones.get(calidad.ordinal());
+    }
+
+    // Con siempre = false una consulta repetida con la misma clase no es una decisión nueva
+    private int decidir(int consulta, boolean siempre) {
+        int clase = estimador.getCalidad().ordinal();
+        int anterior = ultimaClase.getAndSet(consulta, clase);
+        if (siempre || anterior != clase) {
+            decisiones.incrementAndGet(clase);
+        }
+        return clase;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AdaptiveLoadPolicy{").append(estimador).append(", decisiones={");
+        for (Calidad calidad : Calidad.values()) {
+            if (calidad.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(calidad).append('=').append(decisiones.get(calidad.ordinal()));
+        }
+        return sb.append("}}").toString();
+    }
+}
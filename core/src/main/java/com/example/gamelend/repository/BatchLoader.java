@@ -0,0 +1,132 @@
+package com.example.gamelend.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Agrupa las búsquedas por id que llegan en una ventana corta (unos milisegundos) y las
+// resuelve con una sola petición por lotes, al estilo DataLoader. Un id repetido dentro de la
+// ventana va una sola vez en el lote. Si guarda lo resuelto, tampoco se vuelve a pedir mientras
+// viva el cargador; sin guardarlo, la caché la lleva quien lo usa (p. ej. Prefetcher, con TTL).
+public class BatchLoader<K, V> {
+
+    public interface BatchFunction<K, V> {
+        // Debe devolver un mapa id -> valor; los ids que falten se consideran no encontrados
+        void cargar(Set<K> claves, RequestCoalescer.Resultado<Map<K, V>> resultado);
+    }
+
+    private final BatchFunction<K, V> batchFunction;
+    private final ScheduledExecutorService scheduler;
+    private final long ventanaMs;
+    private final int maxPorLote;
+    private final boolean guardarResueltos;
+
+    private final Map<K, V> cache = new HashMap<>();
+    private Map<K, List<RequestCoalescer.Resultado<V>>> pendientes = new LinkedHashMap<>();
+    private boolean envioProgramado = false;
+
+    public BatchLoader(BatchFunction<K, V> batchFunction, ScheduledExecutorService scheduler,
+                       long ventanaMs, int maxPorLote) {
+        this(batchFunction, scheduler, ventanaMs, maxPorLote, true);
+    }
+
+    public BatchLoader(BatchFunction<K, V> batchFunction, ScheduledExecutorService scheduler,
+                       long ventanaMs, int maxPorLote, boolean guardarResueltos) {
+        this.batchFunction = batchFunction;
+        this.scheduler = scheduler;
+        this.ventanaMs = ventanaMs;
+        this.maxPorLote = maxPorLote;
+        this.guardarResueltos = guardarResueltos;
+    }
+
+    public void cargar(K clave, RequestCoalescer.Resultado<V> resultado) {
+        V enCache;
+        synchronized (this) {
+            enCache = cache.get(clave);
+            if (enCache == null) {
+                List<RequestCoalescer.Resultado<V>> suscriptores = pendientes.get(clave);
+                if (suscriptores == null) {
+                    suscriptores = new ArrayList<>();
+                    pendientes.put(clave, suscriptores);
+                }
+                suscriptores.add(resultado);
+
+                if (pendientes.size() >= maxPorLote) {
+                    despacharAhora();
+                } else if (!envioProgramado) {
+                    envioProgramado = true;
+                    scheduler.schedule(this::despachar, ventanaMs, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        resultado.onExito(enCache);
+    }
+
+    public synchronized void limpiarCache() {
+        cache.clear();
+    }
+
+    private void despachar() {
+        synchronized (this) {
+            envioProgramado = false;
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            despacharAhora();
+        }
+    }
+
+    // Se llama con el cerrojo tomado; la petición en sí se lanza fuera de él
+    private void despacharAhora() {
+        final Map<K, List<RequestCoalescer.Resultado<V>>> lote = pendientes;
+        pendientes = new LinkedHashMap<>();
+
+        scheduler.execute(() -> lanzar(lote));
+    }
+
+    private void lanzar(final Map<K, List<RequestCoalescer.Resultado<V>>> lote) {
+        RequestCoalescer.Resultado<Map<K, V>> alResolver = new RequestCoalescer.Resultado<Map<K, V>>() {
+            @Override
+            public void onExito(Map<K, V> valores) {
+                if (guardarResueltos) {
+                    synchronized (BatchLoader.this) {
+                        cache.putAll(valores);
+                    }
+                }
+                for (Map.Entry<K, List<RequestCoalescer.Resultado<V>>> entry : lote.entrySet()) {
+                    V valor = valores.get(entry.getKey());
+                    for (RequestCoalescer.Resultado<V> suscriptor : entry.getValue()) {
+                        if (valor != null) {
+                            suscriptor.onExito(valor);
+                        } else {
+                            suscriptor.onError(new NoSuchElementException("No encontrado: " + entry.getKey()));
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                for (List<RequestCoalescer.Resultado<V>> suscriptores : lote.values()) {
+                    for (RequestCoalescer.Resultado<V> suscriptor : suscriptores) {
+                        suscriptor.onError(t);
+                    }
+                }
+            }
+        };
+        try {
+            batchFunction.cargar(new LinkedHashSet<>(lote.keySet()), alResolver);
+        } catch (RuntimeException e) {
+            // Sin esto los suscriptores del lote esperarían para siempre
+            alResolver.onError(e);
+        }
+    }
+}
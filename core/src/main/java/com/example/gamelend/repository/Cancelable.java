@@ -0,0 +1,6 @@
+package com.example.gamelend.repository;
+
+// Asa de una petición en curso. Cancelar una petición ya terminada no hace nada.
+public interface Cancelable {
+    void cancelar();
+}
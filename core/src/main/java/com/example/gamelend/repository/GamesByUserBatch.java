@@ -0,0 +1,119 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.remote.api.ApiService;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import retrofit2.HttpException;
+
+// Juegos de varios usuarios en una sola petición (los del directorio que están en pantalla).
+// Si el servidor aún no tiene api/games/users (404, 405 o 501) se recuerda y, desde entonces,
+// cada usuario se pide por separado a api/games/user/{userId} como antes.
+public class GamesByUserBatch implements BatchLoader.BatchFunction<Long, List<GameSummaryDTO>> {
+
+    private final ApiService apiService;
+    private volatile boolean loteDisponible = true;
+
+    public GamesByUserBatch(ApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    public boolean isLoteDisponible() {
+        return loteDisponible;
+    }
+
+    @Override
+    public void cargar(Set<Long> userIds, RequestCoalescer.Resultado<Map<Long, List<GameSummaryDTO>>> resultado) {
+        // Un solo usuario no gana nada con el lote
+        if (!loteDisponible || userIds.size() == 1) {
+            porSeparado(userIds, resultado);
+            return;
+        }
+        RequestCoalescer.enqueue(apiService.getGamesByUsers(unirIds(userIds)),
+                new RequestCoalescer.Resultado<Map<Long, List<GameSummaryDTO>>>() {
+                    @Override
+                    public void onExito(Map<Long, List<GameSummaryDTO>> porUsuario) {
+                        // Un usuario sin juegos puede no venir en la respuesta
+                        Map<Long, List<GameSummaryDTO>> completo = new HashMap<>(porUsuario);
+                        for (Long userId : userIds) {
+                            if (completo.get(userId) == null) {
+                                completo.put(userId, Collections.<GameSummaryDTO>emptyList());
+                            }
+                        }
+                        resultado.onExito(completo);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        if (sinLote(t)) {
+                            loteDisponible = false;
+                            porSeparado(userIds, resultado);
+                        } else {
+                            resultado.onError(t);
+                        }
+                    }
+                });
+    }
+
+    private static boolean sinLote(Throwable t) {
+        if (!(t instanceof HttpException)) {
+            return false;
+        }
+        int codigo = ((HttpException) t).code();
+        return codigo == 404 || codigo == 405 || codigo == 501;
+    }
+
+    // Se contesta cuando han vuelto todas; un usuario que falla no se incluye (BatchLoader
+    // se lo comunica como error a quien lo pidió) salvo que fallen todos
+    private void porSeparado(Set<Long> userIds, RequestCoalescer.Resultado<Map<Long, List<GameSummaryDTO>>> resultado) {
+        Map<Long, List<GameSummaryDTO>> porUsuario = new ConcurrentHashMap<>();
+        AtomicInteger faltan = new AtomicInteger(userIds.size());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        for (Long userId : userIds) {
+            RequestCoalescer.enqueue(apiService.getGamesByUser(userId),
+                    new RequestCoalescer.Resultado<List<GameSummaryDTO>>() {
+                        @Override
+                        public void onExito(List<GameSummaryDTO> juegos) {
+                            porUsuario.put(userId, juegos);
+                            terminarUno();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            error.compareAndSet(null, t);
+                            terminarUno();
+                        }
+
+                        private void terminarUno() {
+                            if (faltan.decrementAndGet() > 0) {
+                                return;
+                            }
+                            if (porUsuario.isEmpty() && error.get() != null) {
+                                resultado.onError(error.get());
+                            } else {
+                                resultado.onExito(porUsuario);
+                            }
+                        }
+                    });
+        }
+    }
+
+    static String unirIds(Iterable<Long> ids) {
+        StringBuilder sb = new StringBuilder();
+        for (Long id : ids) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(id);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.gamelend.repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Peticiones en curso de una pantalla (normalmente de su ViewModel). Cada petición lanzada
+// aquí se apunta hasta que termina; cerrar() las cancela todas y suelta sus callbacks, así
+// una llamada que sigue en vuelo no retiene la pantalla que ya se fue.
+public class Peticiones {
+
+    private class Peticion<T> implements RequestCoalescer.Resultado<T>, Cancelable {
+        private RequestCoalescer.Resultado<T> resultado;
+        private Cancelable cancelable;
+        private boolean terminada;
+        private boolean cancelada;
+
+        Peticion(RequestCoalescer.Resultado<T> resultado) {
+            this.resultado = resultado;
+        }
+
+        @Override
+        public void onExito(T valor) {
+            RequestCoalescer.Resultado<T> r = terminar();
+            if (r != null) {
+                r.onExito(valor);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            RequestCoalescer.Resultado<T> r = terminar();
+            if (r != null) {
+                r.onError(t);
+            }
+        }
+
+        @Override
+        public void cancelar() {
+            Cancelable aCancelar;
+            synchronized (Peticiones.this) {
+                if (terminada) {
+                    return;
+                }
+                cancelada = true;
+                aCancelar = cancelable;
+                olvidar();
+            }
+            if (aCancelar != null) {
+                aCancelar.cancelar();
+            }
+        }
+
+        // Devuelve null si ya estaba terminada o cancelada
+        private RequestCoalescer.Resultado<T> terminar() {
+            synchronized (Peticiones.this) {
+                if (terminada) {
+                    return null;
+                }
+                RequestCoalescer.Resultado<T> r = resultado;
+                olvidar();
+                return r;
+            }
+        }
+
+        // Se llama con el cerrojo tomado
+        private void olvidar() {
+            terminada = true;
+            resultado = null;
+            cancelable = null;
+            enCurso.remove(this);
+        }
+    }
+
+    private final Set<Peticion<?>> enCurso = new HashSet<>();
+    private boolean cerrada = false;
+
+    // Lanza la petición y la apunta; el resultado solo llega si no se ha cancelado antes
+    public <T> Cancelable lanzar(RequestCoalescer.Ejecucion<T> ejecucion, RequestCoalescer.Resultado<T> resultado) {
+        Peticion<T> peticion = new Peticion<>(resultado);
+        synchronized (this) {
+            if (cerrada) {
+                peticion.olvidar();
+                return peticion;
+            }
+            enCurso.add(peticion);
+        }
+
+        Cancelable cancelable = ejecucion.ejecutar(peticion);
+
+        boolean canceladaAlLanzar;
+        synchronized (this) {
+            canceladaAlLanzar = peticion.cancelada;
+            if (!peticion.terminada) {
+                peticion.cancelable = cancelable;
+            }
+        }
+        if (canceladaAlLanzar && cancelable != null) {
+            cancelable.cancelar();
+        }
+        return peticion;
+    }
+
+    // Cancela lo que haya en curso; se pueden seguir lanzando peticiones
+    public void cancelarTodo() {
+        List<Peticion<?>> pendientes;
+        synchronized (this) {
+            pendientes = new ArrayList<>(enCurso);
+        }
+        for (Peticion<?> peticion : pendientes) {
+            peticion.cancelar();
+        }
+    }
+
+    // Para onCleared: cancela lo que haya en curso y no admite más peticiones
+    public void cerrar() {
+        synchronized (this) {
+            cerrada = true;
+        }
+        cancelarTodo();
+    }
+
+    public synchronized int getEnCurso() {
+        return enCurso.size();
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.gamelend.repository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Precarga especulativa por clave (p. ej. los juegos de cada usuario visible en el directorio).
+// Una clave que sigue visible pasado un tiempo de permanencia se pide en segundo plano, con un
+// máximo de cargas simultáneas; si deja de verse antes, se descarta o se cancela la petición.
+// Cuando el usuario la pide de verdad (obtener) se sirve de la caché o de la carga en vuelo.
+public class Prefetcher<K, V> {
+
+    public interface Fetcher<K, V> {
+        Cancelable cargar(K clave, RequestCoalescer.Resultado<V> resultado);
+    }
+
+    private static class Entrada<V> {
+        final V valor;
+        final long guardadaMs;
+        final boolean especulativa;
+        boolean usada;
+
+        Entrada(V valor, long guardadaMs, boolean especulativa) {
+            this.valor = valor;
+            this.guardadaMs = guardadaMs;
+            this.especulativa = especulativa;
+        }
+    }
+
+    private class Carga {
+        final K clave;
+        final boolean especulativa;
+        final List<RequestCoalescer.Resultado<V>> suscriptores = new ArrayList<>();
+        Cancelable cancelable;
+        boolean cancelada;
+        boolean terminada;
+
+        Carga(K clave, boolean especulativa) {
+            this.clave = clave;
+            this.especulativa = especulativa;
+        }
+    }
+
+    private final Fetcher<K, V> fetcher;
+    private final ScheduledExecutorService scheduler;
+    private final long permanenciaMs;
+    private final int maxConcurrentes;
+    private final long ttlMs;
+
+    private final LinkedHashMap<K, Entrada<V>> cache;
+    private final Map<K, ScheduledFuture<?>> esperando = new HashMap<>();
+    // Claves listas para precargar; la última en asentarse en pantalla va primero
+    private final ArrayDeque<K> cola = new ArrayDeque<>();
+    private final Map<K, Carga> enVuelo = new HashMap<>();
+    private int especulativasEnVuelo = 0;
+
+    private final AtomicLong especulativas = new AtomicLong();
+    private final AtomicLong canceladas = new AtomicLong();
+    private final AtomicLong desperdiciadas = new AtomicLong();
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong aciertosEnVuelo = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    public Prefetcher(Fetcher<K, V> fetcher, ScheduledExecutorService scheduler, long permanenciaMs,
+                      int maxConcurrentes, final int maxEntradas, long ttlMs) {
+        this.fetcher = fetcher;
+        this.scheduler = scheduler;
+        this.permanenciaMs = permanenciaMs;
+        this.maxConcurrentes = maxConcurrentes;
+        this.ttlMs = ttlMs;
+        this.cache = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > maxEntradas) {
+                    contarSiDesperdiciada(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // La clave ha entrado en pantalla: se precarga si sigue visible pasado el tiempo de permanencia
+    public void visible(final K clave) {
+        synchronized (this) {
+            if (leerCache(clave) != null || enVuelo.containsKey(clave)
+                    || esperando.containsKey(clave) || cola.contains(clave)) {
+                return;
+            }
+            esperando.put(clave, scheduler.schedule(() -> {
+                synchronized (Prefetcher.this) {
+                    if (esperando.remove(clave) == null) {
+                        return;
+                    }
+                    cola.addFirst(clave);
+                }
+                bombear();
+            }, permanenciaMs, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    // La clave ha salido de pantalla: se olvida y, si ya se estaba pidiendo solo por especular, se cancela
+    public void oculto(K clave) {
+        Cancelable aCancelar = null;
+        boolean cancelada = false;
+        synchronized (this) {
+            ScheduledFuture<?> espera = esperando.remove(clave);
+            if (espera != null) {
+                espera.cancel(false);
+            }
+            cola.remove(clave);
+
+            Carga carga = enVuelo.get(clave);
+            if (carga != null && carga.especulativa && carga.suscriptores.isEmpty()) {
+                aCancelar = cancelarCarga(carga);
+                cancelada = true;
+            }
+        }
+        if (aCancelar != null) {
+            aCancelar.cancelar();
+        }
+        // El hueco queda libre aunque la llamada no se pueda cortar (o aún se esté lanzando)
+        if (cancelada) {
+            bombear();
+        }
+    }
+
+    // Carga bajo demanda: caché, carga en vuelo o, si no hay nada, petición nueva sin esperar turno
+    public void obtener(K clave, RequestCoalescer.Resultado<V> resultado) {
+        Entrada<V> entrada;
+        Carga nueva = null;
+        synchronized (this) {
+            entrada = leerCache(clave);
+            if (entrada == null) {
+                ScheduledFuture<?> espera = esperando.remove(clave);
+                if (espera != null) {
+                    espera.cancel(false);
+                }
+                cola.remove(clave);
+
+                Carga carga = enVuelo.get(clave);
+                if (carga != null) {
+                    carga.suscriptores.add(resultado);
+                    aciertosEnVuelo.incrementAndGet();
+                    return;
+                }
+                fallos.incrementAndGet();
+                nueva = new Carga(clave, false);
+                nueva.suscriptores.add(resultado);
+                enVuelo.put(clave, nueva);
+            } else {
+                entrada.usada = true;
+                aciertos.incrementAndGet();
+            }
+        }
+        if (nueva != null) {
+            lanzar(nueva);
+        } else {
+            resultado.onExito(entrada.valor);
+        }
+    }
+
+    // El dato ha cambiado en el servidor: la próxima vez se vuelve a pedir
+    public synchronized void invalidar(K clave) {
+        cache.remove(clave);
+    }
+
+    // Al salir de la pantalla: se descartan esperas y se cancelan las precargas sin nadie esperando
+    public void cancelarTodo() {
+        List<Cancelable> aCancelar = new ArrayList<>();
+        synchronized (this) {
+            for (ScheduledFuture<?> espera : esperando.values()) {
+                espera.cancel(false);
+            }
+            esperando.clear();
+            cola.clear();
+            for (Carga carga : new ArrayList<>(enVuelo.values())) {
+                if (carga.especulativa && carga.suscriptores.isEmpty()) {
+                    Cancelable cancelable = cancelarCarga(carga);
+                    if (cancelable != null) {
+                        aCancelar.add(cancelable);
+                    }
+                }
+            }
+        }
+        for (Cancelable cancelable : aCancelar) {
+            cancelable.cancelar();
+        }
+    }
+
+    // Se llama con el cerrojo tomado; devuelve lo que hay que cancelar fuera de él
+    private Cancelable cancelarCarga(Carga carga) {
+        carga.cancelada = true;
+        enVuelo.remove(carga.clave);
+        especulativasEnVuelo--;
+        canceladas.incrementAndGet();
+        return carga.cancelable;
+    }
+
+    private void bombear() {
+        List<Carga> aLanzar = new ArrayList<>();
+        synchronized (this) {
+            while (especulativasEnVuelo < maxConcurrentes && !cola.isEmpty()) {
+                K clave = cola.pollFirst();
+                if (leerCache(clave) != null || enVuelo.containsKey(clave)) {
+                    continue;
+                }
+                Carga carga = new Carga(clave, true);
+                enVuelo.put(clave, carga);
+                especulativasEnVuelo++;
+                especulativas.incrementAndGet();
+                aLanzar.add(carga);
+            }
+        }
+        for (Carga carga : aLanzar) {
+            lanzar(carga);
+        }
+    }
+
+    private void lanzar(final Carga carga) {
+        Cancelable cancelable;
+        try {
+            cancelable = fetcher.cargar(carga.clave, new RequestCoalescer.Resultado<V>() {
+                @Override
+                public void onExito(V valor) {
+                    List<RequestCoalescer.Resultado<V>> suscriptores = terminar(carga, valor);
+                    if (suscriptores != null) {
+                        for (RequestCoalescer.Resultado<V> suscriptor : suscriptores) {
+                            suscriptor.onExito(valor);
+                        }
+                        bombear();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fallar(carga, t);
+                }
+            });
+        } catch (RuntimeException e) {
+            // No se pudo ni lanzar: si se quedara en enVuelo ocuparía su hueco para siempre y
+            // quien espera la clave no recibiría nada. Si ya había terminado (o se canceló), el
+            // error vino de un suscriptor avisado dentro del lanzamiento
+            if (!fallar(carga, e)) {
+                throw e;
+            }
+            return;
+        }
+
+        boolean yaCancelada;
+        synchronized (this) {
+            carga.cancelable = cancelable;
+            yaCancelada = carga.cancelada;
+        }
+        // Cancelada mientras se lanzaba
+        if (yaCancelada && cancelable != null) {
+            cancelable.cancelar();
+        }
+    }
+
+    // Devuelve false si la carga ya había terminado o se canceló
+    private boolean fallar(Carga carga, Throwable t) {
+        List<RequestCoalescer.Resultado<V>> suscriptores = terminar(carga, null);
+        if (suscriptores == null) {
+            return false;
+        }
+        for (RequestCoalescer.Resultado<V> suscriptor : suscriptores) {
+            suscriptor.onError(t);
+        }
+        bombear();
+        return true;
+    }
+
+    // Devuelve null si la carga se canceló o ya había terminado (su resultado se ignora)
+    private synchronized List<RequestCoalescer.Resultado<V>> terminar(Carga carga, V valor) {
+        if (carga.cancelada || carga.terminada) {
+            return null;
+        }
+        carga.terminada = true;
+        if (enVuelo.get(carga.clave) == carga) {
+            enVuelo.remove(carga.clave);
+        }
+        if (carga.especulativa) {
+            especulativasEnVuelo--;
+        }
+        if (valor != null) {
+            Entrada<V> entrada = new Entrada<>(valor, System.currentTimeMillis(), carga.especulativa);
+            entrada.usada = !carga.suscriptores.isEmpty();
+            cache.put(carga.clave, entrada);
+        }
+        return carga.suscriptores.isEmpty()
+                ? Collections.<RequestCoalescer.Resultado<V>>emptyList()
+                : new ArrayList<>(carga.suscriptores);
+    }
+
+    // Se llama con el cerrojo tomado; las entradas caducadas se tiran al leerlas
+    private Entrada<V> leerCache(K clave) {
+        Entrada<V> entrada = cache.get(clave);
+        if (entrada != null && System.currentTimeMillis() - entrada.guardadaMs > ttlMs) {
+            cache.remove(clave);
+            contarSiDesperdiciada(entrada);
+            return null;
+        }
+        return entrada;
+    }
+
+    private void contarSiDesperdiciada(Entrada<V> entrada) {
+        if (entrada.especulativa && !entrada.usada) {
+            desperdiciadas.incrementAndGet();
+        }
+    }
+
+    public long getEspeculativas() {
+        return especulativas.get();
+    }
+
+    public long getCanceladas() {
+        return canceladas.get();
+    }
+
+    public long getDesperdiciadas() {
+        return desperdiciadas.get();
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getAciertosEnVuelo() {
+        return aciertosEnVuelo.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    // Peticiones bajo demanda que no tuvieron que esperar a una carga nueva
+    public double getTasaAcierto() {
+        long servidas = aciertos.get() + aciertosEnVuelo.get();
+        long total = servidas + fallos.get();
+        return total == 0 ? 0 : (double) servidas / total;
+    }
+
+    @Override
+    public String toString() {
+        return "Prefetcher{especulativas=" + getEspeculativas()
+                + ", canceladas=" + getCanceladas()
+                + ", desperdiciadas=" + getDesperdiciadas()
+                + ", aciertos=" + getAciertos()
+                + ", aciertosEnVuelo=" + getAciertosEnVuelo()
+                + ", fallos=" + getFallos()
+                + ", tasaAcierto=" + Math.round(getTasaAcierto() * 100) + "%}";
+    }
+}
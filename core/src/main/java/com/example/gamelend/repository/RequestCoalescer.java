@@ -0,0 +1,201 @@
+package com.example.gamelend.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+// Agrupa peticiones idénticas que están en vuelo a la vez: la primera con una clave lanza
+// la llamada real y las que llegan mientras tanto se suscriben a su resultado. Es común a
+// todos los repositorios, así que dos pantallas pidiendo lo mismo comparten una llamada.
+// Cada suscriptor recibe un Cancelable: al cancelarlo se le quita de la lista (ya no se le
+// retiene ni se le avisa) y, si era el último, se cancela también la llamada real.
+public class RequestCoalescer {
+
+    public interface Resultado<T> {
+        void onExito(T valor);
+
+        void onError(Throwable t);
+    }
+
+    // Devuelve cómo cancelar la llamada real, o null si no se puede
+    public interface Ejecucion<T> {
+        Cancelable ejecutar(Resultado<T> resultado);
+    }
+
+    private static class Vuelo {
+        final String clave;
+        final List<Resultado<Object>> suscriptores = new ArrayList<>();
+        Cancelable cancelable;
+        boolean cancelado;
+
+        Vuelo(String clave) {
+            this.clave = clave;
+        }
+    }
+
+    private static final RequestCoalescer INSTANCE = new RequestCoalescer();
+
+    private final Map<String, Vuelo> enVuelo = new HashMap<>();
+    private final AtomicLong peticiones = new AtomicLong();
+    private final AtomicLong llamadasAhorradas = new AtomicLong();
+    private final AtomicLong llamadasCanceladas = new AtomicLong();
+
+    public static RequestCoalescer getInstance() {
+        return INSTANCE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Cancelable ejecutar(final String clave, Ejecucion<T> ejecucion, Resultado<T> resultado) {
+        peticiones.incrementAndGet();
+        final Resultado<Object> suscriptor = (Resultado<Object>) resultado;
+        final Vuelo vuelo;
+
+        synchronized (enVuelo) {
+            Vuelo existente = enVuelo.get(clave);
+            if (existente != null) {
+                existente.suscriptores.add(suscriptor);
+                llamadasAhorradas.incrementAndGet();
+                return () -> abandonar(existente, suscriptor);
+            }
+            vuelo = new Vuelo(clave);
+            vuelo.suscriptores.add(suscriptor);
+            enVuelo.put(clave, vuelo);
+        }
+
+        Cancelable cancelable;
+        try {
+            cancelable = ejecucion.ejecutar(new Resultado<T>() {
+                @Override
+                public void onExito(T valor) {
+                    avisar(terminar(vuelo), valor, null);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    avisar(terminar(vuelo), null, t);
+                }
+            });
+        } catch (RuntimeException e) {
+            // No se pudo ni lanzar (p. ej. el ApiService no llegó a construirse): si la clave
+            // se quedara en enVuelo, todas las peticiones siguientes esperarían para siempre.
+            // Si ya no queda nadie, el error vino de un suscriptor avisado dentro del lanzamiento
+            List<Resultado<Object>> suscriptores = terminar(vuelo);
+            if (suscriptores.isEmpty()) {
+                throw e;
+            }
+            avisar(suscriptores, null, e);
+            return () -> abandonar(vuelo, suscriptor);
+        }
+
+        boolean yaCancelado;
+        synchronized (enVuelo) {
+            vuelo.cancelable = cancelable;
+            yaCancelado = vuelo.cancelado;
+        }
+        // Abandonada mientras se lanzaba
+        if (yaCancelado && cancelable != null) {
+            cancelable.cancelar();
+        }
+        return () -> abandonar(vuelo, suscriptor);
+    }
+
+    // Adapta una llamada de Retrofit: las respuestas no 2xx llegan como HttpException
+    public static <T> Cancelable enqueue(Call<T> call, final Resultado<T> resultado) {
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    resultado.onExito(response.body());
+                } else {
+                    resultado.onError(new HttpException(response));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                resultado.onError(t);
+            }
+        });
+        return call::cancel;
+    }
+
+    private void abandonar(Vuelo vuelo, Resultado<Object> suscriptor) {
+        Cancelable aCancelar = null;
+        synchronized (enVuelo) {
+            if (!vuelo.suscriptores.remove(suscriptor) || !vuelo.suscriptores.isEmpty()) {
+                return;
+            }
+            // Nadie espera ya el resultado: se libera la clave y se corta la llamada
+            vuelo.cancelado = true;
+            if (enVuelo.get(vuelo.clave) == vuelo) {
+                enVuelo.remove(vuelo.clave);
+            }
+            aCancelar = vuelo.cancelable;
+        }
+        llamadasCanceladas.incrementAndGet();
+        if (aCancelar != null) {
+            aCancelar.cancelar();
+        }
+    }
+
+    // Un suscriptor que lanza una excepción no deja sin aviso a los demás; la primera se
+    // relanza al final para que el fallo siga viéndose
+    private static void avisar(List<Resultado<Object>> suscriptores, Object valor, Throwable error) {
+        RuntimeException primera = null;
+        for (Resultado<Object> s : suscriptores) {
+            try {
+                if (error == null) {
+                    s.onExito(valor);
+                } else {
+                    s.onError(error);
+                }
+            } catch (RuntimeException e) {
+                if (primera == null) {
+                    primera = e;
+                }
+            }
+        }
+        if (primera != null) {
+            throw primera;
+        }
+    }
+
+    // Si el vuelo se canceló no queda nadie a quien avisar
+    private List<Resultado<Object>> terminar(Vuelo vuelo) {
+        synchronized (enVuelo) {
+            if (enVuelo.get(vuelo.clave) == vuelo) {
+                enVuelo.remove(vuelo.clave);
+            }
+            List<Resultado<Object>> suscriptores = new ArrayList<>(vuelo.suscriptores);
+            vuelo.suscriptores.clear();
+            return suscriptores;
+        }
+    }
+
+    public long getPeticiones() {
+        return peticiones.get();
+    }
+
+    // Peticiones que se resolvieron sin lanzar una llamada propia
+    public long getLlamadasAhorradas() {
+        return llamadasAhorradas.get();
+    }
+
+    // Llamadas reales cortadas porque todos sus suscriptores se fueron
+    public long getLlamadasCanceladas() {
+        return llamadasCanceladas.get();
+    }
+
+    public int getEnVuelo() {
+        synchronized (enVuelo) {
+            return enVuelo.size();
+        }
+    }
+}
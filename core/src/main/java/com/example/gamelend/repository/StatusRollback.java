@@ -0,0 +1,141 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.outbox.OutboxEntry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+// Deshace en local los cambios de la cola de salida que el servidor no acepta y avisa a las
+// pantallas abiertas para que repinten la fila. Cada aviso se entrega una sola vez, a quien
+// escucha en ese momento: una pantalla que se abre después no recibe avisos viejos.
+public class StatusRollback {
+
+    public interface Listener {
+        void onRevertido(EstadoRevertido revertido);
+    }
+
+    public static class EstadoRevertido {
+        private final Long gameId;
+        private final String estado;
+        private final boolean conflicto;
+
+        EstadoRevertido(Long gameId, String estado, boolean conflicto) {
+            this.gameId = gameId;
+            this.estado = estado;
+            this.conflicto = conflicto;
+        }
+
+        public Long getGameId() {
+            return gameId;
+        }
+
+        // Estado que vuelve a tener el juego
+        public String getEstado() {
+            return estado;
+        }
+
+        // true si otro lo cambió antes en el servidor; false si el servidor rechazó el cambio
+        public boolean isConflicto() {
+            return conflicto;
+        }
+    }
+
+    private final LocalStore<GameSummaryDTO> juegosStore;
+    private final LocalStore<GameResponseDTO> detallesStore;
+    // Hilo en el que se avisa a los listeners (el principal en la app)
+    private final Executor entrega;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public StatusRollback(LocalStore<GameSummaryDTO> juegosStore, LocalStore<GameResponseDTO> detallesStore,
+                          Executor entrega) {
+        this.juegosStore = juegosStore;
+        this.detallesStore = detallesStore;
+        this.entrega = entrega;
+    }
+
+    // Quien se registra debe quitarse al cerrarse (onDestroy) para no retener la pantalla
+    public void agregarListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void quitarListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // El servidor no acepta el cambio: se deshace en local. En los cambios, con la versión del
+    // servidor si se pudo leer. Devuelve false si la fila de la lista no se pudo restaurar y
+    // hay que volver a descargarla.
+    // Si la entrada llevaba un cambio de estado (solo o sumado a otro cambio) se avisa también.
+    public boolean aplicarRechazo(OutboxEntry entrada, GameResponseDTO servidor) {
+        Long id = entrada.getGameId();
+        String estadoPrevio = entrada.getEstadoAnterior() != null
+                ? entrada.getEstadoAnterior() : entrada.getEstadoOriginal();
+        if (entrada.getOperacion() == OutboxEntry.Operacion.CREAR) {
+            juegosStore.eliminar(id);
+            if (estadoPrevio != null) {
+                publicar(new EstadoRevertido(id, estadoPrevio, false));
+            }
+            return true;
+        }
+        if (servidor != null) {
+            restaurar(servidor);
+            if (estadoPrevio != null) {
+                publicar(new EstadoRevertido(id, servidor.getStatus(), false));
+            }
+            return true;
+        }
+        if (estadoPrevio != null) {
+            guardarEstadoLocal(id, estadoPrevio);
+            publicar(new EstadoRevertido(id, estadoPrevio, false));
+        }
+        if (entrada.getEstadoAnterior() != null) {
+            // Solo cambió el estado: con volver al de antes basta
+            return true;
+        }
+        detallesStore.eliminar(id);
+        return false;
+    }
+
+    // Resumen y detalle tal y como están en el servidor
+    private void restaurar(GameResponseDTO servidor) {
+        detallesStore.guardar(servidor);
+        GameSummaryDTO resumen = new GameSummaryDTO(servidor.getId(), servidor.getTitle(),
+                servidor.getPlatform(), servidor.getStatus());
+        resumen.setGenre(servidor.getGenre());
+        resumen.setImageId(servidor.getImageId());
+        juegosStore.guardar(resumen);
+    }
+
+    // Otro cambió el estado antes que nosotros: gana la versión del servidor
+    public void aplicarConflicto(GameResponseDTO servidor) {
+        detallesStore.guardar(servidor);
+        guardarEstadoLocal(servidor.getId(), servidor.getStatus());
+        publicar(new EstadoRevertido(servidor.getId(), servidor.getStatus(), true));
+    }
+
+    public void guardarEstadoLocal(Long id, String estado) {
+        GameSummaryDTO resumen = juegosStore.leer(id);
+        if (resumen != null) {
+            resumen.setStatus(estado);
+            juegosStore.guardar(resumen);
+        }
+        GameResponseDTO detalle = detallesStore.leer(id);
+        if (detalle != null) {
+            detalle.setStatus(estado);
+            detallesStore.guardar(detalle);
+        }
+    }
+
+    // Los listeners se leen al entregar: una pantalla cerrada entre medias ya no recibe nada
+    private void publicar(EstadoRevertido revertido) {
+        entrega.execute(() -> {
+            for (Listener listener : listeners) {
+                listener.onRevertido(revertido);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.api.ApiService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Carga el directorio de usuarios página a página. Las primeras filas se guardan también en
+// el almacén local para que el siguiente arranque pinte algo al instante; el resto no, para
+// que el almacén no crezca con todo lo que se recorre.
+public class UserPagingSource {
+
+    // Filas del principio del directorio que se guardan (la página más grande de AdaptiveLoadPolicy)
+    public static final int MAX_FILAS_GUARDADAS = 50;
+
+    private final ApiService apiService;
+    private final LocalStore<UserResponseDTO> usuariosStore;
+    private final Executor diskIO;
+    private final String token;
+    private final int tamanoPagina;
+
+    public UserPagingSource(ApiService apiService, LocalStore<UserResponseDTO> usuariosStore, Executor diskIO,
+                            String token, int tamanoPagina) {
+        this.apiService = apiService;
+        this.usuariosStore = usuariosStore;
+        this.diskIO = diskIO;
+        this.token = token;
+        this.tamanoPagina = tamanoPagina;
+    }
+
+    public int getTamanoPagina() {
+        return tamanoPagina;
+    }
+
+    // Cancelar solo deja de esperar la página; la llamada se corta si nadie más la espera
+    public Cancelable cargar(final int pagina, final RequestCoalescer.Resultado<List<UserResponseDTO>> resultado) {
+        String clave = "GET api/users?page=" + pagina + "&size=" + tamanoPagina;
+        return RequestCoalescer.getInstance().ejecutar(clave,
+                r -> RequestCoalescer.enqueue(apiService.getUsersPage(pagina, tamanoPagina, "Bearer " + token), r),
+                new RequestCoalescer.Resultado<List<UserResponseDTO>>() {
+                    @Override
+                    public void onExito(List<UserResponseDTO> usuarios) {
+                        guardarEnLocal(pagina, usuarios);
+                        resultado.onExito(usuarios);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        resultado.onError(t);
+                    }
+                });
+    }
+
+    // La primera página sustituye lo guardado (así se van los usuarios que ya no están al
+    // principio); las siguientes se añaden hasta completar MAX_FILAS_GUARDADAS
+    private void guardarEnLocal(int pagina, List<UserResponseDTO> usuarios) {
+        int desde = pagina * tamanoPagina;
+        if (desde >= MAX_FILAS_GUARDADAS || (pagina > 0 && usuarios.isEmpty())) {
+            return;
+        }
+        final List<UserResponseDTO> primeros = new ArrayList<>(
+                usuarios.subList(0, Math.min(usuarios.size(), MAX_FILAS_GUARDADAS - desde)));
+        diskIO.execute(() -> {
+            if (pagina == 0) {
+                usuariosStore.reemplazarTodos(primeros);
+            } else {
+                usuariosStore.guardarTodos(primeros);
+            }
+        });
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.gamelend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Índice en memoria para buscar mientras se escribe. Cada documento (un juego) tiene varios
+// campos de texto; el primero cuenta más al ordenar (el título). Todo se compara sin tildes
+// ni mayúsculas ("pokemon" encuentra "Pokémon", "nino" encuentra "Niño").
+// - Prefijos de cada palabra (hasta MAX_PREFIJO letras): "zel" -> "Zelda"
+// - Trigramas para lo que aparece en medio de una palabra: "mon" -> "Pokémon"
+// Al cambiar un juego solo se tocan sus entradas; no hace falta reconstruir el índice.
+public class SearchIndex {
+
+    private static final int MAX_PREFIJO = 10;
+    private static final int N = 3;
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static class Documento {
+        final String[] campos;
+        final String[][] palabras;
+
+        Documento(String[] campos) {
+            this.campos = campos;
+            this.palabras = new String[campos.length][];
+            for (int i = 0; i < campos.length; i++) {
+                palabras[i] = palabras(campos[i]);
+            }
+        }
+    }
+
+    private final Map<String, Set<Long>> prefijos = new HashMap<>();
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+
+    // Añade o actualiza un documento; si el texto no ha cambiado no hace nada
+    public synchronized void indexar(Long id, String... campos) {
+        String[] normalizados = new String[campos.length];
+        for (int i = 0; i < campos.length; i++) {
+            normalizados[i] = normalizar(campos[i]);
+        }
+        Documento previo = documentos.get(id);
+        if (previo != null) {
+            if (Arrays.equals(previo.campos, normalizados)) {
+                return;
+            }
+            quitar(id, previo);
+        }
+        Documento documento = new Documento(normalizados);
+        documentos.put(id, documento);
+        for (String termino : terminos(documento)) {
+            for (int i = 1; i <= Math.min(termino.length(), MAX_PREFIJO); i++) {
+                anadir(prefijos, termino.substring(0, i), id);
+            }
+            for (int i = 0; i + N <= termino.length(); i++) {
+                anadir(trigramas, termino.substring(i, i + N), id);
+            }
+        }
+    }
+
+    public synchronized void eliminar(Long id) {
+        Documento documento = documentos.remove(id);
+        if (documento != null) {
+            quitar(id, documento);
+        }
+    }
+
+    // Quita los documentos que ya no están en la lista
+    public synchronized void retener(Collection<Long> ids) {
+        Set<Long> conservar = new HashSet<>(ids);
+        for (Long id : new ArrayList<>(documentos.keySet())) {
+            if (!conservar.contains(id)) {
+                eliminar(id);
+            }
+        }
+    }
+
+    public synchronized int tamano() {
+        return documentos.size();
+    }
+
+    // Ids que contienen todas las palabras de la consulta; primero los que las tienen
+    // al principio de una palabra del título, luego en otro campo y al final en medio
+    public synchronized List<Long> buscar(String consulta, int maximo) {
+        String[] terminos = palabras(normalizar(consulta));
+        if (terminos.length == 0) {
+            return Collections.emptyList();
+        }
+        Set<Long> candidatos = null;
+        for (String termino : terminos) {
+            Set<Long> ids = candidatos(termino);
+            if (candidatos == null) {
+                candidatos = ids;
+            } else {
+                candidatos.retainAll(ids);
+            }
+            if (candidatos.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Long> resultado = new ArrayList<>(candidatos);
+        final Map<Long, Integer> puntos = new HashMap<>();
+        for (Long id : resultado) {
+            puntos.put(id, puntuar(documentos.get(id), terminos));
+        }
+        Collections.sort(resultado, (a, b) -> {
+            int porPuntos = Integer.compare(puntos.get(a), puntos.get(b));
+            if (porPuntos != 0) {
+                return porPuntos;
+            }
+            String tituloA = documentos.get(a).campos.length > 0 ? documentos.get(a).campos[0] : "";
+            String tituloB = documentos.get(b).campos.length > 0 ? documentos.get(b).campos[0] : "";
+            return tituloA.compareTo(tituloB);
+        });
+        return resultado.size() > maximo ? new ArrayList<>(resultado.subList(0, maximo)) : resultado;
+    }
+
+    // Minúsculas y sin tildes ni diéresis (la ñ queda como n)
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    private Set<Long> candidatos(String termino) {
+        Set<Long> ids = new HashSet<>();
+        Set<Long> porPrefijo = prefijos.get(termino.length() <= MAX_PREFIJO
+                ? termino : termino.substring(0, MAX_PREFIJO));
+        if (porPrefijo != null) {
+            if (termino.length() <= MAX_PREFIJO) {
+                ids.addAll(porPrefijo);
+            } else {
+                for (Long id : porPrefijo) {
+                    if (algunaPalabraEmpiezaPor(documentos.get(id), termino)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        if (termino.length() >= N) {
+            // Dentro de una palabra: documentos con todos los trigramas y que de verdad lo contienen
+            Set<Long> porTrigrama = null;
+            for (int i = 0; i + N <= termino.length(); i++) {
+                Set<Long> conTrigrama = trigramas.get(termino.substring(i, i + N));
+                if (conTrigrama == null) {
+                    porTrigrama = null;
+                    break;
+                }
+                if (porTrigrama == null) {
+                    porTrigrama = new HashSet<>(conTrigrama);
+                } else {
+                    porTrigrama.retainAll(conTrigrama);
+                }
+            }
+            if (porTrigrama != null) {
+                for (Long id : porTrigrama) {
+                    if (!ids.contains(id) && contiene(documentos.get(id), termino)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int puntuar(Documento documento, String[] terminos) {
+        int puntos = 0;
+        for (String termino : terminos) {
+            if (documento.palabras.length > 0 && empiezaPor(documento.palabras[0], termino)) {
+                continue;
+            }
+            puntos += algunaPalabraEmpiezaPor(documento, termino) ? 1 : 2;
+        }
+        return puntos;
+    }
+
+    private static boolean algunaPalabraEmpiezaPor(Documento documento, String termino) {
+        for (String[] palabras : documento.palabras) {
+            if (empiezaPor(palabras, termino)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean empiezaPor(String[] palabras, String termino) {
+        for (String palabra : palabras) {
+            if (palabra.startsWith(termino)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contiene(Documento documento, String termino) {
+        for (String[] palabras : documento.palabras) {
+            for (String palabra : palabras) {
+                if (palabra.contains(termino)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void quitar(Long id, Documento documento) {
+        for (String termino : terminos(documento)) {
+            for (int i = 1; i <= Math.min(termino.length(), MAX_PREFIJO); i++) {
+                retirar(prefijos, termino.substring(0, i), id);
+            }
+            for (int i = 0; i + N <= termino.length(); i++) {
+                retirar(trigramas, termino.substring(i, i + N), id);
+            }
+        }
+    }
+
+    private static Set<String> terminos(Documento documento) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String[] palabras : documento.palabras) {
+            terminos.addAll(Arrays.asList(palabras));
+        }
+        return terminos;
+    }
+
+    private static String[] palabras(String normalizado) {
+        if (normalizado.isEmpty()) {
+            return new String[0];
+        }
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(normalizado)) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras.toArray(new String[0]);
+    }
+
+    private static void anadir(Map<String, Set<Long>> mapa, String clave, Long id) {
+        Set<Long> ids = mapa.get(clave);
+        if (ids == null) {
+            ids = new HashSet<>();
+            mapa.put(clave, ids);
+        }
+        ids.add(id);
+    }
+
+    private static void retirar(Map<String, Set<Long>> mapa, String clave, Long id) {
+        Set<Long> ids = mapa.get(clave);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            mapa.remove(clave);
+        }
+    }
+}
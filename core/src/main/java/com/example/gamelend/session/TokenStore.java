@@ -0,0 +1,12 @@
+package com.example.gamelend.session;
+
+// Acceso a los tokens de la sesión actual. En la app lo implementa SessionManager;
+// aquí solo se define el contrato para que el cliente HTTP no dependa de Android.
+public interface TokenStore {
+
+    String getAccessToken();
+
+    String getRefreshToken();
+
+    void guardarTokens(String accessToken, String refreshToken);
+}
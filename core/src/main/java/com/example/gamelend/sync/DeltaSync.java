@@ -0,0 +1,188 @@
+package com.example.gamelend.sync;
+
+import com.example.gamelend.dto.ChangesDTO;
+import com.example.gamelend.local.LocalStore;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+// Sincronización incremental de una colección local (juegos, usuarios) con el servidor.
+// Se guarda una marca por colección; al refrescar solo se piden los registros cambiados y los
+// ids borrados desde esa marca, así que el tráfico depende de lo que cambia y no del tamaño
+// del catálogo. Hace falta una descarga completa si no hay marca, si es más antigua que
+// maxEdadMs o si el servidor responde 410 (ya no guarda los borrados de entonces).
+// Si el servidor no tiene el endpoint de cambios (404, 405 o 501) se recuerda hasta que se
+// cierre la app y, mientras, todos los refrescos son completos sin volver a preguntar.
+// Las marcas se guardan cuando el LocalStore ya ha escrito los datos que cubren: si la app
+// muere antes, la marca guardada es más antigua que los datos y como mucho se repiten cambios.
+// Todo es síncrono: llamar desde un hilo de fondo.
+public class DeltaSync<T> {
+
+    public interface Fuente<T> {
+        // Con marca null solo se pide la marca actual
+        Call<ChangesDTO<T>> cambiosDesde(Long marca);
+    }
+
+    // Dónde se guardan las marcas (SharedPreferences en la app)
+    public interface Marcas {
+        Long leer(String coleccion);
+
+        long leerGuardadaMs(String coleccion);
+
+        void guardar(String coleccion, long marca, long guardadaMs);
+
+        void borrar(String coleccion);
+    }
+
+    public static class Resultado {
+        private final boolean completaNecesaria;
+        private final int cambiados;
+        private final int borrados;
+
+        Resultado(boolean completaNecesaria, int cambiados, int borrados) {
+            this.completaNecesaria = completaNecesaria;
+            this.cambiados = cambiados;
+            this.borrados = borrados;
+        }
+
+        public boolean isCompletaNecesaria() {
+            return completaNecesaria;
+        }
+
+        public int getCambiados() {
+            return cambiados;
+        }
+
+        public int getBorrados() {
+            return borrados;
+        }
+    }
+
+    private static final int HTTP_GONE = 410;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int HTTP_BAD_METHOD = 405;
+    private static final int HTTP_NOT_IMPLEMENTED = 501;
+
+    private final String coleccion;
+    private final LocalStore<T> store;
+    private final Fuente<T> fuente;
+    private final Marcas marcas;
+    private final long maxEdadMs;
+
+    private volatile boolean cambiosDisponibles = true;
+    // Sube con cada borrado de la marca: una marca que aún esperaba a escribirse ya no se guarda
+    private final AtomicInteger version = new AtomicInteger();
+
+    public DeltaSync(String coleccion, LocalStore<T> store, Fuente<T> fuente, Marcas marcas, long maxEdadMs) {
+        this.coleccion = coleccion;
+        this.store = store;
+        this.fuente = fuente;
+        this.marcas = marcas;
+        this.maxEdadMs = maxEdadMs;
+    }
+
+    // Aplica los cambios pendientes al almacén local. Si devuelve completaNecesaria no se ha
+    // tocado nada y hay que descargar la lista entera (ver pedirMarca / terminarCompleta).
+    public Resultado sincronizar() throws IOException {
+        Long marca = marcas.leer(coleccion);
+        if (!cambiosDisponibles || marca == null
+                || System.currentTimeMillis() - marcas.leerGuardadaMs(coleccion) > maxEdadMs) {
+            return new Resultado(true, 0, 0);
+        }
+
+        int cambiados = 0;
+        int borrados = 0;
+        boolean hayMas = true;
+        while (hayMas) {
+            Response<ChangesDTO<T>> respuesta = fuente.cambiosDesde(marca).execute();
+            if (respuesta.code() == HTTP_GONE || sinEndpoint(respuesta)) {
+                borrarMarca();
+                return new Resultado(true, cambiados, borrados);
+            }
+            ChangesDTO<T> cambios = respuesta.body();
+            if (!respuesta.isSuccessful() || cambios == null || cambios.getWatermark() == null) {
+                throw new HttpException(respuesta);
+            }
+
+            // Primero los cambios y después los borrados: un registro creado y borrado en el
+            // mismo intervalo no debe quedarse en local
+            if (!cambios.getItems().isEmpty()) {
+                store.guardarTodos(cambios.getItems());
+            }
+            for (Long id : cambios.getDeletedIds()) {
+                store.eliminar(id);
+            }
+            cambiados += cambios.getItems().size();
+            borrados += cambios.getDeletedIds().size();
+
+            // La marca se guarda por página: si se corta a medias se sigue desde aquí
+            marca = cambios.getWatermark();
+            guardarMarca(marca);
+            hayMas = cambios.isHasMore();
+        }
+        return new Resultado(false, cambiados, borrados);
+    }
+
+    // Marca actual del servidor; se pide ANTES de la descarga completa para que lo que cambie
+    // mientras tanto vuelva a llegar en la siguiente sincronización. null si no se pudo obtener.
+    public Long pedirMarca() {
+        if (!cambiosDisponibles) {
+            return null;
+        }
+        try {
+            Response<ChangesDTO<T>> respuesta = fuente.cambiosDesde(null).execute();
+            // Sin endpoint de cambios se recuerda para no volver a pedirlo
+            sinEndpoint(respuesta);
+            ChangesDTO<T> cambios = respuesta.body();
+            return respuesta.isSuccessful() && cambios != null ? cambios.getWatermark() : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Lo local ya no se puede dar por bueno (p. ej. un cambio rechazado que no se pudo deshacer):
+    // el próximo refresco descarga la lista entera
+    public void forzarCompleta() {
+        borrarMarca();
+    }
+
+    public boolean isCambiosDisponibles() {
+        return cambiosDisponibles;
+    }
+
+    // Tras guardar la lista completa en el almacén. Sin marca, el próximo refresco vuelve a ser completo.
+    public void terminarCompleta(Long marca) {
+        if (marca != null) {
+            guardarMarca(marca);
+        } else {
+            borrarMarca();
+        }
+    }
+
+    private boolean sinEndpoint(Response<?> respuesta) {
+        int codigo = respuesta.code();
+        if (codigo == HTTP_NOT_FOUND || codigo == HTTP_BAD_METHOD || codigo == HTTP_NOT_IMPLEMENTED) {
+            cambiosDisponibles = false;
+        }
+        return !cambiosDisponibles;
+    }
+
+    private void guardarMarca(long marca) {
+        long guardadaMs = System.currentTimeMillis();
+        int vigente = version.get();
+        store.despuesDeEscribir(() -> {
+            if (version.get() == vigente) {
+                marcas.guardar(coleccion, marca, guardadaMs);
+            }
+        });
+    }
+
+    private void borrarMarca() {
+        version.incrementAndGet();
+        marcas.borrar(coleccion);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.gamelend.local;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class LocalStoreTest {
+
+    // Ejecutor de disco manual: las escrituras esperan hasta que el test las lanza
+    private static class DiscoManual implements Executor {
+        final List<Runnable> tareas = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable tarea) {
+            tareas.add(tarea);
+        }
+
+        void vaciar() {
+            while (!tareas.isEmpty()) {
+                tareas.remove(0).run();
+            }
+        }
+    }
+
+    private File file;
+    private File diario;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("usuarios", ".json");
+        file.delete();
+        diario = new File(file.getPath() + ".log");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        diario.delete();
+    }
+
+    private LocalStore<UserResponseDTO> abrir(Executor diskIO) {
+        return new LocalStore<>(file, GsonProvider.get(), new TypeToken<List<UserResponseDTO>>() {}.getType(),
+                UserResponseDTO::getId, diskIO);
+    }
+
+    private static UserResponseDTO usuario(long id, String nombre) {
+        return new UserResponseDTO(id, nombre, "u" + id + "@gamelend.com", "Madrid", "Madrid", "2024-01-01");
+    }
+
+    private static List<UserResponseDTO> usuarios(int n, String prefijo) {
+        List<UserResponseDTO> lista = new ArrayList<>();
+        for (long id = 1; id <= n; id++) {
+            lista.add(usuario(id, prefijo + id));
+        }
+        return lista;
+    }
+
+    // Sin contar la cabecera
+    private int lineasDiario() throws IOException {
+        return diario.exists() ? Files.readAllLines(diario.toPath(), StandardCharsets.UTF_8).size() - 1 : 0;
+    }
+
+    @Test
+    public void guardarUnoSoloAnadeUnaLineaAlDiario() throws IOException {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(1000, "Usuario "));
+        long tamFoto = file.length();
+
+        store.guardar(usuario(500, "Cambiado"));
+        store.eliminar(7L);
+
+        assertEquals("la foto completa no se reescribe", tamFoto, file.length());
+        assertEquals(2, lineasDiario());
+
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(999, reabierto.tamano());
+        assertEquals("Cambiado", reabierto.leer(500L).getNombrePublico());
+        assertNull(reabierto.leer(7L));
+    }
+
+    @Test
+    public void losCambiosSeguidosSeEscribenEnUnaSolaPasada() throws IOException {
+        DiscoManual disco = new DiscoManual();
+        LocalStore<UserResponseDTO> store = abrir(disco);
+        for (long id = 1; id <= 50; id++) {
+            store.guardar(usuario(id, "Usuario " + id));
+        }
+
+        assertEquals("una sola escritura programada para los 50 cambios", 1, disco.tareas.size());
+        disco.vaciar();
+        assertEquals(50, lineasDiario());
+        assertEquals(50, abrir(Runnable::run).tamano());
+    }
+
+    @Test
+    public void elDiarioSeCompactaCuandoCreceMasQueLaColeccion() throws IOException {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(10, "Usuario "));
+        for (int vuelta = 0; vuelta < 30; vuelta++) {
+            for (long id = 1; id <= 10; id++) {
+                store.guardar(usuario(id, "Vuelta " + vuelta));
+            }
+        }
+
+        assertTrue("el diario no pasa del mínimo de compactación", lineasDiario() <= 100);
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(10, reabierto.tamano());
+        assertEquals("Vuelta 29", reabierto.leer(3L).getNombrePublico());
+    }
+
+    @Test
+    public void reemplazarTodosDescartaElDiarioAnterior() {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(5, "Usuario "));
+        store.guardar(usuario(99, "Solo en el diario"));
+        store.reemplazarTodos(usuarios(3, "Nuevo "));
+
+        assertFalse(diario.exists());
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(3, reabierto.tamano());
+        assertNull(reabierto.leer(99L));
+    }
+
+    @Test
+    public void unaLineaAMediasNoPierdeLoAnterior() throws IOException {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(5, "Usuario "));
+        store.guardar(usuario(2, "Cambiado"));
+        // La app murió a mitad de la siguiente línea
+        try (FileOutputStream out = new FileOutputStream(diario, true)) {
+            out.write("+{\"id\":3,\"nombrePub".getBytes(StandardCharsets.UTF_8));
+        }
+
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals("Cambiado", reabierto.leer(2L).getNombrePublico());
+        assertEquals("Usuario 3", reabierto.leer(3L).getNombrePublico());
+        // Se reescribió todo en limpio y se puede seguir añadiendo
+        reabierto.guardar(usuario(4, "Después"));
+        LocalStore<UserResponseDTO> otraVez = abrir(Runnable::run);
+        assertEquals("Cambiado", otraVez.leer(2L).getNombrePublico());
+        assertEquals("Después", otraVez.leer(4L).getNombrePublico());
+    }
+
+    @Test
+    public void unBorradoCortadoNoBorraOtroRegistro() throws IOException {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(200, "Usuario "));
+        store.eliminar(123L);
+        // La app murió tras escribir "-12" de "-123"
+        byte[] escrito = Files.readAllBytes(diario.toPath());
+        int corte = new String(escrito, StandardCharsets.UTF_8).indexOf("-123") + 3;
+        Files.write(diario.toPath(), Arrays.copyOf(escrito, corte));
+
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(200, reabierto.tamano());
+        assertNotNull(reabierto.leer(12L));
+    }
+
+    @Test
+    public void elDiarioDeLaFotoAnteriorNoSeAplicaSobreLaNueva() throws IOException {
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(5, "Usuario "));
+        store.guardar(usuario(99, "Solo en el diario"));
+        byte[] diarioViejo = Files.readAllBytes(diario.toPath());
+        store.reemplazarTodos(usuarios(3, "Nuevo "));
+        // La app murió entre el renombrado de la foto nueva y el borrado del diario
+        Files.write(diario.toPath(), diarioViejo);
+
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(3, reabierto.tamano());
+        assertNull(reabierto.leer(99L));
+        reabierto.guardar(usuario(4, "Después"));
+        LocalStore<UserResponseDTO> otraVez = abrir(Runnable::run);
+        assertEquals(4, otraVez.tamano());
+        assertNull(otraVez.leer(99L));
+    }
+
+    @Test
+    public void siLaFotoNuevaFallaElDiarioSeConserva() {
+        File tmp = new File(file.getPath() + ".tmp");
+        LocalStore<UserResponseDTO> store = abrir(Runnable::run);
+        store.reemplazarTodos(usuarios(5, "Usuario "));
+        store.guardar(usuario(99, "Solo en el diario"));
+        // La foto temporal no se puede crear
+        assertTrue(tmp.mkdir());
+        try {
+            store.reemplazarTodos(usuarios(3, "Nuevo "));
+            assertTrue(diario.exists());
+            LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+            assertEquals("Solo en el diario", reabierto.leer(99L).getNombrePublico());
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    @Test
+    public void unaEscrituraFallidaNoDaPorEscritoLoPendiente() {
+        DiscoManual disco = new DiscoManual();
+        LocalStore<UserResponseDTO> store = abrir(disco);
+        assertTrue(store.estaVacio());
+        // El diario no se puede abrir
+        assertTrue(diario.mkdir());
+        store.guardar(usuario(1, "Ana"));
+        disco.vaciar();
+        List<Boolean> avisos = new ArrayList<>();
+        store.despuesDeEscribir(() -> avisos.add(true));
+        disco.vaciar();
+        assertTrue("no se avisa de algo que no está en disco", avisos.isEmpty());
+
+        assertTrue(diario.delete());
+        store.guardar(usuario(2, "Luis"));
+        disco.vaciar();
+
+        assertEquals(Arrays.asList(true), avisos);
+        LocalStore<UserResponseDTO> reabierto = abrir(Runnable::run);
+        assertEquals(2, reabierto.tamano());
+        assertEquals("Ana", reabierto.leer(1L).getNombrePublico());
+    }
+
+    // Lo que hacen los repositorios: pintar lo guardado al abrir y aplicar el refresco encima
+    @Test
+    public void alReabrirSeSirveLoGuardadoYDespuesElRefresco() {
+        DiscoManual disco = new DiscoManual();
+        LocalStore<UserResponseDTO> primeraSesion = abrir(disco);
+        primeraSesion.reemplazarTodos(usuarios(100, "Usuario "));
+        disco.vaciar();
+
+        // Segunda sesión: la lectura del fichero va en el hilo de disco
+        LocalStore<UserResponseDTO> segundaSesion = abrir(disco);
+        segundaSesion.precargar();
+        disco.vaciar();
+        List<UserResponseDTO> enCache = segundaSesion.leerPrimeros(30);
+        assertEquals(30, enCache.size());
+        assertEquals("Usuario 1", enCache.get(0).getNombrePublico());
+
+        // Llega el refresco: un cambio, un alta y un borrado
+        segundaSesion.guardarTodos(Arrays.asList(usuario(1, "Renombrado"), usuario(101, "Nuevo")));
+        segundaSesion.eliminar(50L);
+        assertEquals("Renombrado", segundaSesion.leerPrimeros(1).get(0).getNombrePublico());
+        disco.vaciar();
+
+        LocalStore<UserResponseDTO> terceraSesion = abrir(Runnable::run);
+        assertEquals(100, terceraSesion.tamano());
+        assertEquals("Renombrado", terceraSesion.leer(1L).getNombrePublico());
+        assertEquals("Nuevo", terceraSesion.leer(101L).getNombrePublico());
+        assertNull(terceraSesion.leer(50L));
+    }
+
+    @Test
+    public void despuesDeEscribirEsperaALoGuardadoHastaAhora() {
+        DiscoManual disco = new DiscoManual();
+        LocalStore<UserResponseDTO> store = abrir(disco);
+        store.guardar(usuario(1, "Ana"));
+        List<Boolean> enDisco = new ArrayList<>();
+        store.despuesDeEscribir(() -> enDisco.add(diario.exists()));
+        store.guardar(usuario(2, "Luis"));
+
+        assertTrue(enDisco.isEmpty());
+        disco.vaciar();
+
+        assertEquals(Arrays.asList(true), enDisco);
+        assertEquals(2, abrir(Runnable::run).leerTodos().size());
+    }
+}
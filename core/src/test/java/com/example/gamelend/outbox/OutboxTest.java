@@ -0,0 +1,332 @@
+package com.example.gamelend.outbox;
+
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class OutboxTest {
+
+    private File file;
+    private MockWebServer server;
+    private ExecutorService red;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("outbox", ".json");
+        file.delete();
+        server = new MockWebServer();
+        server.start();
+        red = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        red.shutdownNow();
+        server.shutdown();
+        file.delete();
+        new File(file.getPath() + ".log").delete();
+    }
+
+    private Outbox abrir() {
+        return new Outbox(new LocalStore<>(file, GsonProvider.get(),
+                new TypeToken<List<OutboxEntry>>() {}.getType(), OutboxEntry::getId, Runnable::run));
+    }
+
+    private ApiService crearApi() {
+        return new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+    }
+
+    private static GameDTO juego(String titulo) {
+        return new GameDTO(null, titulo, "PS5", "Acción", null, "AVAILABLE", 1L, null, null, null, null);
+    }
+
+    @Test
+    public void fusionaLosCambiosQueAunNoHanSalido() {
+        Outbox outbox = abrir();
+        long temporal = outbox.encolarCreacion(juego("Zelda"));
+        outbox.encolarActualizacion(temporal, juego("Zelda TOTK"));
+        outbox.encolarActualizacion(7L, juego("Mario"));
+        outbox.encolarActualizacion(7L, juego("Mario Wonder"));
+        outbox.encolarActualizacion(8L, juego("Halo"));
+        outbox.encolarBorrado(8L);
+
+        List<OutboxEntry> pendientes = outbox.pendientes();
+        assertEquals(3, pendientes.size());
+        assertEquals(OutboxEntry.Operacion.CREAR, pendientes.get(0).getOperacion());
+        assertEquals("Zelda TOTK", pendientes.get(0).getJuego().getTitle());
+        assertNull(pendientes.get(0).getJuego().getId());
+        assertEquals("Mario Wonder", pendientes.get(1).getJuego().getTitle());
+        assertEquals(OutboxEntry.Operacion.BORRAR, pendientes.get(2).getOperacion());
+
+        // Alta y borrado sin haber enviado nada: no queda nada que mandar de ese juego
+        outbox.encolarBorrado(temporal);
+        assertEquals(2, outbox.pendientes().size());
+    }
+
+    @Test
+    public void sobreviveAReabrirElFichero() {
+        Outbox outbox = abrir();
+        long temporal = outbox.encolarCreacion(juego("Zelda"));
+        outbox.encolarActualizacion(7L, juego("Mario"));
+
+        List<OutboxEntry> leidas = abrir().pendientes();
+        assertEquals(2, leidas.size());
+        assertEquals(temporal, (long) leidas.get(0).getGameId());
+        assertEquals("Zelda", leidas.get(0).getJuego().getTitle());
+        assertEquals(OutboxEntry.Operacion.ACTUALIZAR, leidas.get(1).getOperacion());
+    }
+
+    @Test
+    public void unCambioPorJuegoEnCadaLoteYElAltaDaSuIdALoQueVieneDetras() {
+        Outbox outbox = abrir();
+        long temporal = outbox.encolarCreacion(juego("Zelda"));
+        List<OutboxEntry> primero = outbox.siguienteLote(10);
+        // Lo que llega con el alta ya en vuelo no se fusiona con ella
+        outbox.encolarActualizacion(temporal, juego("Zelda TOTK"));
+        outbox.encolarActualizacion(7L, juego("Mario"));
+
+        assertEquals(1, primero.size());
+        List<OutboxEntry> mientras = outbox.siguienteLote(10);
+        assertEquals(1, mientras.size());
+        assertEquals(7L, (long) mientras.get(0).getGameId());
+
+        outbox.confirmar(primero.get(0), 42L);
+        List<OutboxEntry> despues = outbox.siguienteLote(10);
+        assertEquals(1, despues.size());
+        assertEquals(42L, (long) despues.get(0).getGameId());
+        assertEquals(42L, (long) despues.get(0).getJuego().getId());
+    }
+
+    @Test
+    public void procesaPorLotesYReintentaLosFallosPasajeros() throws Exception {
+        Outbox outbox = abrir();
+        outbox.encolarCreacion(juego("Zelda"));
+        outbox.encolarActualizacion(7L, juego("Mario"));
+        outbox.encolarBorrado(9L);
+
+        ApiService api = crearApi();
+        final List<OutboxEntry> confirmadas = new ArrayList<>();
+        final List<Integer> descartadas = new ArrayList<>();
+        OutboxProcessor processor = new OutboxProcessor(outbox, api, red, 10, new OutboxProcessor.Listener() {
+            @Override
+            public synchronized void onConfirmada(OutboxEntry entrada, GameResponseDTO respuesta) {
+                confirmadas.add(entrada);
+            }
+
+            @Override
+            public synchronized void onDescartada(OutboxEntry entrada, int codigo, GameResponseDTO servidor) {
+                descartadas.add(codigo);
+            }
+
+            @Override
+            public void onConflicto(OutboxEntry entrada, GameResponseDTO servidor) {
+                fail("Sin cambios de estado no hay conflictos");
+            }
+        });
+
+        // Primera pasada: el servidor falla y todo se queda en la cola
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        assertEquals(OutboxProcessor.Resultado.REINTENTAR, processor.procesar());
+        assertEquals(3, outbox.pendientes().size());
+        assertEquals(1, outbox.pendientes().get(0).getIntentos());
+
+        // Segunda: los tres salen en el mismo lote; el juego 9 ya no existía
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest peticion) {
+                if ("DELETE".equals(peticion.getMethod())) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                long id = "POST".equals(peticion.getMethod()) ? 42 : 7;
+                return new MockResponse().setBody("{\"id\":" + id + ",\"title\":\"x\"}");
+            }
+        });
+        assertEquals(OutboxProcessor.Resultado.VACIA, processor.procesar());
+        assertTrue(outbox.estaVacia());
+        assertEquals(3, confirmadas.size());
+        assertTrue(descartadas.isEmpty());
+
+        List<String> metodos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            RecordedRequest peticion = server.takeRequest();
+            if (i >= 3) {
+                metodos.add(peticion.getMethod() + " " + peticion.getPath());
+            }
+        }
+        assertTrue(metodos.contains("POST /api/games"));
+        assertTrue(metodos.contains("PUT /api/games/7"));
+        assertTrue(metodos.contains("DELETE /api/games/9"));
+    }
+
+    @Test
+    public void loQueAgotaLosIntentosPasaAFallidasConLoQueDependeDeEllo() throws Exception {
+        File fallidasFile = File.createTempFile("outbox_fallidas", ".json");
+        fallidasFile.delete();
+        try {
+            Outbox outbox = new Outbox(new LocalStore<>(file, GsonProvider.get(),
+                    new TypeToken<List<OutboxEntry>>() {}.getType(), OutboxEntry::getId, Runnable::run),
+                    new LocalStore<>(fallidasFile, GsonProvider.get(),
+                            new TypeToken<List<OutboxEntry>>() {}.getType(), OutboxEntry::getId, Runnable::run),
+                    2);
+            long temporal = outbox.encolarCreacion(juego("Zelda"));
+            // Con el alta en vuelo el cambio va en una entrada aparte, detrás de ella
+            OutboxEntry alta = outbox.siguienteLote(10).get(0);
+            outbox.encolarActualizacion(temporal, juego("Zelda TOTK"));
+            outbox.soltar(alta);
+            assertEquals(2, outbox.pendientes().size());
+
+            final List<Integer> descartadas = new ArrayList<>();
+            OutboxProcessor processor = new OutboxProcessor(outbox, crearApi(), red, 10, new OutboxProcessor.Listener() {
+                @Override
+                public void onConfirmada(OutboxEntry entrada, GameResponseDTO respuesta) {
+                    fail();
+                }
+
+                @Override
+                public synchronized void onDescartada(OutboxEntry entrada, int codigo, GameResponseDTO servidor) {
+                    descartadas.add(codigo);
+                }
+
+                @Override
+                public void onConflicto(OutboxEntry entrada, GameResponseDTO servidor) {
+                    fail();
+                }
+            });
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest peticion) {
+                    return new MockResponse().setResponseCode(503);
+                }
+            });
+
+            assertEquals(OutboxProcessor.Resultado.REINTENTAR, processor.procesar());
+            assertTrue(descartadas.isEmpty());
+
+            // Segundo fallo: el alta deja de reintentarse y se lleva el cambio que venía detrás
+            assertEquals(OutboxProcessor.Resultado.VACIA, processor.procesar());
+            assertEquals(1, descartadas.size());
+            assertEquals(503, (int) descartadas.get(0));
+            assertTrue(outbox.estaVacia());
+            assertEquals(2, outbox.fallidas().size());
+        } finally {
+            fallidasFile.delete();
+            new File(fallidasFile.getPath() + ".log").delete();
+        }
+    }
+
+    @Test
+    public void descartaLoQueElServidorRechazaYLoQueDependeDeEllo() {
+        Outbox outbox = abrir();
+        long temporal = outbox.encolarCreacion(juego("Zelda"));
+        List<OutboxEntry> lote = outbox.siguienteLote(10);
+        outbox.encolarBorrado(temporal);
+
+        outbox.descartar(lote.get(0));
+        assertTrue(outbox.estaVacia());
+    }
+
+    @Test
+    public void elCambioDeEstadoSeEnviaSobreLaVersionDelServidor() throws Exception {
+        Outbox outbox = abrir();
+        outbox.encolarCambioEstado(7L, 1L, "AVAILABLE", "BORROWED");
+        server.enqueue(new MockResponse().setBody(
+                "{\"id\":7,\"title\":\"Mario\",\"genre\":\"Plataformas\",\"status\":\"AVAILABLE\"}"));
+        server.enqueue(new MockResponse().setBody("{\"id\":7,\"status\":\"BORROWED\"}"));
+
+        final List<GameResponseDTO> conflictos = new ArrayList<>();
+        OutboxProcessor processor = new OutboxProcessor(outbox, crearApi(), red, 10, new OutboxProcessor.Listener() {
+            @Override
+            public void onConfirmada(OutboxEntry entrada, GameResponseDTO respuesta) {
+            }
+
+            @Override
+            public void onDescartada(OutboxEntry entrada, int codigo, GameResponseDTO servidor) {
+                fail();
+            }
+
+            @Override
+            public synchronized void onConflicto(OutboxEntry entrada, GameResponseDTO servidor) {
+                conflictos.add(servidor);
+            }
+        });
+
+        assertEquals(OutboxProcessor.Resultado.VACIA, processor.procesar());
+        assertEquals("GET /api/games/7", server.takeRequest().getRequestLine().replace(" HTTP/1.1", ""));
+        String cuerpo = server.takeRequest().getBody().readUtf8();
+        assertTrue(cuerpo.contains("\"title\":\"Mario\""));
+        assertTrue(cuerpo.contains("\"genre\":\"Plataformas\""));
+        assertTrue(cuerpo.contains("\"status\":\"BORROWED\""));
+        assertTrue(conflictos.isEmpty());
+
+        // Otro lo ha marcado como no disponible mientras tanto: gana el servidor y no se envía nada
+        outbox.encolarCambioEstado(7L, 1L, "BORROWED", "AVAILABLE");
+        server.enqueue(new MockResponse().setBody("{\"id\":7,\"status\":\"UNAVAILABLE\"}"));
+        assertEquals(OutboxProcessor.Resultado.VACIA, processor.procesar());
+        assertEquals(1, conflictos.size());
+        assertEquals("UNAVAILABLE", conflictos.get(0).getStatus());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void elCambioDeEstadoSeSumaALoQueAunNoHaSalido() {
+        Outbox outbox = abrir();
+        long temporal = outbox.encolarCreacion(juego("Zelda"));
+        outbox.encolarCambioEstado(temporal, 1L, "AVAILABLE", "BORROWED");
+        outbox.encolarCambioEstado(7L, 1L, "AVAILABLE", "BORROWED");
+        outbox.encolarCambioEstado(7L, 1L, "AVAILABLE", "UNAVAILABLE");
+
+        List<OutboxEntry> pendientes = outbox.pendientes();
+        assertEquals(2, pendientes.size());
+        assertEquals("BORROWED", pendientes.get(0).getJuego().getStatus());
+        assertNull(pendientes.get(0).getEstadoAnterior());
+        assertEquals("UNAVAILABLE", pendientes.get(1).getJuego().getStatus());
+        // Se compara con el estado que había antes del primer cambio
+        assertEquals("AVAILABLE", abrir().pendientes().get(1).getEstadoAnterior());
+        // El alta recuerda el estado de partida para poder deshacerlo si se rechaza
+        assertEquals("AVAILABLE", abrir().pendientes().get(0).getEstadoOriginal());
+    }
+
+    @Test
+    public void unCambioCompletoSobreUnCambioDeEstadoYaNoSeTrataComoConflicto() {
+        Outbox outbox = abrir();
+        outbox.encolarCambioEstado(7L, 1L, "AVAILABLE", "BORROWED");
+        GameDTO editado = juego("Mario Wonder");
+        editado.setStatus("BORROWED");
+        outbox.encolarActualizacion(7L, editado);
+
+        List<OutboxEntry> pendientes = abrir().pendientes();
+        assertEquals(1, pendientes.size());
+        assertEquals("Mario Wonder", pendientes.get(0).getJuego().getTitle());
+        assertNull(pendientes.get(0).getEstadoAnterior());
+        assertEquals("AVAILABLE", pendientes.get(0).getEstadoOriginal());
+    }
+}
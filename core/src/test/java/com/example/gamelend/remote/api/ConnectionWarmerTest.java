@@ -0,0 +1,143 @@
+package com.example.gamelend.remote.api;
+
+import com.example.gamelend.dto.LoginRequestDTO;
+import com.example.gamelend.dto.TokenResponseDTO;
+import com.example.gamelend.remote.metrics.LatencyHistogram;
+import com.example.gamelend.remote.metrics.LatencyMetrics;
+import com.example.gamelend.session.TokenStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class ConnectionWarmerTest {
+
+    private static final String LOGIN = "POST api/auth/login";
+
+    private static class Tokens implements TokenStore {
+        @Override
+        public String getAccessToken() {
+            return "";
+        }
+
+        @Override
+        public String getRefreshToken() {
+            return "";
+        }
+
+        @Override
+        public void guardarTokens(String accessToken, String refreshToken) {
+        }
+    }
+
+    // El HEAD del precalentamiento recibe un 401 como lo haría el backend real
+    private final CountDownLatch liberarHead = new CountDownLatch(1);
+    private volatile boolean retenerHead = false;
+    private MockWebServer server;
+    private File cacheDir;
+    private NetworkStack stack;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest peticion) throws InterruptedException {
+                if ("HEAD".equals(peticion.getMethod())) {
+                    if (retenerHead) {
+                        liberarHead.await();
+                    }
+                    return new MockResponse().setResponseCode(401);
+                }
+                return new MockResponse().setBody("{\"access_token\":\"a\",\"refresh_token\":\"r\"}");
+            }
+        });
+        server.start();
+        cacheDir = Files.createTempDirectory("cache").toFile();
+        stack = new NetworkStack(server.url("/").toString(), cacheDir, new Tokens(), false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        liberarHead.countDown();
+        stack.getClient().dispatcher().cancelAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void elLoginReutilizaUnaConexionYaAbierta() throws Exception {
+        ConnectionWarmer warmer = stack.getConnectionWarmer();
+        assertEquals(2, warmer.calentar(2));
+        esperarConexionesLibres(2);
+
+        // Con las conexiones ya aparcadas no se abre ninguna más
+        assertEquals(0, warmer.calentar(2));
+
+        Response<TokenResponseDTO> respuesta = stack.getApiService()
+                .login(new LoginRequestDTO("benchmark@gamelend.com", "benchmark")).execute();
+
+        assertTrue(respuesta.isSuccessful());
+        assertEquals("a", respuesta.body().getAccessToken());
+        // El login no pasó por la fase de conexión: no hay muestras de CONEXION para él
+        LatencyHistogram conexionLogin = stack.getLatencyMetrics().get(LOGIN, LatencyMetrics.Fase.CONEXION);
+        assertTrue(conexionLogin == null || conexionLogin.getTotal() == 0);
+        assertEquals(1, stack.getLatencyMetrics().get(LOGIN, LatencyMetrics.Fase.TOTAL).getTotal());
+
+        // El 401 del HEAD no intentó renovar el token
+        RecordedRequest primera = server.takeRequest();
+        RecordedRequest segunda = server.takeRequest();
+        RecordedRequest login = server.takeRequest();
+        assertEquals("HEAD", primera.getMethod());
+        assertEquals("HEAD", segunda.getMethod());
+        assertEquals("/api/auth/login", login.getPath());
+        // Segunda petición sobre la misma conexión
+        assertTrue(login.getSequenceNumber() > 0);
+    }
+
+    @Test
+    public void sinPrecalentarElLoginAbreSuPropiaConexion() throws Exception {
+        stack.getApiService().login(new LoginRequestDTO("benchmark@gamelend.com", "benchmark")).execute();
+
+        assertEquals(1, stack.getLatencyMetrics().get(LOGIN, LatencyMetrics.Fase.CONEXION).getTotal());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    public void cancelarCortaLoQueSigueAbriendose() throws Exception {
+        retenerHead = true;
+        ConnectionWarmer warmer = stack.getConnectionWarmer();
+        warmer.calentar(2);
+        assertEquals(2, warmer.getEnVuelo());
+
+        warmer.cancelar();
+
+        assertEquals(0, warmer.getEnVuelo());
+        long limite = System.currentTimeMillis() + 5000;
+        while (stack.getClient().dispatcher().runningCallsCount() > 0) {
+            assertTrue(System.currentTimeMillis() < limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private void esperarConexionesLibres(int conexiones) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (stack.getClient().connectionPool().idleConnectionCount() < conexiones) {
+            assertTrue("No se abrieron las conexiones", System.currentTimeMillis() < limite);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
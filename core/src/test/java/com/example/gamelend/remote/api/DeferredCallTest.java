@@ -0,0 +1,129 @@
+package com.example.gamelend.remote.api;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.remote.json.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class DeferredCallTest {
+
+    private MockWebServer server;
+    private ExecutorService red;
+    private ApiService api;
+    // Cliente "en construcción" hasta que el test lo suelta
+    private final CountDownLatch clienteListo = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        red = Executors.newSingleThreadExecutor();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        clienteListo.countDown();
+        red.shutdownNow();
+        server.shutdown();
+    }
+
+    private DeferredCall<GameResponseDTO> diferida(long id) {
+        return new DeferredCall<>(() -> {
+            try {
+                clienteListo.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return api.getGameById(id);
+        }, red);
+    }
+
+    @Test
+    public void encolarNoEsperaAlCliente() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\":7,\"title\":\"Zelda\"}"));
+        AtomicReference<GameResponseDTO> recibido = new AtomicReference<>();
+        CountDownLatch terminado = new CountDownLatch(1);
+
+        Call<GameResponseDTO> call = diferida(7);
+        call.enqueue(new Callback<GameResponseDTO>() {
+            @Override
+            public void onResponse(Call<GameResponseDTO> c, Response<GameResponseDTO> response) {
+                assertSame(call, c);
+                recibido.set(response.body());
+                terminado.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<GameResponseDTO> c, Throwable t) {
+                terminado.countDown();
+            }
+        });
+        assertTrue(call.isExecuted());
+        assertEquals(0, server.getRequestCount());
+
+        clienteListo.countDown();
+        assertTrue(terminado.await(5, TimeUnit.SECONDS));
+        assertEquals("Zelda", recibido.get().getTitle());
+    }
+
+    @Test
+    public void cancelarAntesDeQueEsteElClienteNoLlegaAlServidor() throws Exception {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch terminado = new CountDownLatch(1);
+
+        Call<GameResponseDTO> call = diferida(7);
+        call.enqueue(new Callback<GameResponseDTO>() {
+            @Override
+            public void onResponse(Call<GameResponseDTO> c, Response<GameResponseDTO> response) {
+                terminado.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<GameResponseDTO> c, Throwable t) {
+                error.set(t);
+                terminado.countDown();
+            }
+        });
+        call.cancel();
+        assertTrue(call.isCanceled());
+
+        clienteListo.countDown();
+        assertTrue(terminado.await(5, TimeUnit.SECONDS));
+        assertTrue(error.get() instanceof IOException);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void executeEsperaAlClienteEnElHiloQueEjecuta() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\":7,\"title\":\"Zelda\"}"));
+        clienteListo.countDown();
+
+        Response<GameResponseDTO> respuesta = diferida(7).execute();
+
+        assertEquals("Zelda", respuesta.body().getTitle());
+    }
+}
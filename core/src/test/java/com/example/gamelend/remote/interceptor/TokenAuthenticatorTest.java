@@ -0,0 +1,181 @@
+package com.example.gamelend.remote.interceptor;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.api.NetworkStack;
+import com.example.gamelend.session.TokenStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class TokenAuthenticatorTest {
+
+    private static final int PETICIONES = 10;
+
+    private static class Tokens implements TokenStore {
+        private String access;
+        private String refresh;
+
+        Tokens(String access, String refresh) {
+            this.access = access;
+            this.refresh = refresh;
+        }
+
+        @Override
+        public synchronized String getAccessToken() {
+            return access;
+        }
+
+        @Override
+        public synchronized String getRefreshToken() {
+            return refresh;
+        }
+
+        @Override
+        public synchronized void guardarTokens(String accessToken, String refreshToken) {
+            access = accessToken;
+            refresh = refreshToken;
+        }
+    }
+
+    // Backend con un único access token válido; la renovación tarda un poco para que las
+    // peticiones que fallan a la vez se junten en el cerrojo
+    private class Backend extends Dispatcher {
+        final AtomicInteger renovaciones = new AtomicInteger();
+        final List<String> autorizacionesAceptadas = new ArrayList<>();
+        volatile boolean renovacionRechazada = false;
+        volatile String tokenValido = "nuevo";
+
+        @Override
+        public MockResponse dispatch(RecordedRequest peticion) throws InterruptedException {
+            String autorizacion = peticion.getHeader("Authorization");
+            if (peticion.getPath().startsWith("/api/auth/refresh")) {
+                renovaciones.incrementAndGet();
+                Thread.sleep(200);
+                if (renovacionRechazada) {
+                    return new MockResponse().setResponseCode(401);
+                }
+                return new MockResponse().setBody(
+                        "{\"access_token\":\"" + tokenValido + "\",\"refresh_token\":\"refresco-2\"}");
+            }
+            if (!("Bearer " + tokenValido).equals(autorizacion)) {
+                return new MockResponse().setResponseCode(401);
+            }
+            synchronized (this) {
+                autorizacionesAceptadas.add(autorizacion);
+            }
+            return new MockResponse().setBody("{\"id\":1,\"title\":\"Zelda\"}");
+        }
+    }
+
+    private MockWebServer server;
+    private Backend backend;
+    private File cacheDir;
+    private Tokens tokens;
+    private NetworkStack stack;
+    private ExecutorService hilos;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new Backend();
+        server = new MockWebServer();
+        server.setDispatcher(backend);
+        server.start();
+        cacheDir = Files.createTempDirectory("cache").toFile();
+        tokens = new Tokens("caducado", "refresco-1");
+        stack = new NetworkStack(server.url("/").toString(), cacheDir, tokens, false);
+        hilos = Executors.newFixedThreadPool(PETICIONES);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        hilos.shutdownNow();
+        server.shutdown();
+    }
+
+    // Lanza PETICIONES llamadas a la vez y devuelve los códigos de respuesta
+    private List<Integer> lanzarALaVez() throws Exception {
+        ApiService api = stack.getApiService();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Integer>> futuros = new ArrayList<>();
+        for (int i = 0; i < PETICIONES; i++) {
+            final long id = i + 1;
+            futuros.add(hilos.submit(() -> {
+                salida.await();
+                Response<GameResponseDTO> respuesta = api.getGameById(id).execute();
+                return respuesta.code();
+            }));
+        }
+        salida.countDown();
+        List<Integer> codigos = new ArrayList<>();
+        for (Future<Integer> futuro : futuros) {
+            codigos.add(futuro.get(10, TimeUnit.SECONDS));
+        }
+        return codigos;
+    }
+
+    @Test
+    public void variosCuatrocientosUnoALaVezRenuevanUnaSolaVez() throws Exception {
+        List<Integer> codigos = lanzarALaVez();
+
+        assertEquals(1, backend.renovaciones.get());
+        for (Integer codigo : codigos) {
+            assertEquals(Integer.valueOf(200), codigo);
+        }
+        // Todas se repitieron (o salieron) con el token nuevo
+        assertEquals(PETICIONES, backend.autorizacionesAceptadas.size());
+        assertEquals("nuevo", tokens.getAccessToken());
+        assertEquals("refresco-2", tokens.getRefreshToken());
+    }
+
+    @Test
+    public void unaRenovacionRechazadaNoSeRepiteConElMismoRefreshToken() throws Exception {
+        backend.renovacionRechazada = true;
+
+        List<Integer> codigos = lanzarALaVez();
+        for (Integer codigo : codigos) {
+            assertEquals(Integer.valueOf(401), codigo);
+        }
+        assertEquals(1, backend.renovaciones.get());
+
+        // Más tarde, con el mismo refresh token, ni se intenta
+        assertEquals(401, stack.getApiService().getGameById(99L).execute().code());
+        assertEquals(1, backend.renovaciones.get());
+
+        // Tras iniciar sesión de nuevo (refresh token distinto) sí se vuelve a renovar
+        backend.renovacionRechazada = false;
+        backend.tokenValido = "otro";
+        tokens.guardarTokens("caducado-2", "refresco-3");
+        assertEquals(200, stack.getApiService().getGameById(99L).execute().code());
+        assertEquals(2, backend.renovaciones.get());
+    }
+
+    @Test
+    public void lasPeticionesDeAuthNoSeRenuevan() throws Exception {
+        backend.renovacionRechazada = true;
+
+        assertEquals(401, stack.getApiService().refreshToken("Bearer refresco-1").execute().code());
+        assertEquals("el propio refresh no dispara otra renovación", 1, backend.renovaciones.get());
+    }
+}
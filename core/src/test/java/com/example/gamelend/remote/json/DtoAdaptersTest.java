@@ -0,0 +1,230 @@
+package com.example.gamelend.remote.json;
+
+import com.example.gamelend.dto.AuthResponseDTO;
+import com.example.gamelend.dto.ChangesDTO;
+import com.example.gamelend.dto.GameDTO;
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameStatus;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.dto.ImageResponseDTO;
+import com.example.gamelend.dto.LoginRequestDTO;
+import com.example.gamelend.dto.RegisterRequestDTO;
+import com.example.gamelend.dto.RespuestaGeneral;
+import com.example.gamelend.dto.TokenResponseDTO;
+import com.example.gamelend.dto.UserDTO;
+import com.example.gamelend.dto.UserResponseDTO;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Cada adapter escrito a mano contra un JSON de ejemplo con los nombres que usa el backend.
+// Con R8 activado un nombre mal escrito solo fallaría en release; aquí falla en el test.
+public class DtoAdaptersTest {
+
+    private final Gson gson = GsonProvider.get();
+
+    // Compara como árbol JSON: el orden de los campos no importa
+    private void assertJson(String esperado, Object valor) {
+        assertEquals(gson.fromJson(esperado, JsonElement.class), gson.toJsonTree(valor));
+    }
+
+    private void assertJson(String esperado, Object valor, Type tipo) {
+        assertEquals(gson.fromJson(esperado, JsonElement.class), gson.toJsonTree(valor, tipo));
+    }
+
+    @Test
+    public void tokenResponse() {
+        String json = "{\"access_token\":\"acceso\",\"refresh_token\":\"refresco\"}";
+
+        TokenResponseDTO token = gson.fromJson(json, TokenResponseDTO.class);
+        assertEquals("acceso", token.getAccessToken());
+        assertEquals("refresco", token.getRefreshToken());
+        assertJson(json, token);
+    }
+
+    @Test
+    public void loginRequest() {
+        LoginRequestDTO login = new LoginRequestDTO("ana@gamelend.com", "secreta");
+        String json = "{\"email\":\"ana@gamelend.com\",\"password\":\"secreta\"}";
+
+        assertJson(json, login);
+        LoginRequestDTO leido = gson.fromJson(json, LoginRequestDTO.class);
+        assertEquals("ana@gamelend.com", leido.getEmail());
+        assertEquals("secreta", leido.getPassword());
+    }
+
+    @Test
+    public void registerRequest() {
+        RegisterRequestDTO registro = new RegisterRequestDTO("Ana García", "ana", "secreta",
+                "ana@gamelend.com", "Madrid", "Alcalá");
+        String json = "{\"name\":\"Ana García\",\"publicName\":\"ana\",\"password\":\"secreta\","
+                + "\"email\":\"ana@gamelend.com\",\"province\":\"Madrid\",\"city\":\"Alcalá\"}";
+
+        assertJson(json, registro);
+        RegisterRequestDTO leido = gson.fromJson(json, RegisterRequestDTO.class);
+        assertEquals("Ana García", leido.getName());
+        assertEquals("ana", leido.getPublicName());
+        assertEquals("secreta", leido.getPassword());
+        assertEquals("ana@gamelend.com", leido.getEmail());
+        assertEquals("Madrid", leido.getProvince());
+        assertEquals("Alcalá", leido.getCity());
+    }
+
+    @Test
+    public void authResponse() {
+        String json = "{\"token\":\"jwt\",\"nombrePublico\":\"ana\",\"userId\":42,\"roles\":[\"USER\",\"ADMIN\"]}";
+
+        AuthResponseDTO auth = gson.fromJson(json, AuthResponseDTO.class);
+        assertEquals("jwt", auth.getToken());
+        assertEquals("ana", auth.getNombrePublico());
+        assertEquals(42L, auth.getUserId());
+        assertEquals(Arrays.asList("USER", "ADMIN"), auth.getRoles());
+        assertJson(json, auth);
+    }
+
+    @Test
+    public void userDto() {
+        GameDTO juego = new GameDTO(7L, "Zelda", "Switch", "Aventura", "Clásico", "AVAILABLE",
+                42L, 3L, "/img/3.jpg", false, 9L);
+        UserDTO usuario = new UserDTO("Ana García", "ana", "ana@gamelend.com", "Madrid", "Alcalá",
+                "secreta", "2024-01-01T10:00:00", Collections.singletonList(juego), Collections.singletonList("USER"));
+        String json = "{\"name\":\"Ana García\",\"publicName\":\"ana\",\"email\":\"ana@gamelend.com\","
+                + "\"province\":\"Madrid\",\"city\":\"Alcalá\",\"password\":\"secreta\","
+                + "\"registrationDate\":\"2024-01-01T10:00:00\","
+                + "\"games\":[{\"id\":7,\"title\":\"Zelda\",\"platform\":\"Switch\",\"genre\":\"Aventura\","
+                + "\"description\":\"Clásico\",\"status\":\"AVAILABLE\",\"userId\":42,\"imageId\":3,"
+                + "\"imagePath\":\"/img/3.jpg\",\"catalog\":false,\"catalogGameId\":9}],"
+                + "\"roles\":[\"USER\"]}";
+
+        assertJson(json, usuario);
+        UserDTO leido = gson.fromJson(json, UserDTO.class);
+        assertEquals("Ana García", leido.getName());
+        assertEquals("ana", leido.getPublicName());
+        assertEquals("ana@gamelend.com", leido.getEmail());
+        assertEquals("Madrid", leido.getProvince());
+        assertEquals("Alcalá", leido.getCity());
+        assertEquals("secreta", leido.getPassword());
+        assertEquals("2024-01-01T10:00:00", leido.getRegistrationDate());
+        assertEquals("Zelda", leido.getGames().get(0).getTitle());
+        assertEquals(Long.valueOf(9), leido.getGames().get(0).getCatalogGameId());
+        assertEquals(Collections.singletonList("USER"), leido.getRoles());
+    }
+
+    @Test
+    public void userResponse() {
+        String json = "{\"id\":42,\"nombrePublico\":\"ana\",\"email\":\"ana@gamelend.com\",\"provincia\":\"Madrid\","
+                + "\"localidad\":\"Alcalá\",\"fechaRegistro\":\"2024-01-01\",\"imageId\":5}";
+
+        UserResponseDTO usuario = gson.fromJson(json, UserResponseDTO.class);
+        assertEquals(Long.valueOf(42), usuario.getId());
+        assertEquals("ana", usuario.getNombrePublico());
+        assertEquals("ana@gamelend.com", usuario.getEmail());
+        assertEquals("Madrid", usuario.getProvincia());
+        assertEquals("Alcalá", usuario.getLocalidad());
+        assertEquals("2024-01-01", usuario.getFechaRegistro());
+        assertEquals(Long.valueOf(5), usuario.getImageId());
+        assertJson(json, usuario);
+    }
+
+    @Test
+    public void gameResponse() {
+        String json = "{\"id\":7,\"title\":\"Zelda\",\"platform\":\"Switch\",\"genre\":\"Aventura\","
+                + "\"description\":\"Clásico\",\"status\":\"BORROWED\",\"userId\":42,\"userName\":\"ana\","
+                + "\"imageId\":3,\"imagePath\":\"/img/3.jpg\",\"catalog\":true,\"catalogGameId\":9}";
+
+        GameResponseDTO juego = gson.fromJson(json, GameResponseDTO.class);
+        assertEquals(Long.valueOf(7), juego.getId());
+        assertEquals("Zelda", juego.getTitle());
+        assertEquals("Switch", juego.getPlatform());
+        assertEquals("Aventura", juego.getGenre());
+        assertEquals("Clásico", juego.getDescription());
+        assertEquals("BORROWED", juego.getStatus());
+        assertEquals(Long.valueOf(42), juego.getUserId());
+        assertEquals("ana", juego.getUserName());
+        assertEquals(Long.valueOf(3), juego.getImageId());
+        assertEquals("/img/3.jpg", juego.getImagePath());
+        assertTrue(juego.isCatalog());
+        assertEquals(Long.valueOf(9), juego.getCatalogGameId());
+        assertJson(json, juego);
+    }
+
+    @Test
+    public void gameSummary() {
+        String json = "{\"id\":7,\"title\":\"Zelda\",\"platform\":\"Switch\",\"status\":\"AVAILABLE\","
+                + "\"genre\":\"Aventura\",\"imageId\":3}";
+
+        GameSummaryDTO juego = gson.fromJson(json, GameSummaryDTO.class);
+        assertEquals(Long.valueOf(7), juego.getId());
+        assertEquals("Zelda", juego.getTitle());
+        assertEquals("Switch", juego.getPlatform());
+        assertEquals("AVAILABLE", juego.getStatus());
+        assertEquals("Aventura", juego.getGenre());
+        assertEquals(Long.valueOf(3), juego.getImageId());
+        assertJson(json, juego);
+    }
+
+    @Test
+    public void imageResponse() {
+        String json = "{\"id\":3,\"imagePath\":\"/img/3.jpg\"}";
+
+        ImageResponseDTO imagen = gson.fromJson(json, ImageResponseDTO.class);
+        assertEquals(Long.valueOf(3), imagen.getId());
+        assertEquals("/img/3.jpg", imagen.getImagePath());
+        assertJson(json, imagen);
+    }
+
+    @Test
+    public void respuestaGeneralConCuerpo() {
+        Type tipo = new TypeToken<RespuestaGeneral<UserResponseDTO>>() {}.getType();
+        String json = "{\"tipo\":\"usuario\",\"respuesta\":1,\"mensaje\":\"ok\",\"exito\":true,"
+                + "\"cuerpo\":{\"id\":42,\"nombrePublico\":\"ana\"}}";
+
+        RespuestaGeneral<UserResponseDTO> respuesta = gson.fromJson(json, tipo);
+        assertEquals("usuario", respuesta.getTipo());
+        assertEquals(RespuestaGeneral.RESP_OK, respuesta.getRespuesta());
+        assertEquals("ok", respuesta.getMensaje());
+        assertTrue(respuesta.getExito());
+        assertEquals("ana", respuesta.getCuerpo().getNombrePublico());
+        assertJson(json, respuesta, tipo);
+    }
+
+    @Test
+    public void changesConBorrados() {
+        Type tipo = new TypeToken<ChangesDTO<GameSummaryDTO>>() {}.getType();
+        String json = "{\"items\":[{\"id\":7,\"title\":\"Zelda\",\"platform\":\"Switch\",\"status\":\"AVAILABLE\"}],"
+                + "\"deletedIds\":[8,9],\"watermark\":120,\"hasMore\":true}";
+
+        ChangesDTO<GameSummaryDTO> cambios = gson.fromJson(json, tipo);
+        assertEquals("Zelda", cambios.getItems().get(0).getTitle());
+        assertEquals(Arrays.asList(8L, 9L), cambios.getDeletedIds());
+        assertEquals(Long.valueOf(120), cambios.getWatermark());
+        assertTrue(cambios.isHasMore());
+        assertJson(json, cambios, tipo);
+    }
+
+    @Test
+    public void gameStatusComoTexto() {
+        assertEquals(GameStatus.BORROWED, gson.fromJson("\"borrowed\"", GameStatus.class));
+        assertEquals("\"UNAVAILABLE\"", gson.toJson(GameStatus.UNAVAILABLE));
+        assertNull(gson.fromJson("\"DESCONOCIDO\"", GameStatus.class));
+    }
+
+    // Campos que el backend añada más adelante no deben romper la lectura
+    @Test
+    public void losCamposDesconocidosSeIgnoran() {
+        List<UserResponseDTO> usuarios = gson.fromJson(
+                "[{\"id\":1,\"nuevo\":{\"a\":[1,2]},\"nombrePublico\":\"ana\",\"otro\":null}]",
+                new TypeToken<List<UserResponseDTO>>() {}.getType());
+        assertEquals(1, usuarios.size());
+        assertEquals("ana", usuarios.get(0).getNombrePublico());
+    }
+}
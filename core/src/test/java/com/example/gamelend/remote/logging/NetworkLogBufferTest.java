@@ -0,0 +1,53 @@
+package com.example.gamelend.remote.logging;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class NetworkLogBufferTest {
+
+    @Test
+    public void conservaSoloLosUltimosRegistrosEnOrden() {
+        NetworkLogBuffer buffer = new NetworkLogBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(registro("/api/games/" + i));
+        }
+
+        List<NetworkLogRecord> registros = buffer.snapshot();
+        assertEquals(4, registros.size());
+        assertEquals("/api/games/6", registros.get(0).getPath());
+        assertEquals("/api/games/9", registros.get(3).getPath());
+        assertEquals(10, buffer.getTotalRegistrados());
+    }
+
+    @Test
+    public void elInterceptorNoGuardaLosParametrosDeLaRuta() throws Exception {
+        NetworkLogBuffer buffer = new NetworkLogBuffer(4);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new NetworkLoggingInterceptor(buffer, 1, 0))
+                .build();
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.start();
+        try (Response ignored = client.newCall(new Request.Builder()
+                .url(server.url("/api/users/email/ana%40gamelend.com")).build()).execute()) {
+            assertEquals("/api/users/email/{email}", buffer.snapshot().get(0).getPath());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static NetworkLogRecord registro(String path) {
+        return new NetworkLogRecord(0, "GET", path, 200, -1, 10, 5,
+                Collections.<String, String>emptyMap(), null, null);
+    }
+}
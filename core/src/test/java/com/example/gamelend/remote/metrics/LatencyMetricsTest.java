@@ -0,0 +1,42 @@
+package com.example.gamelend.remote.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyMetricsTest {
+
+    @Test
+    public void normalizaLosIdsDeLaRuta() {
+        assertEquals("GET api/games/{id}", LatencyMetrics.normalizar("GET", "/api/games/42"));
+        assertEquals("GET api/users/{id}/complete", LatencyMetrics.normalizar("GET", "/api/users/7/complete"));
+        assertEquals("GET api/users", LatencyMetrics.normalizar("GET", "/api/users"));
+    }
+
+    // Ni una clave por usuario ni direcciones de correo en las métricas exportadas
+    @Test
+    public void losParametrosDeRutaNoSonParteDeLaClave() {
+        assertEquals("GET api/users/email/{email}",
+                LatencyMetrics.normalizar("GET", "/api/users/email/ana%40gamelend.com"));
+        assertEquals("GET api/users/email/{email}",
+                LatencyMetrics.normalizar("GET", "/api/users/email/otro"));
+        assertEquals("GET api/games/{param}",
+                LatencyMetrics.normalizar("GET", "/api/games/3f2a9c1e-77b0-4d1c-9a57-0c5d1b2e8f10"));
+        assertEquals("GET api/games/user/{id}", LatencyMetrics.normalizar("GET", "/api/games/user/9"));
+        assertEquals("api/users/email/{email}", LatencyMetrics.normalizarRuta("/api/users/email/ana%40gamelend.com"));
+    }
+
+    @Test
+    public void percentilesDentroDelErrorDeLaCubeta() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histograma.registrar(ms * 1_000_000L);
+        }
+
+        assertEquals(1000, histograma.getTotal());
+        assertEquals(500, histograma.percentilMs(50), 50);
+        assertEquals(950, histograma.percentilMs(95), 95);
+        assertEquals(990, histograma.percentilMs(99), 99);
+        assertEquals(1000.0, histograma.getMaximoMs(), 0.001);
+    }
+}
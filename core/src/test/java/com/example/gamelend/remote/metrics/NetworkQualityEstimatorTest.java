@@ -0,0 +1,168 @@
+package com.example.gamelend.remote.metrics;
+
+import com.example.gamelend.remote.api.NetworkStack;
+import com.example.gamelend.remote.metrics.NetworkQualityEstimator.Calidad;
+import com.example.gamelend.repository.AdaptiveLoadPolicy;
+import com.example.gamelend.session.TokenStore;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class NetworkQualityEstimatorTest {
+
+    private static final long MS = 1_000_000L;
+
+    // 64 KB en el tiempo dado
+    private static void transferir(NetworkQualityEstimator estimador, long ms) {
+        estimador.registrarTransferencia(64 * 1024, ms * MS);
+    }
+
+    @Test
+    public void clasificaPorAnchoDeBandaYLatencia() {
+        NetworkQualityEstimator wifi = new NetworkQualityEstimator();
+        transferir(wifi, 50);          // ~10 Mbps
+        wifi.registrarLatencia(40 * MS);
+        assertEquals(Calidad.EXCELENTE, wifi.getCalidad());
+
+        NetworkQualityEstimator rural3g = new NetworkQualityEstimator();
+        transferir(rural3g, 5000);     // ~100 kbps
+        assertEquals(Calidad.MALA, rural3g.getCalidad());
+
+        // Buen ancho de banda pero mucha latencia: manda la latencia
+        NetworkQualityEstimator satelite = new NetworkQualityEstimator();
+        satelite.registrarLatencia(700 * MS);
+        transferir(satelite, 100);
+        assertEquals(Calidad.MODERADA, satelite.getCalidad());
+    }
+
+    @Test
+    public void lasRespuestasPequenasNoCuentanComoAnchoDeBanda() {
+        NetworkQualityEstimator estimador = new NetworkQualityEstimator();
+        estimador.registrarTransferencia(NetworkQualityEstimator.BYTES_MINIMOS - 1, 10_000 * MS);
+
+        assertEquals(Calidad.DESCONOCIDA, estimador.getCalidad());
+        assertTrue(estimador.getKbps() < 0);
+    }
+
+    @Test
+    public void soloCambiaDeClaseConVariasMuestrasSeguidas() {
+        NetworkQualityEstimator estimador = new NetworkQualityEstimator();
+        estimador.registrarLatencia(50 * MS);
+        assertEquals(Calidad.EXCELENTE, estimador.getCalidad());
+
+        // Un pico aislado no cambia la clase
+        estimador.registrarLatencia(5000 * MS);
+        estimador.registrarLatencia(50 * MS);
+        estimador.registrarLatencia(50 * MS);
+        estimador.registrarLatencia(50 * MS);
+        assertEquals(Calidad.EXCELENTE, estimador.getCalidad());
+        assertEquals(1, estimador.getCambios());
+
+        // Una red que empeora de verdad sí
+        for (int i = 0; i < 20; i++) {
+            estimador.registrarLatencia(3000 * MS);
+        }
+        assertEquals(Calidad.MALA, estimador.getCalidad());
+    }
+
+    @Test
+    public void laPoliticaPidePaginasMasPequenasYMenosPrecargaEnRedesMalas() {
+        NetworkQualityEstimator estimador = new NetworkQualityEstimator();
+        AdaptiveLoadPolicy politica = new AdaptiveLoadPolicy(estimador);
+        int paginaSinDatos = politica.tamanoPagina();
+
+        transferir(estimador, 5000);
+        assertEquals(Calidad.MALA, politica.getCalidad());
+        int paginaMala = politica.tamanoPagina();
+        int margenMalo = politica.pantallasMargen(true);
+        float escalaMala = politica.escalaImagenes();
+
+        NetworkQualityEstimator wifi = new NetworkQualityEstimator();
+        transferir(wifi, 50);
+        AdaptiveLoadPolicy politicaWifi = new AdaptiveLoadPolicy(wifi);
+
+        assertTrue(paginaMala < paginaSinDatos);
+        assertTrue(paginaMala < politicaWifi.tamanoPagina());
+        assertTrue(margenMalo < politicaWifi.pantallasMargen(true));
+        assertTrue(escalaMala < politicaWifi.escalaImagenes());
+        assertEquals(3, politica.getDecisiones(Calidad.MALA));
+        assertEquals(1, politica.getDecisiones(Calidad.DESCONOCIDA));
+    }
+
+    // El margen se consulta en cada frame de scroll y la escala en cada bind: repetirlos con
+    // la misma clase no son decisiones nuevas; un cambio de clase sí
+    @Test
+    public void lasConsultasRepetidasSoloCuentanAlCambiarDeClase() {
+        NetworkQualityEstimator estimador = new NetworkQualityEstimator();
+        AdaptiveLoadPolicy politica = new AdaptiveLoadPolicy(estimador);
+        for (int frame = 0; frame < 100; frame++) {
+            politica.pantallasMargen(frame % 2 == 0);
+            politica.escalaImagenes();
+        }
+        assertEquals(2, politica.getDecisiones(Calidad.DESCONOCIDA));
+
+        transferir(estimador, 5000);
+        for (int frame = 0; frame < 100; frame++) {
+            politica.pantallasMargen(false);
+        }
+        assertEquals(1, politica.getDecisiones(Calidad.MALA));
+
+        // Cada página pedida sí es una elección
+        politica.tamanoPagina();
+        politica.tamanoPagina();
+        assertEquals(3, politica.getDecisiones(Calidad.MALA));
+    }
+
+    // Las muestras salen de las transferencias reales del cliente compartido
+    @Test
+    public void seAlimentaDelClienteCompartido() throws Exception {
+        byte[] cuerpo = new byte[24 * 1024];
+        Arrays.fill(cuerpo, (byte) 'x');
+        MockWebServer server = new MockWebServer();
+        // ~80 kbps: 1 KB cada 100 ms
+        server.enqueue(new MockResponse().setBody(new String(cuerpo, "UTF-8"))
+                .throttleBody(1024, 100, TimeUnit.MILLISECONDS));
+        server.start();
+        File cacheDir = Files.createTempDirectory("cache").toFile();
+        try {
+            NetworkStack stack = new NetworkStack(server.url("/").toString(), cacheDir, new TokenStore() {
+                @Override
+                public String getAccessToken() {
+                    return "";
+                }
+
+                @Override
+                public String getRefreshToken() {
+                    return "";
+                }
+
+                @Override
+                public void guardarTokens(String accessToken, String refreshToken) {
+                }
+            }, false);
+
+            try (Response respuesta = stack.getClient().newCall(new Request.Builder()
+                    .url(server.url("/api/games")).build()).execute()) {
+                assertEquals(cuerpo.length, respuesta.body().bytes().length);
+            }
+
+            // Una sola transferencia lenta aún no basta para cambiar de clase (la latencia
+            // local es excelente), pero ya baja la estimación del ancho de banda
+            NetworkQualityEstimator estimador = stack.getNetworkQuality();
+            assertTrue(estimador.getKbps() > 0 && estimador.getKbps() < 150);
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.gamelend.remote.stream;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class StreamingListLoaderTest {
+
+    private MockWebServer server;
+    private ApiService api;
+    private final StreamingListLoader<GameSummaryDTO> loader =
+            new StreamingListLoader<>(GsonProvider.get(), GameSummaryDTO.class);
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    // Lo que hace el repositorio: la lista la junta quien escucha
+    private static class Receptor implements StreamingListLoader.Listener<GameSummaryDTO> {
+        final List<Integer> tamanos = new ArrayList<>();
+        final List<GameSummaryDTO> todos = new ArrayList<>();
+        int total = -1;
+        Throwable error;
+
+        @Override
+        public void onBloque(List<GameSummaryDTO> bloque) {
+            tamanos.add(bloque.size());
+            todos.addAll(bloque);
+        }
+
+        @Override
+        public void onCompleto(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+    }
+
+    @Test
+    public void cadaBloqueTraeSoloLosElementosNuevos() {
+        List<GameSummaryDTO> juegos = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            juegos.add(new GameSummaryDTO(id, "Juego " + id, "PS5", "AVAILABLE"));
+        }
+        server.enqueue(new MockResponse().setBody(GsonProvider.get().toJson(juegos)));
+
+        Receptor receptor = new Receptor();
+        loader.cargar(api.getAllGamesStream(), receptor);
+
+        assertNull(receptor.error);
+        assertEquals(1000, receptor.total);
+        // Primer bloque de una pantalla y después cada vez más grandes
+        assertEquals(Integer.valueOf(20), receptor.tamanos.get(0));
+        assertEquals(Integer.valueOf(40), receptor.tamanos.get(1));
+        assertEquals(1000, receptor.todos.size());
+        Set<Long> ids = new HashSet<>();
+        for (GameSummaryDTO juego : receptor.todos) {
+            ids.add(juego.getId());
+        }
+        assertEquals("ningún elemento se entrega dos veces", 1000, ids.size());
+    }
+
+    @Test
+    public void unaRespuestaDeErrorNoEntregaBloques() {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("[]"));
+
+        Receptor receptor = new Receptor();
+        loader.cargar(api.getAllGamesStream(), receptor);
+
+        assertNotNull(receptor.error);
+        assertTrue(receptor.tamanos.isEmpty());
+        assertEquals(-1, receptor.total);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gamelend.remote.upload;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import okhttp3.MediaType;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+public class ProgressRequestBodyTest {
+
+    private static final int TAMANO = 300 * 1024;
+
+    private File file;
+    private byte[] contenido;
+
+    @Before
+    public void setUp() throws IOException {
+        contenido = new byte[TAMANO];
+        new Random(7).nextBytes(contenido);
+        file = File.createTempFile("portada", ".jpg");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(contenido);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void enviaElFicheroCompletoYAvisaDelProgreso() throws IOException {
+        List<Long> progreso = new ArrayList<>();
+        ProgressRequestBody body = new ProgressRequestBody(file, MediaType.get("image/jpeg"),
+                (enviados, total) -> {
+                    assertEquals(TAMANO, total);
+                    progreso.add(enviados);
+                });
+
+        Buffer destino = new Buffer();
+        body.writeTo(destino);
+
+        assertArrayEquals(contenido, destino.readByteArray());
+        assertEquals(TAMANO, body.contentLength());
+        assertEquals(TAMANO, (long) progreso.get(progreso.size() - 1));
+        // Avisos crecientes y como mucho uno por punto porcentual
+        assertTrue(progreso.size() <= 101);
+        for (int i = 1; i < progreso.size(); i++) {
+            assertTrue(progreso.get(i) > progreso.get(i - 1));
+        }
+    }
+}
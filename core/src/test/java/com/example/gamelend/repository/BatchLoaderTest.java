@@ -0,0 +1,182 @@
+package com.example.gamelend.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BatchLoaderTest {
+
+    // Sustituto local del endpoint por lotes: responde desde un mapa y apunta cada lote
+    private static class FakeBatchEndpoint implements BatchLoader.BatchFunction<Long, String> {
+        final List<Set<Long>> lotes = new ArrayList<>();
+        final Map<Long, String> datos = new HashMap<>();
+
+        @Override
+        public synchronized void cargar(Set<Long> claves, RequestCoalescer.Resultado<Map<Long, String>> resultado) {
+            lotes.add(claves);
+            Map<Long, String> respuesta = new HashMap<>();
+            for (Long id : claves) {
+                if (datos.containsKey(id)) {
+                    respuesta.put(id, datos.get(id));
+                }
+            }
+            resultado.onExito(respuesta);
+        }
+    }
+
+    private ScheduledExecutorService scheduler;
+    private FakeBatchEndpoint endpoint;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        endpoint = new FakeBatchEndpoint();
+        for (long id = 1; id <= 20; id++) {
+            endpoint.datos.put(id, "usuario" + id);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void agrupaLasBusquedasDeLaMismaVentanaEnUnLote() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(endpoint, scheduler, 20, 100);
+        Map<Long, String> resultados = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(10);
+
+        for (long id = 1; id <= 10; id++) {
+            loader.cargar(id, guardarEn(resultados, latch));
+        }
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(1, endpoint.lotes.size());
+        assertEquals(10, endpoint.lotes.get(0).size());
+        assertEquals("usuario7", resultados.get(7L));
+    }
+
+    @Test
+    public void noRepiteIdsNiDentroDelLoteNiDespues() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(endpoint, scheduler, 20, 100);
+        Map<Long, String> resultados = new ConcurrentHashMap<>();
+        CountDownLatch primera = new CountDownLatch(3);
+
+        loader.cargar(1L, guardarEn(resultados, primera));
+        loader.cargar(1L, guardarEn(resultados, primera));
+        loader.cargar(2L, guardarEn(resultados, primera));
+        assertTrue(primera.await(2, TimeUnit.SECONDS));
+        assertEquals(2, endpoint.lotes.get(0).size());
+
+        // Ya resuelto: sale de la caché del cargador sin otro lote
+        CountDownLatch segunda = new CountDownLatch(1);
+        loader.cargar(1L, guardarEn(resultados, segunda));
+        assertTrue(segunda.await(2, TimeUnit.SECONDS));
+        assertEquals(1, endpoint.lotes.size());
+    }
+
+    @Test
+    public void partePorTamanoMaximoYAvisaDeLosNoEncontrados() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(endpoint, scheduler, 20, 5);
+        Map<Long, String> resultados = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(7);
+        final List<Long> noEncontrados = new ArrayList<>();
+
+        for (long id = 1; id <= 6; id++) {
+            loader.cargar(id, guardarEn(resultados, latch));
+        }
+        loader.cargar(99L, new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                synchronized (noEncontrados) {
+                    noEncontrados.add(99L);
+                }
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(2, endpoint.lotes.size());
+        assertEquals(6, resultados.size());
+        assertEquals(1, noEncontrados.size());
+    }
+
+    // Sin guardar lo resuelto (la caché la lleva otro) un id ya pedido vuelve a ir en un lote
+    @Test
+    public void sinGuardarLoResueltoVuelveAPedirlo() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>(endpoint, scheduler, 20, 100, false);
+        Map<Long, String> resultados = new ConcurrentHashMap<>();
+
+        CountDownLatch primera = new CountDownLatch(2);
+        loader.cargar(1L, guardarEn(resultados, primera));
+        loader.cargar(1L, guardarEn(resultados, primera));
+        assertTrue(primera.await(2, TimeUnit.SECONDS));
+
+        CountDownLatch segunda = new CountDownLatch(1);
+        loader.cargar(1L, guardarEn(resultados, segunda));
+        assertTrue(segunda.await(2, TimeUnit.SECONDS));
+        assertEquals(2, endpoint.lotes.size());
+        assertEquals(1, endpoint.lotes.get(0).size());
+    }
+
+    @Test
+    public void siLaFuncionDeLoteLanzaSeAvisaATodoElLote() throws Exception {
+        BatchLoader<Long, String> loader = new BatchLoader<>((claves, resultado) -> {
+            throw new IllegalStateException("sin red");
+        }, scheduler, 20, 100);
+        List<Throwable> errores = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        for (long id = 1; id <= 2; id++) {
+            loader.cargar(id, new RequestCoalescer.Resultado<String>() {
+                @Override
+                public void onExito(String valor) {
+                    fail(valor);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    synchronized (errores) {
+                        errores.add(t);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(2, errores.size());
+    }
+
+    private static RequestCoalescer.Resultado<String> guardarEn(Map<Long, String> destino, CountDownLatch latch) {
+        return new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                destino.put(Long.parseLong(valor.substring("usuario".length())), valor);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                latch.countDown();
+            }
+        };
+    }
+}
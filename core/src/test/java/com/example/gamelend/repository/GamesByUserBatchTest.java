@@ -0,0 +1,156 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class GamesByUserBatchTest {
+
+    // Sustituto del backend: el usuario N tiene un juego con id N * 10; el endpoint por lotes
+    // se puede quitar para simular el servidor actual
+    private class Backend extends Dispatcher {
+        final List<String> rutas = new ArrayList<>();
+        volatile boolean conLote = true;
+
+        @Override
+        public MockResponse dispatch(RecordedRequest peticion) {
+            HttpUrl url = peticion.getRequestUrl();
+            synchronized (this) {
+                rutas.add(url.encodedPath());
+            }
+            if (url.encodedPath().equals("/api/games/users")) {
+                if (!conLote) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                StringBuilder json = new StringBuilder("{");
+                for (String id : url.queryParameter("ids").split(",")) {
+                    // El usuario 3 no tiene juegos y el servidor no lo incluye
+                    if (id.equals("3")) {
+                        continue;
+                    }
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append('"').append(id).append("\":").append(juegos(Long.parseLong(id)));
+                }
+                return new MockResponse().setBody(json.append('}').toString());
+            }
+            if (url.encodedPath().startsWith("/api/games/user/")) {
+                long id = Long.parseLong(url.pathSegments().get(3));
+                return new MockResponse().setBody(juegos(id));
+            }
+            return new MockResponse().setResponseCode(404);
+        }
+
+        synchronized int numRutas(String ruta) {
+            int n = 0;
+            for (String r : rutas) {
+                if (r.startsWith(ruta)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    private static String juegos(long userId) {
+        List<GameSummaryDTO> juegos = new ArrayList<>();
+        juegos.add(new GameSummaryDTO(userId * 10, "Juego " + userId, "PS5", "AVAILABLE"));
+        return GsonProvider.get().toJson(juegos);
+    }
+
+    private MockWebServer server;
+    private Backend backend;
+    private GamesByUserBatch lote;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new Backend();
+        server = new MockWebServer();
+        server.setDispatcher(backend);
+        server.start();
+        ApiService api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+        lote = new GamesByUserBatch(api);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private Map<Long, List<GameSummaryDTO>> cargar(Long... ids) throws InterruptedException {
+        Set<Long> claves = new LinkedHashSet<>();
+        for (Long id : ids) {
+            claves.add(id);
+        }
+        AtomicReference<Map<Long, List<GameSummaryDTO>>> valor = new AtomicReference<>();
+        CountDownLatch hecho = new CountDownLatch(1);
+        lote.cargar(claves, new RequestCoalescer.Resultado<Map<Long, List<GameSummaryDTO>>>() {
+            @Override
+            public void onExito(Map<Long, List<GameSummaryDTO>> porUsuario) {
+                valor.set(porUsuario);
+                hecho.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                hecho.countDown();
+            }
+        });
+        assertTrue(hecho.await(5, TimeUnit.SECONDS));
+        return valor.get();
+    }
+
+    @Test
+    public void variosUsuariosVanEnUnaSolaPeticion() throws InterruptedException {
+        Map<Long, List<GameSummaryDTO>> porUsuario = cargar(1L, 2L, 3L);
+
+        assertEquals(1, backend.numRutas("/api/games/users"));
+        assertEquals(0, backend.numRutas("/api/games/user/"));
+        assertEquals(Long.valueOf(20), porUsuario.get(2L).get(0).getId());
+        assertTrue("un usuario que no viene no tiene juegos", porUsuario.get(3L).isEmpty());
+    }
+
+    @Test
+    public void sinEndpointDeLotesSePideCadaUsuarioYSeRecuerda() throws InterruptedException {
+        backend.conLote = false;
+
+        Map<Long, List<GameSummaryDTO>> porUsuario = cargar(1L, 2L);
+        assertEquals(2, porUsuario.size());
+        assertEquals(Long.valueOf(10), porUsuario.get(1L).get(0).getId());
+        assertFalse(lote.isLoteDisponible());
+
+        // Las siguientes ya no prueban el lote
+        cargar(4L, 5L);
+        assertEquals(1, backend.numRutas("/api/games/users"));
+        assertEquals(4, backend.numRutas("/api/games/user/"));
+    }
+}
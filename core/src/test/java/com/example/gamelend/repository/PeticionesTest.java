@@ -0,0 +1,212 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class PeticionesTest {
+
+    private static final int CICLOS = 300;
+
+    // Lo que retendría una pantalla real: el ViewModel con sus datos y la Activity detrás
+    private static class Pantalla {
+        final byte[] peso = new byte[256 * 1024];
+        final Peticiones peticiones = new Peticiones();
+        final AtomicInteger respuestas = new AtomicInteger();
+
+        void cargar(UserPagingSource fuente, int pagina) {
+            peticiones.lanzar(r -> fuente.cargar(pagina, r), new RequestCoalescer.Resultado<List<UserResponseDTO>>() {
+                @Override
+                public void onExito(List<UserResponseDTO> usuarios) {
+                    respuestas.incrementAndGet();
+                    peso[0]++;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    respuestas.incrementAndGet();
+                    peso[0]++;
+                }
+            });
+        }
+    }
+
+    // Servidor que no contesta hasta el final del test: todas las llamadas siguen en vuelo
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private MockWebServer server;
+    private OkHttpClient client;
+    private File file;
+    private UserPagingSource fuente;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest peticion) throws InterruptedException {
+                liberar.await();
+                return new MockResponse().setBody("[]");
+            }
+        });
+        server.start();
+        client = new OkHttpClient();
+        ApiService api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+
+        file = File.createTempFile("usuarios", ".json");
+        file.delete();
+        LocalStore<UserResponseDTO> store = new LocalStore<>(file, GsonProvider.get(),
+                new TypeToken<List<UserResponseDTO>>() {}.getType(), UserResponseDTO::getId, Runnable::run);
+        fuente = new UserPagingSource(api, store, Runnable::run, "token", 30);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        liberar.countDown();
+        client.dispatcher().cancelAll();
+        server.shutdown();
+        file.delete();
+        new File(file.getPath() + ".log").delete();
+    }
+
+    @Test
+    public void abrirYCerrarLaPantallaCientosDeVecesNoDejaNadaRetenido() throws Exception {
+        List<WeakReference<Pantalla>> cerradas = new ArrayList<>();
+        int respuestas = 0;
+
+        for (int i = 0; i < CICLOS; i++) {
+            Pantalla pantalla = new Pantalla();
+            // Primera página (compartida entre ciclos) y una propia de cada ciclo
+            pantalla.cargar(fuente, 0);
+            pantalla.cargar(fuente, i + 1);
+            assertEquals(2, pantalla.peticiones.getEnCurso());
+
+            // onCleared
+            pantalla.peticiones.cerrar();
+            assertEquals(0, pantalla.peticiones.getEnCurso());
+            respuestas += pantalla.respuestas.get();
+            cerradas.add(new WeakReference<>(pantalla));
+        }
+
+        assertEquals(0, respuestas);
+        assertEquals(0, RequestCoalescer.getInstance().getEnVuelo());
+        esperarHasta(() -> client.dispatcher().runningCallsCount() == 0
+                && client.dispatcher().queuedCallsCount() == 0);
+
+        esperarHasta(() -> {
+            System.gc();
+            for (WeakReference<Pantalla> ref : cerradas) {
+                if (ref.get() != null) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Test
+    public void unaLlamadaCompartidaSoloSeCortaCuandoSeVaElUltimo() {
+        List<RequestCoalescer.Resultado<String>> lanzadas = new ArrayList<>();
+        AtomicInteger cortadas = new AtomicInteger();
+        RequestCoalescer.Ejecucion<String> ejecucion = r -> {
+            lanzadas.add(r);
+            return cortadas::incrementAndGet;
+        };
+        List<String> recibidas = new ArrayList<>();
+        Peticiones pantallaA = new Peticiones();
+        Peticiones pantallaB = new Peticiones();
+
+        pantallaA.lanzar(r -> RequestCoalescer.getInstance().ejecutar("GET compartida", ejecucion, r),
+                apuntarEn(recibidas, "A"));
+        pantallaB.lanzar(r -> RequestCoalescer.getInstance().ejecutar("GET compartida", ejecucion, r),
+                apuntarEn(recibidas, "B"));
+        assertEquals(1, lanzadas.size());
+
+        pantallaA.cerrar();
+        assertEquals(0, cortadas.get());
+
+        lanzadas.get(0).onExito("ok");
+        assertEquals(1, recibidas.size());
+        assertEquals("B:ok", recibidas.get(0));
+
+        // Con un único suscriptor, irse corta la llamada
+        Peticiones pantallaC = new Peticiones();
+        pantallaC.lanzar(r -> RequestCoalescer.getInstance().ejecutar("GET compartida", ejecucion, r),
+                apuntarEn(recibidas, "C"));
+        pantallaC.cerrar();
+        assertEquals(1, cortadas.get());
+        lanzadas.get(1).onExito("tarde");
+        assertEquals(1, recibidas.size());
+        assertEquals(0, RequestCoalescer.getInstance().getEnVuelo());
+    }
+
+    @Test
+    public void trasCerrarNoSeLanzaNada() {
+        Peticiones peticiones = new Peticiones();
+        peticiones.cerrar();
+        AtomicInteger lanzadas = new AtomicInteger();
+
+        Cancelable cancelable = peticiones.lanzar(r -> {
+            lanzadas.incrementAndGet();
+            return null;
+        }, apuntarEn(new ArrayList<>(), "X"));
+
+        assertEquals(0, lanzadas.get());
+        assertEquals(0, peticiones.getEnCurso());
+        cancelable.cancelar();
+    }
+
+    private interface Condicion {
+        boolean cumplida();
+    }
+
+    private static void esperarHasta(Condicion condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.cumplida()) {
+            assertTrue("La condición no se cumplió a tiempo", System.currentTimeMillis() < limite);
+            Thread.sleep(20);
+        }
+    }
+
+    private static RequestCoalescer.Resultado<String> apuntarEn(List<String> recibidas, String quien) {
+        return new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                recibidas.add(quien + ":" + valor);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                recibidas.add(quien + ":error");
+            }
+        };
+    }
+}
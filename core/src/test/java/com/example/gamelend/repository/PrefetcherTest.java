@@ -0,0 +1,228 @@
+package com.example.gamelend.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PrefetcherTest {
+
+    private static final long PERMANENCIA_MS = 30;
+
+    // Sustituto del endpoint: las respuestas se quedan pendientes hasta que el test las resuelve
+    private static class FakeFetcher implements Prefetcher.Fetcher<Long, String> {
+        final Map<Long, RequestCoalescer.Resultado<String>> pendientes = new HashMap<>();
+        final List<Long> pedidas = new ArrayList<>();
+        final List<Long> canceladas = new ArrayList<>();
+        // Como un fetcher cuya llamada no se puede cortar
+        boolean sinCancelacion;
+        // Como un fetcher que falla al lanzar (p. ej. sin ApiService)
+        boolean fallaAlLanzar;
+
+        @Override
+        public synchronized Cancelable cargar(Long clave, RequestCoalescer.Resultado<String> resultado) {
+            pedidas.add(clave);
+            if (fallaAlLanzar) {
+                throw new IllegalStateException("sin red");
+            }
+            pendientes.put(clave, resultado);
+            if (sinCancelacion) {
+                return null;
+            }
+            return () -> {
+                synchronized (FakeFetcher.this) {
+                    canceladas.add(clave);
+                }
+            };
+        }
+
+        void responder(Long clave) {
+            RequestCoalescer.Resultado<String> resultado;
+            synchronized (this) {
+                resultado = pendientes.remove(clave);
+            }
+            resultado.onExito("juegos" + clave);
+        }
+
+        synchronized int numPedidas() {
+            return pedidas.size();
+        }
+
+        synchronized int numCanceladas() {
+            return canceladas.size();
+        }
+    }
+
+    private ScheduledExecutorService scheduler;
+    private FakeFetcher fetcher;
+    private Prefetcher<Long, String> prefetcher;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        fetcher = new FakeFetcher();
+        prefetcher = new Prefetcher<>(fetcher, scheduler, PERMANENCIA_MS, 2, 50, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void precargaLoQueSigueVisibleYLoSirveDeCache() throws Exception {
+        prefetcher.visible(1L);
+        esperarPedidas(1);
+        fetcher.responder(1L);
+
+        AtomicReference<String> valor = new AtomicReference<>();
+        prefetcher.obtener(1L, guardarEn(valor));
+
+        assertEquals("juegos1", valor.get());
+        assertEquals(1, fetcher.numPedidas());
+        assertEquals(1, prefetcher.getAciertos());
+        assertEquals(0, prefetcher.getFallos());
+    }
+
+    @Test
+    public void noPideLoQueSaleDePantallaAntesDeTiempo() throws Exception {
+        prefetcher.visible(1L);
+        prefetcher.oculto(1L);
+
+        Thread.sleep(PERMANENCIA_MS * 3);
+        assertEquals(0, fetcher.numPedidas());
+    }
+
+    @Test
+    public void cancelaLaPrecargaEnVueloAlSalirDePantalla() throws Exception {
+        prefetcher.visible(1L);
+        esperarPedidas(1);
+        prefetcher.oculto(1L);
+
+        // Si se oculta mientras se está lanzando, la cancelación llega justo después
+        esperarHasta(() -> fetcher.numCanceladas() == 1);
+        assertEquals(1, prefetcher.getCanceladas());
+
+        // La respuesta tardía de una carga cancelada no entra en la caché
+        fetcher.responder(1L);
+        AtomicReference<String> valor = new AtomicReference<>();
+        prefetcher.obtener(1L, guardarEn(valor));
+        assertEquals(1, prefetcher.getFallos());
+        assertEquals(2, fetcher.numPedidas());
+    }
+
+    @Test
+    public void respetaElMaximoDeCargasSimultaneas() throws Exception {
+        for (long id = 1; id <= 5; id++) {
+            prefetcher.visible(id);
+        }
+        esperarPedidas(2);
+        Thread.sleep(PERMANENCIA_MS * 2);
+        assertEquals(2, fetcher.numPedidas());
+
+        // Al terminar una entra la siguiente de la cola
+        fetcher.responder(fetcher.pedidas.get(0));
+        esperarPedidas(3);
+        assertEquals(3, fetcher.numPedidas());
+    }
+
+    @Test
+    public void ocultarLiberaElHuecoAunqueLaCargaNoSePuedaCortar() throws Exception {
+        fetcher.sinCancelacion = true;
+        for (long id = 1; id <= 3; id++) {
+            prefetcher.visible(id);
+        }
+        esperarPedidas(2);
+        Thread.sleep(PERMANENCIA_MS * 2);
+        assertEquals(2, fetcher.numPedidas());
+
+        prefetcher.oculto(fetcher.pedidas.get(0));
+
+        // La tercera entra sin esperar a que termine ninguna de las dos primeras
+        esperarPedidas(3);
+        assertEquals(1, prefetcher.getCanceladas());
+    }
+
+    @Test
+    public void obtenerSeUneALaPrecargaEnVueloYYaNoSeCancela() throws Exception {
+        prefetcher.visible(1L);
+        esperarPedidas(1);
+
+        AtomicReference<String> valor = new AtomicReference<>();
+        prefetcher.obtener(1L, guardarEn(valor));
+        prefetcher.oculto(1L);
+        fetcher.responder(1L);
+
+        assertEquals("juegos1", valor.get());
+        assertEquals(1, fetcher.numPedidas());
+        assertEquals(1, prefetcher.getAciertosEnVuelo());
+        assertEquals(0, prefetcher.getCanceladas());
+    }
+
+    @Test
+    public void unFalloAlLanzarAvisaYLiberaElHueco() throws Exception {
+        fetcher.fallaAlLanzar = true;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        prefetcher.obtener(9L, new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                fail();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+            }
+        });
+        assertTrue(error.get() instanceof IllegalStateException);
+
+        for (long id = 1; id <= 3; id++) {
+            prefetcher.visible(id);
+        }
+        // Las precargas que fallan no se quedan con los dos huecos
+        esperarPedidas(4);
+        fetcher.fallaAlLanzar = false;
+        prefetcher.obtener(9L, guardarEn(new AtomicReference<>()));
+        assertEquals(5, fetcher.numPedidas());
+    }
+
+    private interface Condicion {
+        boolean cumplida();
+    }
+
+    private void esperarPedidas(int n) throws InterruptedException {
+        esperarHasta(() -> fetcher.numPedidas() >= n);
+    }
+
+    private static void esperarHasta(Condicion condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 2000;
+        while (!condicion.cumplida() && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(condicion.cumplida());
+    }
+
+    private static RequestCoalescer.Resultado<String> guardarEn(AtomicReference<String> destino) {
+        return new RequestCoalescer.Resultado<String>() {
+            @Override
+            public void onExito(String valor) {
+                destino.set(valor);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.gamelend.repository;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    // Apunta lo que recibe; opcionalmente falla al recibirlo
+    private static class Receptor implements RequestCoalescer.Resultado<String> {
+        final List<String> valores = new ArrayList<>();
+        final List<Throwable> errores = new ArrayList<>();
+        boolean fallar;
+
+        @Override
+        public void onExito(String valor) {
+            valores.add(valor);
+            if (fallar) {
+                throw new IllegalStateException("fallo del suscriptor");
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errores.add(t);
+            if (fallar) {
+                throw new IllegalStateException("fallo del suscriptor");
+            }
+        }
+    }
+
+    @Test
+    public void unLanzamientoQueFallaLiberaLaClaveYAvisaConError() {
+        Receptor receptor = new Receptor();
+
+        coalescer.ejecutar("GET api/games", resultado -> {
+            throw new IllegalStateException("sin ApiService");
+        }, receptor);
+
+        assertEquals(0, coalescer.getEnVuelo());
+        assertEquals(1, receptor.errores.size());
+        assertEquals("sin ApiService", receptor.errores.get(0).getMessage());
+
+        // La siguiente petición con la misma clave lanza su propia llamada
+        List<RequestCoalescer.Resultado<String>> lanzadas = new ArrayList<>();
+        Receptor otro = new Receptor();
+        coalescer.ejecutar("GET api/games", resultado -> {
+            lanzadas.add(resultado);
+            return null;
+        }, otro);
+        assertEquals(1, lanzadas.size());
+        lanzadas.get(0).onExito("juegos");
+        assertEquals(1, otro.valores.size());
+    }
+
+    @Test
+    public void unSuscriptorQueLanzaNoDejaSinAvisoALosDemas() {
+        List<RequestCoalescer.Resultado<String>> lanzadas = new ArrayList<>();
+        Receptor primero = new Receptor();
+        Receptor roto = new Receptor();
+        Receptor ultimo = new Receptor();
+        roto.fallar = true;
+
+        RequestCoalescer.Ejecucion<String> ejecucion = resultado -> {
+            lanzadas.add(resultado);
+            return null;
+        };
+        coalescer.ejecutar("GET api/users/1", ejecucion, primero);
+        coalescer.ejecutar("GET api/users/1", ejecucion, roto);
+        coalescer.ejecutar("GET api/users/1", ejecucion, ultimo);
+        assertEquals(1, lanzadas.size());
+
+        try {
+            lanzadas.get(0).onExito("ana");
+            fail("el fallo del suscriptor debe seguir viéndose");
+        } catch (IllegalStateException e) {
+            assertEquals("fallo del suscriptor", e.getMessage());
+        }
+
+        assertEquals(1, primero.valores.size());
+        assertEquals(1, roto.valores.size());
+        assertEquals(1, ultimo.valores.size());
+        assertEquals(0, coalescer.getEnVuelo());
+    }
+}
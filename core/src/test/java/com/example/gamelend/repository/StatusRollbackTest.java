@@ -0,0 +1,196 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.GameResponseDTO;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.outbox.OutboxEntry;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatusRollbackTest {
+
+    // Hilo principal manual: los avisos se quedan aquí hasta que el test los entrega
+    private final List<Runnable> principal = new ArrayList<>();
+
+    private File juegosFile;
+    private File detallesFile;
+    private LocalStore<GameSummaryDTO> juegos;
+    private LocalStore<GameResponseDTO> detalles;
+    private StatusRollback rollback;
+
+    private final List<StatusRollback.EstadoRevertido> recibidos = new ArrayList<>();
+    private final StatusRollback.Listener pantalla = recibidos::add;
+
+    @Before
+    public void setUp() throws IOException {
+        juegosFile = File.createTempFile("juegos", ".json");
+        juegosFile.delete();
+        detallesFile = File.createTempFile("detalles", ".json");
+        detallesFile.delete();
+        juegos = new LocalStore<>(juegosFile, GsonProvider.get(),
+                new TypeToken<List<GameSummaryDTO>>() {}.getType(), GameSummaryDTO::getId, Runnable::run);
+        detalles = new LocalStore<>(detallesFile, GsonProvider.get(),
+                new TypeToken<List<GameResponseDTO>>() {}.getType(), GameResponseDTO::getId, Runnable::run);
+        rollback = new StatusRollback(juegos, detalles, principal::add);
+
+        juegos.guardar(new GameSummaryDTO(7L, "Zelda", "Switch", "BORROWED"));
+        GameResponseDTO detalle = new GameResponseDTO();
+        detalle.setId(7L);
+        detalle.setTitle("Zelda");
+        detalle.setStatus("BORROWED");
+        detalles.guardar(detalle);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : new File[]{juegosFile, detallesFile}) {
+            file.delete();
+            new File(file.getPath() + ".log").delete();
+        }
+    }
+
+    private void vaciarPrincipal() {
+        while (!principal.isEmpty()) {
+            principal.remove(0).run();
+        }
+    }
+
+    // Cambio de estado AVAILABLE -> BORROWED que el servidor no acepta
+    private OutboxEntry cambioRechazado() {
+        OutboxEntry entrada = new OutboxEntry(1L, OutboxEntry.Operacion.ACTUALIZAR, 7L, null, 0);
+        entrada.setEstadoAnterior("AVAILABLE");
+        return entrada;
+    }
+
+    @Test
+    public void unRechazoVuelveAlEstadoAnteriorYAvisaUnaVez() {
+        rollback.agregarListener(pantalla);
+
+        rollback.aplicarRechazo(cambioRechazado(), null);
+        assertTrue("el aviso espera al hilo principal", recibidos.isEmpty());
+        vaciarPrincipal();
+
+        assertEquals("AVAILABLE", juegos.leer(7L).getStatus());
+        assertEquals("AVAILABLE", detalles.leer(7L).getStatus());
+        assertEquals(1, recibidos.size());
+        assertEquals(Long.valueOf(7), recibidos.get(0).getGameId());
+        assertEquals("AVAILABLE", recibidos.get(0).getEstado());
+        assertFalse(recibidos.get(0).isConflicto());
+    }
+
+    @Test
+    public void unaEdicionRechazadaVuelveALaVersionDelServidor() {
+        rollback.agregarListener(pantalla);
+        // El usuario había cambiado el título en local
+        juegos.guardar(new GameSummaryDTO(7L, "Zelda (editado)", "Switch", "BORROWED"));
+        OutboxEntry edicion = new OutboxEntry(1L, OutboxEntry.Operacion.ACTUALIZAR, 7L, null, 0);
+        GameResponseDTO servidor = new GameResponseDTO();
+        servidor.setId(7L);
+        servidor.setTitle("Zelda");
+        servidor.setPlatform("Switch");
+        servidor.setGenre("Aventura");
+        servidor.setStatus("BORROWED");
+
+        assertTrue(rollback.aplicarRechazo(edicion, servidor));
+        vaciarPrincipal();
+
+        assertEquals("Zelda", juegos.leer(7L).getTitle());
+        assertEquals("Aventura", juegos.leer(7L).getGenre());
+        assertEquals("Zelda", detalles.leer(7L).getTitle());
+        assertTrue("no era un cambio de estado", recibidos.isEmpty());
+    }
+
+    @Test
+    public void sinLaVersionDelServidorLaEdicionRechazadaPideDescargarDeNuevo() {
+        OutboxEntry edicion = new OutboxEntry(1L, OutboxEntry.Operacion.ACTUALIZAR, 7L, null, 0);
+
+        assertFalse(rollback.aplicarRechazo(edicion, null));
+
+        assertNull(detalles.leer(7L));
+    }
+
+    @Test
+    public void siSeRechazaUnaEdicionConUnCambioDeEstadoSumadoTambienSeAvisa() {
+        rollback.agregarListener(pantalla);
+        OutboxEntry edicion = new OutboxEntry(1L, OutboxEntry.Operacion.ACTUALIZAR, 7L, null, 0);
+        edicion.setEstadoOriginal("AVAILABLE");
+
+        assertFalse("el resto de la edición no se puede deshacer sin el servidor",
+                rollback.aplicarRechazo(edicion, null));
+        vaciarPrincipal();
+
+        assertEquals("AVAILABLE", juegos.leer(7L).getStatus());
+        assertEquals(1, recibidos.size());
+        assertEquals("AVAILABLE", recibidos.get(0).getEstado());
+    }
+
+    @Test
+    public void siSeRechazaUnAltaConUnCambioDeEstadoSumadoTambienSeAvisa() {
+        rollback.agregarListener(pantalla);
+        OutboxEntry alta = new OutboxEntry(1L, OutboxEntry.Operacion.CREAR, 7L, null, 0);
+        alta.setEstadoOriginal("AVAILABLE");
+
+        assertTrue(rollback.aplicarRechazo(alta, null));
+        vaciarPrincipal();
+
+        assertNull(juegos.leer(7L));
+        assertEquals(1, recibidos.size());
+    }
+
+    @Test
+    public void unConflictoAplicaLaVersionDelServidor() {
+        rollback.agregarListener(pantalla);
+        GameResponseDTO servidor = new GameResponseDTO();
+        servidor.setId(7L);
+        servidor.setTitle("Zelda");
+        servidor.setStatus("UNAVAILABLE");
+        servidor.setUserName("ana");
+
+        rollback.aplicarConflicto(servidor);
+        vaciarPrincipal();
+
+        assertEquals("UNAVAILABLE", juegos.leer(7L).getStatus());
+        assertEquals("ana", detalles.leer(7L).getUserName());
+        assertEquals(1, recibidos.size());
+        assertEquals("UNAVAILABLE", recibidos.get(0).getEstado());
+        assertTrue(recibidos.get(0).isConflicto());
+    }
+
+    @Test
+    public void unaPantallaQueSeAbreDespuesNoRecibeAvisosViejos() {
+        rollback.agregarListener(pantalla);
+        rollback.aplicarRechazo(cambioRechazado(), null);
+        vaciarPrincipal();
+        rollback.quitarListener(pantalla);
+
+        List<StatusRollback.EstadoRevertido> nueva = new ArrayList<>();
+        rollback.agregarListener(nueva::add);
+        vaciarPrincipal();
+
+        assertTrue(nueva.isEmpty());
+        assertEquals(1, recibidos.size());
+    }
+
+    @Test
+    public void unaPantallaCerradaAntesDeLaEntregaNoRecibeNada() {
+        rollback.agregarListener(pantalla);
+        rollback.aplicarRechazo(cambioRechazado(), null);
+
+        rollback.quitarListener(pantalla);
+        vaciarPrincipal();
+
+        assertTrue(recibidos.isEmpty());
+        assertEquals("el estado local se deshace igualmente", "AVAILABLE", juegos.leer(7L).getStatus());
+    }
+}
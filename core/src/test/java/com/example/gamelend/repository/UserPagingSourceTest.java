@@ -0,0 +1,126 @@
+package com.example.gamelend.repository;
+
+import com.example.gamelend.dto.UserResponseDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class UserPagingSourceTest {
+
+    private static final int TOTAL_USUARIOS = 1000;
+
+    // Ejecutor de disco manual: permite comprobar que nada se escribe en el hilo de la respuesta
+    private final List<Runnable> disco = new ArrayList<>();
+
+    private MockWebServer server;
+    private File file;
+    private LocalStore<UserResponseDTO> store;
+    private UserPagingSource fuente;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest peticion) {
+                HttpUrl url = peticion.getRequestUrl();
+                int pagina = Integer.parseInt(url.queryParameter("page"));
+                int tamano = Integer.parseInt(url.queryParameter("size"));
+                List<UserResponseDTO> usuarios = new ArrayList<>();
+                for (long id = (long) pagina * tamano + 1; id <= Math.min((pagina + 1) * tamano, TOTAL_USUARIOS); id++) {
+                    usuarios.add(new UserResponseDTO(id, "Usuario " + id, "u" + id + "@gamelend.com",
+                            "Madrid", "Madrid", "2024-01-01"));
+                }
+                return new MockResponse().setBody(GsonProvider.get().toJson(usuarios));
+            }
+        });
+        server.start();
+        ApiService api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+
+        file = File.createTempFile("usuarios", ".json");
+        file.delete();
+        store = new LocalStore<>(file, GsonProvider.get(), new TypeToken<List<UserResponseDTO>>() {}.getType(),
+                UserResponseDTO::getId, Runnable::run);
+        fuente = new UserPagingSource(api, store, disco::add, "token", 30);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        file.delete();
+        new File(file.getPath() + ".log").delete();
+    }
+
+    private void cargar(int pagina) throws InterruptedException {
+        CountDownLatch recibida = new CountDownLatch(1);
+        fuente.cargar(pagina, new RequestCoalescer.Resultado<List<UserResponseDTO>>() {
+            @Override
+            public void onExito(List<UserResponseDTO> usuarios) {
+                recibida.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t.toString());
+            }
+        });
+        assertTrue(recibida.await(5, TimeUnit.SECONDS));
+    }
+
+    private void vaciarDisco() {
+        while (!disco.isEmpty()) {
+            disco.remove(0).run();
+        }
+    }
+
+    @Test
+    public void soloSeGuardanLasPrimerasFilasDelDirectorio() throws InterruptedException {
+        for (int pagina = 0; pagina < 10; pagina++) {
+            cargar(pagina);
+        }
+        assertTrue("la escritura espera al hilo de disco", store.estaVacio());
+
+        vaciarDisco();
+        assertEquals(UserPagingSource.MAX_FILAS_GUARDADAS, store.tamano());
+        List<UserResponseDTO> guardados = store.leerPrimeros(UserPagingSource.MAX_FILAS_GUARDADAS);
+        assertEquals(Long.valueOf(1), guardados.get(0).getId());
+        assertEquals(Long.valueOf(UserPagingSource.MAX_FILAS_GUARDADAS), guardados.get(guardados.size() - 1).getId());
+    }
+
+    @Test
+    public void laPrimeraPaginaSustituyeLoGuardado() throws InterruptedException {
+        store.guardar(new UserResponseDTO(5000L, "Ya no está", "x@gamelend.com", "Madrid", "Madrid", "2024-01-01"));
+
+        cargar(0);
+        vaciarDisco();
+
+        assertNull(store.leer(5000L));
+        assertEquals(30, store.tamano());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.gamelend.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex indice;
+
+    @Before
+    public void setUp() {
+        indice = new SearchIndex();
+        indice.indexar(1L, "Pokémon Escarlata", "Switch", "RPG");
+        indice.indexar(2L, "The Legend of Zelda", "Switch", "Aventura");
+        indice.indexar(3L, "Ni no Kuni", "PS4", "Rol");
+        indice.indexar(4L, "Año de la Niña", "PC", "Simulación");
+        indice.indexar(5L, "Super Mario Odyssey", "Switch", "Plataformas");
+    }
+
+    @Test
+    public void buscaPorPrefijoSinTildesNiMayusculas() {
+        assertEquals(Collections.singletonList(1L), indice.buscar("POKEMON", 10));
+        assertEquals(Collections.singletonList(4L), indice.buscar("nina", 10));
+        assertEquals(Collections.singletonList(4L), indice.buscar("simulacion", 10));
+        assertEquals(Collections.singletonList(2L), indice.buscar("zel", 10));
+    }
+
+    @Test
+    public void todasLasPalabrasTienenQueAparecer() {
+        assertEquals(Collections.singletonList(5L), indice.buscar("switch mario", 10));
+        assertTrue(indice.buscar("switch kuni", 10).isEmpty());
+    }
+
+    @Test
+    public void tambienEncuentraTextoEnMedioDeUnaPalabraPeroLoPoneDetras() {
+        indice.indexar(6L, "Monster Hunter", "PC", "Acción");
+        // "mon" empieza el título de 6 y está en medio de "pokemon"
+        assertEquals(Arrays.asList(6L, 1L), indice.buscar("mon", 10));
+        // Empates (todos por la plataforma): por título
+        assertEquals(Arrays.asList(1L, 5L, 2L), indice.buscar("switch", 10));
+    }
+
+    @Test
+    public void seActualizaSinReconstruir() {
+        indice.indexar(2L, "Breath of the Wild", "Switch", "Aventura");
+        assertTrue(indice.buscar("zelda", 10).isEmpty());
+        assertEquals(Collections.singletonList(2L), indice.buscar("wild", 10));
+
+        indice.eliminar(5L);
+        assertTrue(indice.buscar("mario", 10).isEmpty());
+
+        indice.retener(Arrays.asList(1L, 2L));
+        assertEquals(2, indice.tamano());
+        assertTrue(indice.buscar("kuni", 10).isEmpty());
+    }
+
+    @Test
+    public void respetaElMaximoYLasPalabrasLargas() {
+        assertEquals(2, indice.buscar("s", 2).size());
+        indice.indexar(7L, "Xenoblade Chronicles", "Switch", "RPG");
+        assertEquals(Collections.singletonList(7L), indice.buscar("chronicles", 10));
+        assertEquals(Collections.singletonList(7L), indice.buscar("xenoblade", 10));
+        assertTrue(indice.buscar("chroniclesx", 10).isEmpty());
+        assertTrue(indice.buscar("  ", 10).isEmpty());
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.gamelend.sync;
+
+import com.example.gamelend.dto.ChangesDTO;
+import com.example.gamelend.dto.GameSummaryDTO;
+import com.example.gamelend.local.LocalStore;
+import com.example.gamelend.remote.api.ApiService;
+import com.example.gamelend.remote.json.GsonProvider;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class DeltaSyncTest {
+
+    private static final long UN_DIA_MS = 24L * 60 * 60 * 1000;
+
+    // Backend mínimo con versiones: cada cambio o borrado sube el contador y guarda en qué
+    // versión ocurrió. Los borrados más antiguos que "retencion" se olvidan (410 al pedirlos).
+    private static class ServidorCambios extends Dispatcher {
+        final Map<Long, GameSummaryDTO> juegos = new LinkedHashMap<>();
+        final Map<Long, Long> versionJuego = new HashMap<>();
+        final Map<Long, Long> borrados = new HashMap<>();
+        long version = 0;
+        long retencion = 0;
+        int porPagina = 100;
+
+        synchronized void guardar(long id, String titulo) {
+            version++;
+            juegos.put(id, new GameSummaryDTO(id, titulo, "Switch", "AVAILABLE"));
+            versionJuego.put(id, version);
+            borrados.remove(id);
+        }
+
+        synchronized void borrar(long id) {
+            version++;
+            juegos.remove(id);
+            versionJuego.remove(id);
+            borrados.put(id, version);
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest peticion) {
+            HttpUrl url = peticion.getRequestUrl();
+            String since = url.queryParameter("since");
+            ChangesDTO<GameSummaryDTO> cambios = new ChangesDTO<>();
+            if (since == null) {
+                cambios.setWatermark(version);
+                return json(cambios);
+            }
+            long desde = Long.parseLong(since);
+            if (desde < retencion) {
+                return new MockResponse().setResponseCode(410);
+            }
+            // Cambios y borrados en orden de versión, por páginas
+            List<long[]> eventos = new ArrayList<>();
+            for (Map.Entry<Long, Long> e : versionJuego.entrySet()) {
+                if (e.getValue() > desde) {
+                    eventos.add(new long[]{e.getValue(), e.getKey(), 0});
+                }
+            }
+            for (Map.Entry<Long, Long> e : borrados.entrySet()) {
+                if (e.getValue() > desde) {
+                    eventos.add(new long[]{e.getValue(), e.getKey(), 1});
+                }
+            }
+            eventos.sort((a, b) -> Long.compare(a[0], b[0]));
+            long marca = desde;
+            for (int i = 0; i < Math.min(porPagina, eventos.size()); i++) {
+                long[] evento = eventos.get(i);
+                if (evento[2] == 0) {
+                    cambios.getItems().add(juegos.get(evento[1]));
+                } else {
+                    cambios.getDeletedIds().add(evento[1]);
+                }
+                marca = evento[0];
+            }
+            cambios.setHasMore(eventos.size() > porPagina);
+            cambios.setWatermark(eventos.isEmpty() ? version : marca);
+            return json(cambios);
+        }
+
+        private static MockResponse json(ChangesDTO<GameSummaryDTO> cambios) {
+            return new MockResponse().setBody(GsonProvider.get().toJson(cambios,
+                    new TypeToken<ChangesDTO<GameSummaryDTO>>() {}.getType()));
+        }
+    }
+
+    private static class MarcasEnMemoria implements DeltaSync.Marcas {
+        final Map<String, long[]> marcas = new HashMap<>();
+
+        @Override
+        public Long leer(String coleccion) {
+            long[] par = marcas.get(coleccion);
+            return par != null ? par[0] : null;
+        }
+
+        @Override
+        public long leerGuardadaMs(String coleccion) {
+            long[] par = marcas.get(coleccion);
+            return par != null ? par[1] : 0;
+        }
+
+        @Override
+        public void guardar(String coleccion, long marca, long guardadaMs) {
+            marcas.put(coleccion, new long[]{marca, guardadaMs});
+        }
+
+        @Override
+        public void borrar(String coleccion) {
+            marcas.remove(coleccion);
+        }
+    }
+
+    private MockWebServer server;
+    private ServidorCambios backend;
+    private ApiService api;
+    private File file;
+    private LocalStore<GameSummaryDTO> store;
+    private MarcasEnMemoria marcas;
+    private DeltaSync<GameSummaryDTO> sync;
+
+    @Before
+    public void setUp() throws IOException {
+        backend = new ServidorCambios();
+        for (long id = 1; id <= 50; id++) {
+            backend.guardar(id, "Juego " + id);
+        }
+        server = new MockWebServer();
+        server.setDispatcher(backend);
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+
+        file = File.createTempFile("juegos", ".json");
+        file.delete();
+        store = new LocalStore<>(file, GsonProvider.get(), new TypeToken<List<GameSummaryDTO>>() {}.getType(),
+                GameSummaryDTO::getId, Runnable::run);
+        marcas = new MarcasEnMemoria();
+        sync = new DeltaSync<>("juegos", store, api::getGameChanges, marcas, 7 * UN_DIA_MS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        file.delete();
+        new File(file.getPath() + ".log").delete();
+    }
+
+    // Lo que hace el repositorio cuando hace falta la lista completa
+    private void descargaCompleta() {
+        Long marca = sync.pedirMarca();
+        synchronized (backend) {
+            store.reemplazarTodos(new ArrayList<>(backend.juegos.values()));
+        }
+        sync.terminarCompleta(marca);
+    }
+
+    @Test
+    public void sinMarcaHaceFaltaLaListaCompleta() throws IOException {
+        assertTrue(sync.sincronizar().isCompletaNecesaria());
+        assertEquals(0, server.getRequestCount());
+
+        descargaCompleta();
+        assertEquals(50L, (long) marcas.leer("juegos"));
+        DeltaSync.Resultado resultado = sync.sincronizar();
+        assertFalse(resultado.isCompletaNecesaria());
+        assertEquals(0, resultado.getCambiados());
+    }
+
+    @Test
+    public void soloTraeLoQueHaCambiadoYAplicaLosBorrados() throws Exception {
+        descargaCompleta();
+        backend.guardar(3L, "Juego 3 (edición GOTY)");
+        backend.guardar(51L, "Juego nuevo");
+        backend.borrar(7L);
+        backend.guardar(52L, "Creado y borrado");
+        backend.borrar(52L);
+        int peticionesAntes = server.getRequestCount();
+
+        DeltaSync.Resultado resultado = sync.sincronizar();
+
+        assertFalse(resultado.isCompletaNecesaria());
+        assertEquals(2, resultado.getCambiados());
+        assertEquals(2, resultado.getBorrados());
+        assertEquals(1, server.getRequestCount() - peticionesAntes);
+        assertEquals("Juego 3 (edición GOTY)", store.leer(3L).getTitle());
+        assertNotNull(store.leer(51L));
+        assertNull(store.leer(7L));
+        assertNull(store.leer(52L));
+        assertEquals(50, store.leerTodos().size());
+    }
+
+    @Test
+    public void sigueLasPaginasYGuardaLaMarcaDeCadaUna() throws IOException {
+        descargaCompleta();
+        backend.porPagina = 2;
+        for (long id = 1; id <= 5; id++) {
+            backend.guardar(id, "Cambiado " + id);
+        }
+        int peticionesAntes = server.getRequestCount();
+
+        DeltaSync.Resultado resultado = sync.sincronizar();
+
+        assertEquals(5, resultado.getCambiados());
+        assertEquals(3, server.getRequestCount() - peticionesAntes);
+        assertEquals(backend.version, (long) marcas.leer("juegos"));
+        assertEquals("Cambiado 5", store.leer(5L).getTitle());
+    }
+
+    @Test
+    public void marcaDemasiadoAntiguaObligaAResincronizar() throws IOException {
+        descargaCompleta();
+        // El servidor ya no guarda los borrados de entonces
+        backend.retencion = backend.version + 10;
+        backend.guardar(1L, "Cambiado");
+
+        assertTrue(sync.sincronizar().isCompletaNecesaria());
+        assertNull(marcas.leer("juegos"));
+
+        // Sin preguntar al servidor si la última sincronización es de hace más de una semana
+        descargaCompleta();
+        marcas.guardar("juegos", marcas.leer("juegos"), System.currentTimeMillis() - 8 * UN_DIA_MS);
+        int peticionesAntes = server.getRequestCount();
+        assertTrue(sync.sincronizar().isCompletaNecesaria());
+        assertEquals(peticionesAntes, server.getRequestCount());
+    }
+
+    @Test
+    public void laMarcaNoSeGuardaHastaQueLosDatosEstanEnDisco() {
+        List<Runnable> disco = new ArrayList<>();
+        LocalStore<GameSummaryDTO> lento = new LocalStore<>(file, GsonProvider.get(),
+                new TypeToken<List<GameSummaryDTO>>() {}.getType(), GameSummaryDTO::getId, disco::add);
+        DeltaSync<GameSummaryDTO> conDisco = new DeltaSync<>("juegos", lento, api::getGameChanges,
+                marcas, 7 * UN_DIA_MS);
+
+        Long marca = conDisco.pedirMarca();
+        synchronized (backend) {
+            lento.reemplazarTodos(new ArrayList<>(backend.juegos.values()));
+        }
+        conDisco.terminarCompleta(marca);
+        assertNull(marcas.leer("juegos"));
+
+        while (!disco.isEmpty()) {
+            disco.remove(0).run();
+        }
+        assertTrue(file.exists());
+        assertEquals(50L, (long) marcas.leer("juegos"));
+    }
+
+    @Test
+    public void sinEndpointDeCambiosNoSeVuelveAPreguntar() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest peticion) {
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+
+        descargaCompleta();
+        assertEquals(1, server.getRequestCount());
+        assertFalse(sync.isCambiosDisponibles());
+        assertNull(marcas.leer("juegos"));
+
+        assertTrue(sync.sincronizar().isCompletaNecesaria());
+        descargaCompleta();
+        assertEquals(1, server.getRequestCount());
+    }
+}
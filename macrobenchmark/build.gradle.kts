@@ -0,0 +1,39 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.baselineprofile)
+}
+
+android {
+    namespace = "com.example.gamelend.macrobenchmark"
+    compileSdk = 35
+
+    defaultConfig {
+        // Generar Baseline Profiles sin root requiere API 28+
+        minSdk = 28
+        targetSdk = 34
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    targetProjectPath = ":app"
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+}
+
+// ./gradlew :app:generateBaselineProfile           -> app/src/release/generated/baselineProfiles/
+// ./gradlew :macrobenchmark:connectedBenchmarkReleaseAndroidTest -> build/outputs/connected_android_test_additional_output/
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+
+    // Backend simulado dentro del proceso de test
+    implementation(libs.okhttp.mockwebserver)
+}
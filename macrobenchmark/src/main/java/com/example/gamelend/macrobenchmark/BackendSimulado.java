@@ -0,0 +1,103 @@
+package com.example.gamelend.macrobenchmark;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+// Sustituto local del backend para que los tiempos no dependan de la red ni del servidor real.
+// Escucha en el puerto que usan los builds de benchmark (BuildConfig.BASE_URL) y responde
+// al login, a las páginas de usuarios, a sus juegos (también por lotes) y a la sincronización
+// incremental con datos fijos.
+public class BackendSimulado {
+
+    public static final int PUERTO = 8081;
+    public static final int TOTAL_USUARIOS = 1000;
+
+    private static final String[] PROVINCIAS = {"Madrid", "Sevilla", "Valencia", "A Coruña", "Málaga"};
+
+    private final MockWebServer server = new MockWebServer();
+
+    public void arrancar() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responder(request);
+            }
+        });
+        server.start(PUERTO);
+    }
+
+    public void parar() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse responder(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        String path = url != null ? url.encodedPath() : "";
+
+        if (path.equals("/api/auth/login") || path.equals("/api/auth/refresh")) {
+            return json("{\"access_token\":\"token-benchmark\",\"refresh_token\":\"refresh-benchmark\"}");
+        }
+        if (path.equals("/api/users")) {
+            String page = url.queryParameter("page");
+            String size = url.queryParameter("size");
+            if (page != null && size != null) {
+                return json(usuarios(Integer.parseInt(page) * Integer.parseInt(size), Integer.parseInt(size)));
+            }
+            return json(usuarios(0, TOTAL_USUARIOS));
+        }
+        if (path.equals("/api/games")) {
+            return json("[]");
+        }
+        // Los usuarios simulados no tienen juegos
+        if (path.startsWith("/api/games/user/")) {
+            return json("[]");
+        }
+        if (path.equals("/api/games/users")) {
+            StringBuilder porUsuario = new StringBuilder("{");
+            String ids = url.queryParameter("ids");
+            if (ids != null) {
+                for (String id : ids.split(",")) {
+                    if (porUsuario.length() > 1) {
+                        porUsuario.append(',');
+                    }
+                    porUsuario.append('"').append(id).append("\":[]");
+                }
+            }
+            return json(porUsuario.append('}').toString());
+        }
+        // Los datos no cambian: la sincronización incremental nunca trae nada
+        if (path.equals("/api/games/changes")) {
+            return json("{\"items\":[],\"deletedIds\":[],\"watermark\":1,\"hasMore\":false}");
+        }
+        return new MockResponse().setResponseCode(404);
+    }
+
+    private static MockResponse json(String cuerpo) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(cuerpo);
+    }
+
+    private static String usuarios(int desde, int cantidad) {
+        int hasta = Math.min(desde + cantidad, TOTAL_USUARIOS);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = desde; i < hasta; i++) {
+            if (i > desde) {
+                json.append(',');
+            }
+            String provincia = PROVINCIAS[i % PROVINCIAS.length];
+            json.append("{\"id\":").append(i)
+                    .append(",\"nombrePublico\":\"Usuario ").append(i)
+                    .append("\",\"email\":\"usuario").append(i).append("@gamelend.com")
+                    .append("\",\"provincia\":\"").append(provincia)
+                    .append("\",\"localidad\":\"").append(provincia).append(" centro")
+                    .append("\",\"fechaRegistro\":\"2024-01-15\"}");
+        }
+        return json.append(']').toString();
+    }
+}
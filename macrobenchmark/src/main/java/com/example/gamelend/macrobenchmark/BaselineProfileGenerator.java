@@ -0,0 +1,54 @@
+package com.example.gamelend.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+// Genera el Baseline Profile con el recorrido que más pesa en el arranque:
+// login -> ListaUsuarios -> scroll. Se lanza con ./gradlew :app:generateBaselineProfile
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule rule = new BaselineProfileRule();
+
+    private final BackendSimulado backend = new BackendSimulado();
+
+    @Before
+    public void arrancarBackend() throws IOException {
+        backend.arrancar();
+    }
+
+    @After
+    public void pararBackend() throws IOException {
+        backend.parar();
+    }
+
+    @Test
+    public void generar() {
+        rule.collect(
+                Recorrido.PAQUETE,
+                15,
+                3,
+                null,
+                true,
+                false,
+                regla -> true,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Recorrido.iniciarSesion(scope);
+                    Recorrido.desplazarDirectorio(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
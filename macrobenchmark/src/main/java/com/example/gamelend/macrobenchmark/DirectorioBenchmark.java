@@ -0,0 +1,150 @@
+package com.example.gamelend.macrobenchmark;
+
+import androidx.annotation.OptIn;
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.ExperimentalMetricApi;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+// Recorrido completo contra el backend simulado: arranque en frío, login y primera ventana
+// de ListaUsuarios (reportFullyDrawn = time-to-full-display), la petición de login con y sin
+// conexiones precalentadas, y fotogramas del scroll.
+@RunWith(AndroidJUnit4.class)
+public class DirectorioBenchmark {
+
+    private static final String TRAZA_LOGIN_A_DIRECTORIO = "GameLend:loginADirectorio";
+    private static final String TRAZA_LOGIN = "GameLend:login";
+    private static final String EXTRA_SIN_PRECALENTAR = "sin_precalentar";
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    private final BackendSimulado backend = new BackendSimulado();
+
+    @Before
+    public void arrancarBackend() throws IOException {
+        backend.arrancar();
+    }
+
+    @After
+    public void pararBackend() throws IOException {
+        backend.parar();
+    }
+
+    @Test
+    public void loginADirectorioSinCompilar() {
+        loginADirectorio(new CompilationMode.None());
+    }
+
+    @Test
+    public void loginADirectorioConBaselineProfile() {
+        loginADirectorio(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    // Solo la petición de login, con y sin las conexiones abiertas mientras se escribe
+    @Test
+    public void loginConConexionesPrecalentadas() {
+        login(false);
+    }
+
+    @Test
+    public void loginSinPrecalentar() {
+        login(true);
+    }
+
+    @Test
+    public void scrollSinCompilar() {
+        scroll(new CompilationMode.None());
+    }
+
+    @Test
+    public void scrollConBaselineProfile() {
+        scroll(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    // TraceSectionMetric es API experimental de Macrobenchmark
+    @OptIn(markerClass = ExperimentalMetricApi.class)
+    private void loginADirectorio(CompilationMode compilationMode) {
+        List<Metric> metricas = Arrays.asList(
+                new StartupTimingMetric(),
+                new TraceSectionMetric(TRAZA_LOGIN_A_DIRECTORIO),
+                new FrameTimingMetric());
+
+        rule.measureRepeated(
+                Recorrido.PAQUETE,
+                metricas,
+                compilationMode,
+                StartupMode.COLD,
+                10,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    Recorrido.iniciarSesion(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @OptIn(markerClass = ExperimentalMetricApi.class)
+    private void login(boolean sinPrecalentar) {
+        rule.measureRepeated(
+                Recorrido.PAQUETE,
+                Collections.singletonList(new TraceSectionMetric(TRAZA_LOGIN)),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.COLD,
+                10,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait(intent -> {
+                        intent.putExtra(EXTRA_SIN_PRECALENTAR, sinPrecalentar);
+                        return Unit.INSTANCE;
+                    });
+                    Recorrido.iniciarSesion(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private void scroll(CompilationMode compilationMode) {
+        rule.measureRepeated(
+                Recorrido.PAQUETE,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.WARM,
+                10,
+                scope -> {
+                    // El login queda fuera de la medida: solo cuentan los fotogramas del scroll
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Recorrido.iniciarSesion(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Recorrido.desplazarDirectorio(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.gamelend.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+// Pasos del recorrido principal (login -> directorio -> scroll) compartidos por los
+// benchmarks y por el generador del Baseline Profile
+final class Recorrido {
+
+    static final String PAQUETE = "com.example.gamelend";
+
+    private static final long ESPERA_MS = 10_000;
+
+    private Recorrido() {
+    }
+
+    static void iniciarSesion(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.wait(Until.hasObject(By.res(PAQUETE, "editTextUsuario")), ESPERA_MS);
+
+        device.findObject(By.res(PAQUETE, "editTextUsuario")).setText("benchmark@gamelend.com");
+        device.findObject(By.res(PAQUETE, "editTextContrasena")).setText("benchmark");
+        device.findObject(By.res(PAQUETE, "buttonEntrar")).click();
+
+        esperarDirectorio(device);
+    }
+
+    // Hasta que ListaUsuarios tiene filas pintadas
+    static void esperarDirectorio(UiDevice device) {
+        device.wait(Until.hasObject(By.res(PAQUETE, "recyclerView").hasChild(By.depth(1))), ESPERA_MS);
+        device.waitForIdle();
+    }
+
+    static void desplazarDirectorio(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 lista = device.findObject(By.res(PAQUETE, "recyclerView"));
+        // Margen para que el gesto no abra la barra de notificaciones ni el gesto de atrás
+        lista.setGestureMargin(device.getDisplayWidth() / 5);
+
+        for (int i = 0; i < 3; i++) {
+            lista.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        lista.fling(Direction.UP);
+        device.waitForIdle();
+    }
+}
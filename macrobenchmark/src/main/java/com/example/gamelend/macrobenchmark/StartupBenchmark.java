@@ -0,0 +1,52 @@
+package com.example.gamelend.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+// Arranque en frío de MainActivity (time-to-initial-display) sin compilar y con el
+// Baseline Profile, para ver cuánto aporta el perfil
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test
+    public void arranqueSinCompilar() {
+        arranque(new CompilationMode.None());
+    }
+
+    @Test
+    public void arranqueConBaselineProfile() {
+        arranque(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void arranque(CompilationMode compilationMode) {
+        rule.measureRepeated(
+                Recorrido.PAQUETE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                10,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+}
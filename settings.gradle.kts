@@ -21,3 +21,8 @@ dependencyResolutionManagement {
 
 rootProject.name = "GameLend"
 include(":app")
+// Código sin dependencias de Android (DTO, red, caché local) y sus benchmarks JMH
+include(":core")
+include(":benchmark")
+// Arranque y scroll medidos en dispositivo y generación del Baseline Profile
+include(":macrobenchmark")